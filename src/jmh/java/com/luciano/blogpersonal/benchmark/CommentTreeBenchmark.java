@@ -0,0 +1,76 @@
+package com.luciano.blogpersonal.benchmark;
+
+import com.luciano.blogpersonal.comment.dto.CommentResponse;
+import com.luciano.blogpersonal.comment.mapper.CommentMapper;
+import com.luciano.blogpersonal.comment.model.Comment;
+import com.luciano.blogpersonal.post.model.Post;
+import com.luciano.blogpersonal.user.mapper.UserMapper;
+import com.luciano.blogpersonal.user.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la construcción del árbol de comentarios de un post (CommentMapper.toDtoList) sobre árboles sintéticos.
+ * Un 10% de los comentarios son raíces y el resto responde a un comentario anterior elegido con semilla fija
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommentTreeBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    private int comments;
+
+    private CommentMapper commentMapper;
+    private List<Comment> tree;
+
+    @Setup
+    public void setup(){
+        //Sin límites de profundidad ni de respuestas, como la configuración por defecto
+        commentMapper = new CommentMapper(new UserMapper(), 0, 0);
+
+        Post post = new Post();
+        post.setId(1L);
+
+        List<User> users = new ArrayList<>();
+        for (long i = 1; i <= 50; i++){
+            User user = new User();
+            user.setId(i);
+            user.setName("Nombre " + i);
+            user.setLastName("Apellido " + i);
+            user.setUsername("usuario" + i);
+            user.setEmail("usuario" + i + "@blog.com");
+            user.setCreatedAt(LocalDateTime.now());
+            users.add(user);
+        }
+
+        Random random = new Random(42);
+        int roots = Math.max(1, comments / 10);
+        tree = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++){
+            Comment comment = new Comment();
+            comment.setId((long) i + 1);
+            comment.setContent("Comentario " + (i + 1));
+            comment.setCreatedAt(LocalDateTime.now());
+            comment.setPost(post);
+            comment.setUser(users.get(random.nextInt(users.size())));
+            if (i >= roots){
+                comment.setParent(tree.get(random.nextInt(i)));
+            }
+            tree.add(comment);
+        }
+    }
+
+    @Benchmark
+    public List<CommentResponse> toDtoList(){
+        return commentMapper.toDtoList(tree);
+    }
+}
@@ -0,0 +1,44 @@
+package com.luciano.blogpersonal.benchmark;
+
+import com.luciano.blogpersonal.common.utils.AppConstants;
+import com.luciano.blogpersonal.security.jwt.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la emisión y validación de tokens JWT, con y sin los claims de usuario (app.jwt.stateless-claims)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "miClaveSecretaJWTDebeSerLargaYCompleja123456789";
+    private static final long EXPIRATION_MS = 604800000L;
+
+    @Param({"false", "true"})
+    private boolean statelessClaims;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setup(){
+        jwtTokenProvider = new JwtTokenProvider(SECRET, EXPIRATION_MS, statelessClaims);
+        token = jwtTokenProvider.generateToken("usuario1", 1L, AppConstants.ROLE_USER, 0);
+    }
+
+    @Benchmark
+    public String generateToken(){
+        return jwtTokenProvider.generateToken("usuario1", 1L, AppConstants.ROLE_USER, 0);
+    }
+
+    @Benchmark
+    public boolean validateToken(){
+        return jwtTokenProvider.validateToken(token);
+    }
+}
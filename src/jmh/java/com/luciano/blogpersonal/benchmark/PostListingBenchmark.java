@@ -0,0 +1,144 @@
+package com.luciano.blogpersonal.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.luciano.blogpersonal.common.dto.PaginatedResponse;
+import com.luciano.blogpersonal.post.dto.PostSummaryProjection;
+import com.luciano.blogpersonal.post.dto.PostSummaryResponse;
+import com.luciano.blogpersonal.post.mapper.PostMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el armado de una página del listado de posts: proyección a PostSummaryResponse (PostMapper.toSummaryResponse)
+ * y serialización JSON de PaginatedResponse con la misma configuración de Jackson que application.properties
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostListingBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private PostMapper postMapper;
+    private ObjectMapper objectMapper;
+    private List<PostSummaryProjection> projections;
+    private PaginatedResponse<PostSummaryResponse> page;
+
+    @Setup
+    public void setup(){
+        postMapper = new PostMapper();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .simpleDateFormat("yyyy-MM-dd HH:mm:ss")
+                .timeZone(TimeZone.getTimeZone("America/Lima"))
+                .featuresToDisable(SerializationFeature.FAIL_ON_EMPTY_BEANS, SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        projections = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++){
+            projections.add(new SyntheticSummary(i));
+        }
+
+        page = PaginatedResponse.<PostSummaryResponse>builder()
+                .content(toSummaries())
+                .pageNo(0)
+                .pageSize(pageSize)
+                .totalElements(200_000)
+                .totalPages(200_000 / pageSize)
+                .first(true)
+                .last(false)
+                .build();
+    }
+
+    @Benchmark
+    public List<PostSummaryResponse> toSummaryResponse(){
+        return toSummaries();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private List<PostSummaryResponse> toSummaries(){
+        List<PostSummaryResponse> summaries = new ArrayList<>(projections.size());
+        for (PostSummaryProjection projection : projections){
+            summaries.add(postMapper.toSummaryResponse(projection));
+        }
+        return summaries;
+    }
+
+    //Proyección en memoria con valores parecidos a los de un post real
+    private record SyntheticSummary(long number) implements PostSummaryProjection {
+
+        @Override
+        public Long getId(){
+            return number;
+        }
+
+        @Override
+        public String getTitle(){
+            return "Post de prueba número " + number;
+        }
+
+        @Override
+        public String getSlug(){
+            return "post-de-prueba-numero-" + number;
+        }
+
+        @Override
+        public String getExcerpt(){
+            return "Un extracto corto que resume el contenido del post para mostrarlo en los listados del blog.";
+        }
+
+        @Override
+        public String getFeaturedImage(){
+            return "https://cdn.blog.com/images/" + number + ".jpg";
+        }
+
+        @Override
+        public LocalDateTime getPublishedAt(){
+            return LocalDateTime.of(2024, 1, 1, 12, 0).plusHours(number);
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt(){
+            return LocalDateTime.of(2024, 1, 1, 10, 0).plusHours(number);
+        }
+
+        @Override
+        public int getViewCount(){
+            return (int) (number * 37 % 10_000);
+        }
+
+        @Override
+        public int getCommentCount(){
+            return (int) (number % 40);
+        }
+
+        @Override
+        public int getApprovedCommentCount(){
+            return (int) (number % 35);
+        }
+
+        @Override
+        public Long getAuthorId(){
+            return number % 20 + 1;
+        }
+
+        @Override
+        public String getAuthorName(){
+            return "autor" + (number % 20 + 1);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.luciano.blogpersonal.benchmark;
+
+import com.luciano.blogpersonal.common.utils.SlugUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la generación de slugs a partir de títulos cortos, con tildes y largos
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlugBenchmark {
+
+    @Param({"ascii", "acentos", "largo"})
+    private String title;
+
+    private String text;
+
+    @Setup
+    public void setup(){
+        text = switch (title){
+            case "ascii" -> "Getting started with Spring Boot 3";
+            case "acentos" -> "¿Cómo configurar la autenticación JWT en España? Guía rápida";
+            default -> "Árboles de comentarios, paginación por cursor y caché: ".repeat(8);
+        };
+    }
+
+    @Benchmark
+    public String generateSlug(){
+        return SlugUtils.generateSlug(text);
+    }
+}
@@ -0,0 +1,105 @@
+package com.luciano.blogpersonal.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acumula latencias y errores por endpoint y arma el informe final con percentiles.
+ * Las latencias se miden desde el instante en que la solicitud debía salir según el ritmo objetivo,
+ * así una respuesta lenta también cuenta el tiempo que esperaron las solicitudes siguientes.
+ */
+public class LatencyRecorder {
+
+    private final Map<LoadTestEndpoint, EndpointStats> stats = new EnumMap<>(LoadTestEndpoint.class);
+
+    public LatencyRecorder(){
+        for (LoadTestEndpoint endpoint : LoadTestEndpoint.values()){
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    /**
+     * Registra una respuesta HTTP
+     * @param status Código de estado; cualquier código fuera de 2xx cuenta como error
+     */
+    public void record(LoadTestEndpoint endpoint, long latencyNanos, int status){
+        stats.get(endpoint).record(latencyNanos, String.valueOf(status), status >= 200 && status < 300);
+    }
+
+    /**
+     * Registra una solicitud que no obtuvo respuesta (tiempo agotado, conexión rechazada, ...)
+     */
+    public void recordFailure(LoadTestEndpoint endpoint, long latencyNanos, Throwable error){
+        stats.get(endpoint).record(latencyNanos, error.getClass().getSimpleName(), false);
+    }
+
+    public void print(PrintStream out, Duration measured, int targetRps){
+        double seconds = measured.toNanos() / 1e9;
+        out.println();
+        out.printf("Resultados (%.0f s medidos, objetivo %d solicitudes/s)%n", seconds, targetRps);
+        out.printf("%-32s %9s %9s %9s %9s %9s %9s %9s %8s%n", "endpoint", "total", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errores");
+
+        long total = 0;
+        long errors = 0;
+        for (Map.Entry<LoadTestEndpoint, EndpointStats> entry : stats.entrySet()){
+            EndpointStats endpointStats = entry.getValue();
+            long[] latencies = endpointStats.sortedLatencies();
+            if (latencies.length == 0){
+                continue;
+            }
+            total += latencies.length;
+            errors += endpointStats.errorCount();
+            out.printf("%-32s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d%n", entry.getKey().getRoute(), latencies.length,
+                    latencies.length / seconds, percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6, endpointStats.errorCount());
+        }
+        out.printf("%-32s %9d %9.1f %49s %8d%n", "total", total, total / seconds, "", errors);
+
+        for (Map.Entry<LoadTestEndpoint, EndpointStats> entry : stats.entrySet()){
+            Map<String, Long> outcomes = entry.getValue().errorsByOutcome();
+            if (!outcomes.isEmpty()){
+                out.printf("Errores en %s: %s%n", entry.getKey().getRoute(), outcomes);
+            }
+        }
+    }
+
+    //Percentil por rango más cercano, en milisegundos
+    private static double percentile(long[] sorted, double quantile){
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static class EndpointStats {
+        private long[] latencies = new long[1024];
+        private int size;
+        private final Map<String, Long> errors = new TreeMap<>();
+
+        synchronized void record(long latencyNanos, String outcome, boolean success){
+            if (size == latencies.length){
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (!success){
+                errors.merge(outcome, 1L, Long::sum);
+            }
+        }
+
+        synchronized long[] sortedLatencies(){
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        synchronized long errorCount(){
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        synchronized Map<String, Long> errorsByOutcome(){
+            return new TreeMap<>(errors);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.luciano.blogpersonal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luciano.blogpersonal.common.datagen.BlogDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Genera tráfico contra la API a un ritmo fijo (modelo abierto): cada solicitud tiene su instante de salida
+ * calculado de antemano y se envía en su propio hilo virtual, sin esperar a que terminen las anteriores.
+ * Si el servidor se atrasa las solicitudes se acumulan en vez de frenar el ritmo, igual que con usuarios reales.
+ */
+public class LoadTestDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDriver.class);
+
+    private final URI baseUri;
+    private final LoadTestOptions options;
+    private final String password;
+    private final long firstUserId;
+    private final List<Long> postIds;
+    private final List<String> postSlugs;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> tokens = new ArrayList<>();
+    private final LoadTestEndpoint[] weightedEndpoints;
+    private final long[] cumulativeWeights;
+
+    public LoadTestDriver(URI baseUri, LoadTestOptions options, String password, long firstUserId, List<Long> postIds, List<String> postSlugs){
+        if (postIds.isEmpty()){
+            throw new IllegalArgumentException("No hay posts publicados para la prueba de carga");
+        }
+        this.baseUri = baseUri;
+        this.options = options;
+        this.password = password;
+        this.firstUserId = firstUserId;
+        this.postIds = postIds;
+        this.postSlugs = postSlugs;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.getRequestTimeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        //Pesos acumulados de los endpoints con peso positivo: cada uno se elige en proporción exacta a su peso,
+        // por chico que sea respecto del total
+        List<LoadTestEndpoint> endpoints = new ArrayList<>();
+        List<Long> bounds = new ArrayList<>();
+        long totalWeight = 0;
+        for (Map.Entry<LoadTestEndpoint, Integer> entry : options.getMix().entrySet()){
+            if (entry.getValue() < 0){
+                throw new IllegalArgumentException("El peso de " + entry.getKey() + " no puede ser negativo");
+            }
+            if (entry.getValue() > 0){
+                totalWeight += entry.getValue();
+                endpoints.add(entry.getKey());
+                bounds.add(totalWeight);
+            }
+        }
+        if (totalWeight <= 0){
+            throw new IllegalArgumentException("La mezcla de endpoints no tiene pesos positivos");
+        }
+        this.weightedEndpoints = endpoints.toArray(new LoadTestEndpoint[0]);
+        this.cumulativeWeights = bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    //Busca el primer endpoint cuyo peso acumulado supera el valor sorteado
+    private LoadTestEndpoint pickEndpoint(Random random){
+        long value = random.nextLong(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, value);
+        return weightedEndpoints[index >= 0 ? index + 1 : -index - 1];
+    }
+
+    /**
+     * Inicia sesión con los usuarios que escribirán comentarios y guarda sus tokens
+     */
+    public void login() throws IOException, InterruptedException {
+        for (int i = 0; i < options.getLoggedInUsers(); i++){
+            long userId = firstUserId + i;
+            HttpResponse<String> response = httpClient.send(buildRequest(LoadTestEndpoint.LOGIN, userId), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200){
+                throw new IllegalStateException("No se pudo iniciar sesión con " + BlogDataGenerator.username(userId) + ": " + response.statusCode());
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            tokens.add(body.get("accessToken").asText());
+        }
+        log.info("{} usuarios con sesión iniciada", tokens.size());
+    }
+
+    /**
+     * Ejecuta el calentamiento y la medición
+     * @return Latencias y errores de la fase medida
+     */
+    public LatencyRecorder run() throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRps();
+        long start = System.nanoTime();
+        long measureFrom = start + options.getWarmup().toNanos();
+        long end = measureFrom + options.getDuration().toNanos();
+        Random random = new Random(options.getSeed());
+
+        log.info("Calentamiento de {} s y medición de {} s a {} solicitudes/s",
+                options.getWarmup().toSeconds(), options.getDuration().toSeconds(), options.getRps());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+            for (long scheduled = start; scheduled < end; scheduled += intervalNanos){
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0){
+                    LockSupport.parkNanos(wait);
+                }
+
+                LoadTestEndpoint endpoint = pickEndpoint(random);
+                long intendedStart = scheduled;
+                boolean measured = scheduled >= measureFrom;
+                executor.execute(() -> send(endpoint, intendedStart, measured ? recorder : null));
+            }
+            //El cierre del executor espera a que terminen las solicitudes en curso
+        }
+        return recorder;
+    }
+
+    private void send(LoadTestEndpoint endpoint, long intendedStart, LatencyRecorder recorder){
+        try {
+            HttpResponse<Void> response = httpClient.send(buildRequest(endpoint, 0), HttpResponse.BodyHandlers.discarding());
+            if (recorder != null){
+                recorder.record(endpoint, System.nanoTime() - intendedStart, response.statusCode());
+            }
+        } catch (IOException ex){
+            if (recorder != null){
+                recorder.recordFailure(endpoint, System.nanoTime() - intendedStart, ex);
+            }
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest buildRequest(LoadTestEndpoint endpoint, long userId){
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int postIndex = random.nextInt(postIds.size());
+        Long postId = postIds.get(postIndex);
+
+        HttpRequest.Builder request = switch (endpoint){
+            //Las primeras páginas reciben la mayor parte del tráfico, como en el blog real
+            case LIST -> get("/api/posts?pageNo=" + (random.nextInt(10) < 8 ? random.nextInt(3) : random.nextInt(50)));
+            case SLUG -> get("/api/posts/slug/" + postSlugs.get(postIndex));
+            case SEARCH -> get("/api/posts/search?keyword=" + URLEncoder.encode(
+                    BlogDataGenerator.TOPICS[random.nextInt(BlogDataGenerator.TOPICS.length)], StandardCharsets.UTF_8));
+            case COMMENTS -> get("/api/posts/" + postId + "/comments");
+            case COMMENT_WRITE -> post("/api/posts/" + postId + "/comments",
+                    "{\"content\":\"Comentario de la prueba de carga\",\"postId\":" + postId + "}")
+                    .header("Authorization", "Bearer " + tokens.get(random.nextInt(tokens.size())));
+            case LOGIN -> post("/api/auth/login", "{\"usernameEmail\":\"" + BlogDataGenerator.username(
+                    userId > 0 ? userId : firstUserId + random.nextInt(options.getUsers())) + "\",\"password\":\"" + password + "\"}");
+        };
+        return request.timeout(options.getRequestTimeout()).build();
+    }
+
+    private HttpRequest.Builder get(String path){
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json){
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+}
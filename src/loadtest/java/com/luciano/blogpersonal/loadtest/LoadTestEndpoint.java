@@ -0,0 +1,31 @@
+package com.luciano.blogpersonal.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Operaciones que genera la prueba de carga, con su peso por defecto dentro de la mezcla
+ */
+@Getter
+@AllArgsConstructor
+public enum LoadTestEndpoint {
+    LIST("list", "GET /api/posts", 35),
+    SLUG("slug", "GET /api/posts/slug/{slug}", 25),
+    SEARCH("search", "GET /api/posts/search", 10),
+    COMMENTS("comments", "GET /api/posts/{id}/comments", 15),
+    COMMENT_WRITE("comment-write", "POST /api/posts/{id}/comments", 10),
+    LOGIN("login", "POST /api/auth/login", 5);
+
+    private final String name;
+    private final String route;
+    private final int defaultWeight;
+
+    public static LoadTestEndpoint fromName(String name){
+        for (LoadTestEndpoint endpoint : values()){
+            if (endpoint.name.equals(name)){
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Endpoint desconocido en la mezcla: " + name);
+    }
+}
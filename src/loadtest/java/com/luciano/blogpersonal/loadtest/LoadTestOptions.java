@@ -0,0 +1,103 @@
+package com.luciano.blogpersonal.loadtest;
+
+import com.luciano.blogpersonal.common.datagen.DataGenerationSpec;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Opciones de la prueba de carga, leídas de argumentos --clave=valor.
+ * Ejemplo: --rps=400 --duration=120s --posts=20000 --mix=list:40,slug:30,search:10,comments:10,comment-write:5,login:5
+ */
+@Getter
+public class LoadTestOptions {
+
+    private int users = 200;
+    private int posts = 5000;
+    private int categories = 20;
+    private int tags = 100;
+    private int commentsPerPost = 10;
+    private long seed = 42;
+
+    private int rps = 200;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration requestTimeout = Duration.ofSeconds(5);
+    private int loggedInUsers = 50;
+    private final Map<LoadTestEndpoint, Integer> mix = new EnumMap<>(LoadTestEndpoint.class);
+
+    public static LoadTestOptions parse(String[] args){
+        LoadTestOptions options = new LoadTestOptions();
+        for (LoadTestEndpoint endpoint : LoadTestEndpoint.values()){
+            options.mix.put(endpoint, endpoint.getDefaultWeight());
+        }
+
+        for (String arg : args){
+            if (!arg.startsWith("--") || !arg.contains("=")){
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (se espera --clave=valor)");
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key){
+                case "users" -> options.users = Integer.parseInt(value);
+                case "posts" -> options.posts = Integer.parseInt(value);
+                case "categories" -> options.categories = Integer.parseInt(value);
+                case "tags" -> options.tags = Integer.parseInt(value);
+                case "comments-per-post" -> options.commentsPerPost = Integer.parseInt(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "rps" -> options.rps = Integer.parseInt(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "timeout" -> options.requestTimeout = parseDuration(value);
+                case "logged-in-users" -> options.loggedInUsers = Integer.parseInt(value);
+                case "mix" -> options.parseMix(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + key);
+            }
+        }
+
+        if (options.users < 1 || options.posts < 1 || options.categories < 1 || options.tags < 1 || options.rps < 1 || options.loggedInUsers < 1){
+            throw new IllegalArgumentException("users, posts, categories, tags, rps y logged-in-users deben ser mayores que 0");
+        }
+        options.loggedInUsers = Math.min(options.loggedInUsers, options.users);
+        return options;
+    }
+
+    /**
+     * Especificación del conjunto de datos a generar antes de la prueba
+     */
+    public DataGenerationSpec toGenerationSpec(){
+        return DataGenerationSpec.builder()
+                .seed(seed)
+                .users(users)
+                .categories(categories)
+                .tags(tags)
+                .posts(posts)
+                .meanCommentsPerPost(commentsPerPost)
+                .build();
+    }
+
+    //Los endpoints que no aparecen en la mezcla quedan con peso 0
+    private void parseMix(String value){
+        mix.replaceAll((endpoint, weight) -> 0);
+        for (String entry : value.split(",")){
+            String[] parts = entry.split(":");
+            mix.put(LoadTestEndpoint.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+    }
+
+    //Acepta segundos ("90s"), minutos ("2m") o el formato ISO-8601 ("PT90S")
+    private static Duration parseDuration(String value){
+        if (value.endsWith("ms")){
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")){
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")){
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
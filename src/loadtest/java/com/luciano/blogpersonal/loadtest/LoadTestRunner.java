@@ -0,0 +1,59 @@
+package com.luciano.blogpersonal.loadtest;
+
+import com.luciano.blogpersonal.BlogpersonalApplication;
+import com.luciano.blogpersonal.common.datagen.BlogDataGenerator;
+import com.luciano.blogpersonal.common.datagen.DataGenerationSpec;
+import com.luciano.blogpersonal.post.search.PostSearchEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Prueba de carga de extremo a extremo: levanta la aplicación con el perfil loadtest (H2 en memoria en modo MySQL),
+ * inserta el conjunto de datos con BlogDataGenerator, genera tráfico al ritmo indicado y muestra latencias y errores por endpoint.
+ * Se ejecuta con: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--rps=300 --duration=60s"
+ */
+public class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        //El índice de búsqueda de cada ejecución va a un directorio temporal, sin mezclarse con el del desarrollo local
+        Path searchIndexDir = Files.createTempDirectory("blogpersonal-loadtest-search");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogpersonalApplication.class)
+                .profiles("loadtest")
+                .run("--app.search.index-dir=" + searchIndexDir);
+
+        try {
+            DataGenerationSpec spec = options.toGenerationSpec();
+            BlogDataGenerator.Result generated = context.getBean(BlogDataGenerator.class).generate(spec);
+            context.getBean(PostSearchEngine.class).rebuild();
+
+            //Solo los posts publicados son visibles por slug y en los comentarios públicos
+            List<String> publishedSlugs = context.getBean(JdbcTemplate.class)
+                    .queryForList("SELECT slug FROM posts WHERE published = TRUE ORDER BY id", String.class);
+            List<Long> publishedIds = context.getBean(JdbcTemplate.class)
+                    .queryForList("SELECT id FROM posts WHERE published = TRUE ORDER BY id", Long.class);
+            log.info("Datos listos: {} posts ({} publicados) y {} comentarios", generated.posts(), publishedIds.size(), generated.comments());
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadTestDriver driver = new LoadTestDriver(URI.create("http://localhost:" + port), options, spec.getPassword(),
+                    generated.firstUserId(), publishedIds, publishedSlugs);
+            driver.login();
+            LatencyRecorder recorder = driver.run();
+            recorder.print(System.out, options.getDuration(), options.getRps());
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+}
@@ -7,12 +7,15 @@ import com.luciano.blogpersonal.category.service.CategoryService;
 import com.luciano.blogpersonal.common.dto.ApiResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.utils.AppConstants;
+import com.luciano.blogpersonal.common.web.ContentVersions;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,10 +28,12 @@ import java.util.List;
 
 public class CategoryController {
     private final CategoryService categoryService;
+    private final ContentVersions contentVersions;
 
 @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ContentVersions contentVersions) {
         this.categoryService = categoryService;
+        this.contentVersions = contentVersions;
     }
 
     /**
@@ -39,10 +44,15 @@ public class CategoryController {
     public ResponseEntity<PaginatedResponse<CategoryResponse>> getAllCategories(@RequestParam(value = "pageNo",defaultValue = AppConstants.DEFAULT_PAGE_NUMBER, required = false) int pageNo,
                                                                                 @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
                                                                                 @RequestParam(value = "sortBy", defaultValue = AppConstants.DEFAULT_SORT_BY)String sortBy,
-                                                                                @RequestParam(value = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir){
+                                                                                @RequestParam(value = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir,
+                                                                                WebRequest webRequest){
+        //Respuesta 304 antes de consultar si el cliente ya tiene la versión actual de las categorías
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.CATEGORIES, false)){
+            return null;
+        }
         PaginatedResponse<CategoryResponse> categories = categoryService.getAllCategories(pageNo, pageSize, sortBy, sortDir);
 
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categories);
     }
 
     /**
@@ -50,9 +60,12 @@ public class CategoryController {
      * GET /api/categories/all
      */
     @GetMapping("/all")
-    public ResponseEntity<List<CategoryResponse>> getAllCategories (){
+    public ResponseEntity<List<CategoryResponse>> getAllCategories (WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.CATEGORIES, false)){
+            return null;
+        }
         List<CategoryResponse> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categories);
     }
 
     /**
@@ -60,9 +73,12 @@ public class CategoryController {
      * GET /api/categories/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id){
+    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id, WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.CATEGORIES, false)){
+            return null;
+        }
         CategoryResponse category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(category);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(category);
     }
 
     /**
@@ -70,9 +86,12 @@ public class CategoryController {
      * GET /api/categories/slug/{slug}
      */
     @GetMapping("/slug/{slug}")
-    public ResponseEntity<CategoryResponse> getCategoryBySlug(@PathVariable String slug){
+    public ResponseEntity<CategoryResponse> getCategoryBySlug(@PathVariable String slug, WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.CATEGORIES, false)){
+            return null;
+        }
         CategoryResponse category = categoryService.getCategoryBySlug(slug);
-        return ResponseEntity.ok(category);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(category);
     }
 
     /**
@@ -80,9 +99,12 @@ public class CategoryController {
      * GET /api/categories/popular
      */
     @GetMapping("/popular")
-    public ResponseEntity<List<CategoryResponse>> getPopularCategories(@RequestParam(value = "limit", defaultValue = "10", required = false) int limit){
+    public ResponseEntity<List<CategoryResponse>> getPopularCategories(@RequestParam(value = "limit", defaultValue = "10", required = false) int limit, WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.CATEGORIES, false)){
+            return null;
+        }
         List<CategoryResponse> categories = categoryService.getPopularCategories(limit);
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categories);
     }
 
 
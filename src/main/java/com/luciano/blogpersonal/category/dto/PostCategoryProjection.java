@@ -0,0 +1,12 @@
+package com.luciano.blogpersonal.category.dto;
+
+/**
+ * Proyección con la información básica de una categoría asociada a un post.
+ * Permite cargar las categorías de varios posts en una sola consulta.
+ */
+public interface PostCategoryProjection {
+    Long getPostId();
+    Long getId();
+    String getName();
+    String getSlug();
+}
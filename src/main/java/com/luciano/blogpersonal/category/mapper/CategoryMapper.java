@@ -4,18 +4,11 @@ import com.luciano.blogpersonal.category.dto.CategoryCreateRequest;
 import com.luciano.blogpersonal.category.dto.CategoryResponse;
 import com.luciano.blogpersonal.category.dto.CategoryUpdateRequest;
 import com.luciano.blogpersonal.category.model.Category;
-import com.luciano.blogpersonal.category.repository.CategoryRepository;
 import org.springframework.stereotype.Component;
 
 @Component
 public class CategoryMapper {
 
-  private final CategoryRepository categoryRepository;
-
-    public CategoryMapper(CategoryRepository categoryRepository) {
-        this.categoryRepository = categoryRepository;
-    }
-
 
     public Category toEntity(CategoryCreateRequest categoryCreateRequest, String slug){
         if (categoryCreateRequest == null){
@@ -59,7 +52,7 @@ public class CategoryMapper {
                 .slug(category.getSlug())
                 .createdAt(category.getCreatedAt())
                 .updatedAt(category.getUpdatedAt())
-                .postCount((int)categoryRepository.countPostsByCategoryId(category.getId()))
+                .postCount((int) category.getPostCount()) //Contador mantenido en la tabla, sin consulta por categoría
                 .build();
     }
 
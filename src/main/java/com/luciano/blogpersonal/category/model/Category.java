@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_post_count", columnList = "post_count")
+})
 
 public class Category {
     @Id
@@ -35,6 +37,11 @@ public class Category {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    //Cantidad de posts asociados. Solo se modifica con las consultas de incremento y conciliación del repositorio,
+    // por eso no se incluye en los UPDATE de la entidad
+    @Column(name = "post_count", nullable = false, updatable = false)
+    private long postCount = 0;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
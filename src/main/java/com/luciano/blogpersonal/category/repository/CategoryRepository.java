@@ -1,10 +1,15 @@
 package com.luciano.blogpersonal.category.repository;
 
+import com.luciano.blogpersonal.category.dto.PostCategoryProjection;
+import com.luciano.blogpersonal.common.dto.PostCountProjection;
 import com.luciano.blogpersonal.category.model.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -19,12 +24,43 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     boolean existsBySlug(String slug);
 
-    @Query("SELECT c FROM Category c ORDER BY (SELECT COUNT(pc) FROM Post p JOIN p.categories pc WHERE pc.id = c.id) DESC")
-    List<Category> findAllOrderByPostCountDesc();
+    //Slugs ocupados por el slug base y sus variantes con sufijo, para elegir el siguiente libre con una sola consulta
+    @Query("SELECT c.slug FROM Category c WHERE c.slug = :slug OR c.slug LIKE CONCAT(:slug, '-%')")
+    List<String> findSlugsWithPrefix(@Param("slug") String slug);
+
+    @Query("SELECT c FROM Category c ORDER BY c.postCount DESC, c.id ASC")
+    List<Category> findAllOrderByPostCountDesc(Pageable pageable);
+
+    //Contadores para el ranking de populares en memoria
+    @Query("SELECT c.id AS id, c.postCount AS postCount FROM Category c")
+    List<PostCountProjection> findAllPostCounts();
+
+    @Query("SELECT c.id AS id, c.postCount AS postCount FROM Category c WHERE c.id IN :ids")
+    List<PostCountProjection> findPostCountsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT COUNT(p) FROM Post p JOIN p.categories c WHERE c.id = :categoryId")
     long countPostsByCategoryId( @Param("categoryId") Long categoryId);
 
     @Query("SELECT c FROM Category c JOIN Post p ON c MEMBER OF p.categories WHERE p.id = :postId")
     Set<Category> findCategoriesByPostId(@Param("postId") Long postId);
+
+    @Query("SELECT p.id AS postId, c.id AS id, c.name AS name, c.slug AS slug FROM Post p JOIN p.categories c WHERE p.id IN :postIds")
+    List<PostCategoryProjection> findCategoriesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Mantenimiento del contador de posts por categoría
+    @Modifying
+    @Query("UPDATE Category c SET c.postCount = c.postCount + :delta WHERE c.id IN :categoryIds")
+    int addToPostCount(@Param("categoryIds") Collection<Long> categoryIds, @Param("delta") long delta);
+
+    //Descuenta los posts de un autor antes de eliminarlos en cascada junto con él
+    @Modifying
+    @Query("UPDATE Category c SET c.postCount = c.postCount - " +
+            "(SELECT COUNT(p) FROM Post p JOIN p.categories pc WHERE pc.id = c.id AND p.author.id = :authorId) " +
+            "WHERE c.id IN (SELECT pc.id FROM Post p JOIN p.categories pc WHERE p.author.id = :authorId)")
+    int subtractPostsOfAuthor(@Param("authorId") Long authorId);
+
+    @Modifying
+    @Query(value = "UPDATE categories c SET c.post_count = (SELECT COUNT(*) FROM post_categories pc WHERE pc.category_id = c.id) " +
+            "WHERE c.post_count <> (SELECT COUNT(*) FROM post_categories pc WHERE pc.category_id = c.id)", nativeQuery = true)
+    int reconcilePostCounts();
 }
@@ -7,12 +7,18 @@ import com.luciano.blogpersonal.category.mapper.CategoryMapper;
 import com.luciano.blogpersonal.category.model.Category;
 import com.luciano.blogpersonal.category.repository.CategoryRepository;
 import com.luciano.blogpersonal.category.service.CategoryService;
+import com.luciano.blogpersonal.common.cache.ListingCache;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.exception.BlogApiException;
 import com.luciano.blogpersonal.common.exception.ResourceNotFoundException;
 import com.luciano.blogpersonal.common.utils.AppConstants;
 import com.luciano.blogpersonal.common.utils.SlugUtils;
+import com.luciano.blogpersonal.common.web.ContentVersions;
+import com.luciano.blogpersonal.post.event.TaxonomyCountsChangedEvent;
+import com.luciano.blogpersonal.post.event.TaxonomyRenamedEvent;
+import com.luciano.blogpersonal.post.service.impl.PopularTaxonomyIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +31,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,11 +43,19 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryMapper categoryMapper;
     private final CategoryRepository categoryRepository;
+    private final PopularTaxonomyIndex popularTaxonomyIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListingCache listingCache;
+    private final ContentVersions contentVersions;
 
     @Autowired
-    CategoryServiceImpl(CategoryMapper categoryMapper, CategoryRepository categoryRepository){
+    CategoryServiceImpl(CategoryMapper categoryMapper, CategoryRepository categoryRepository, PopularTaxonomyIndex popularTaxonomyIndex, ApplicationEventPublisher eventPublisher, ListingCache listingCache, ContentVersions contentVersions){
         this.categoryMapper = categoryMapper;
         this.categoryRepository = categoryRepository;
+        this.popularTaxonomyIndex = popularTaxonomyIndex;
+        this.eventPublisher = eventPublisher;
+        this.listingCache = listingCache;
+        this.contentVersions = contentVersions;
     }
 
     @Override
@@ -58,18 +76,14 @@ public class CategoryServiceImpl implements CategoryService {
             throw new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.CATEGORY_NAME_EXISTS);
         }
 
-        //Creación del slug
-        String slug = SlugUtils.generateSlug(categoryCreateRequest.getName());
-
-        //Verificación si el slug ya esta asignado
-        if (categoryRepository.existsBySlug(slug)){
-            throw  new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.CATEGORY_SLUG_EXISTS);
-        }
+        //Creación del slug: si ya está asignado se agrega el menor sufijo numérico libre
+        String slug = SlugUtils.generateUniqueSlug(categoryCreateRequest.getName(), categoryRepository::findSlugsWithPrefix);
 
         //Creación de la categoría
         Category Category =categoryMapper.toEntity(categoryCreateRequest, slug);
         //Guardamos la categoría creada
         Category savedCategory =categoryRepository.save(Category);
+        eventPublisher.publishEvent(new TaxonomyCountsChangedEvent(Set.of(), Set.of(savedCategory.getId())));
 
         //Devolvemos la categoría en forma de respuesta
         return categoryMapper.toDto(savedCategory);
@@ -127,16 +141,8 @@ public class CategoryServiceImpl implements CategoryService {
                 throw new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.CATEGORY_NAME_EXISTS);
             }
 
-            // Generar nuevo slug
-            String newSlug = SlugUtils.generateSlug(categoryUpdateRequest.getName());
-
-            // Verificar si el nuevo slug ya está en uso (solo si es diferente al actual)
-            if (!category.getSlug().equals(newSlug) && categoryRepository.existsBySlug(newSlug)){
-                throw new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.CATEGORY_SLUG_EXISTS);
-            }
-
-            // Usar el nuevo slug
-            slugToUse = newSlug;
+            // Generar nuevo slug; el actual se conserva si ya corresponde al nombre
+            slugToUse = SlugUtils.generateUniqueSlug(categoryUpdateRequest.getName(), category.getSlug(), categoryRepository::findSlugsWithPrefix);
         }
 
         //Actualización de la categoría
@@ -144,6 +150,8 @@ public class CategoryServiceImpl implements CategoryService {
 
         //Guardando los cambios
         Category savedCategory = categoryRepository.save(category);
+        //El nombre y el slug de la categoría se copian en el detalle de los posts cacheados
+        eventPublisher.publishEvent(new TaxonomyRenamedEvent());
 
         //Retornamos la respuesta
         return categoryMapper.toDto(savedCategory);
@@ -174,6 +182,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         //Eliminar categoría
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new TaxonomyCountsChangedEvent(Set.of(), Set.of(categoryId)));
 
     }
 
@@ -227,13 +236,34 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Transactional
     public List<CategoryResponse> getPopularCategories(int limit){
 
-        List<Category> categories = categoryRepository.findAllOrderByPostCountDesc();
-        
-        return categories.stream()
-                .limit(limit)
+        if (limit <= 0){
+            return new ArrayList<>();
+        }
+
+        //Carga única por límite y refresco en segundo plano
+        return listingCache.get("categories.popular", contentVersions.current(ContentVersions.Resource.CATEGORIES),
+                List.of(limit), () -> List.copyOf(loadPopularCategories(limit)));
+    }
+
+    private List<CategoryResponse> loadPopularCategories(int limit){
+
+        //Mientras el ranking en memoria no está cargado se consulta directamente solo el top
+        if (!popularTaxonomyIndex.isReady()){
+            return categoryRepository.findAllOrderByPostCountDesc(PageRequest.of(0, limit)).stream()
+                    .map(categoryMapper::toDto)
+                    .collect(Collectors.toList());
+        }
+
+        //El ranking entrega los IDs ordenados; solo se cargan esas categorías por clave primaria
+        List<Long> categoryIds = popularTaxonomyIndex.topCategoryIds(limit);
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        return categoryIds.stream()
+                .map(categories::get)
+                .filter(Objects::nonNull)
                 .map(categoryMapper::toDto)
                 .collect(Collectors.toList());
     }
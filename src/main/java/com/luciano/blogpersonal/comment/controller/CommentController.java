@@ -5,6 +5,7 @@ import com.luciano.blogpersonal.comment.dto.CommentResponse;
 import com.luciano.blogpersonal.comment.dto.CommentUpdateRequest;
 import com.luciano.blogpersonal.comment.service.CommentService;
 import com.luciano.blogpersonal.common.dto.ApiResponse;
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.utils.AppConstants;
 import jakarta.validation.Valid;
@@ -52,6 +53,19 @@ public class CommentController {
         return ResponseEntity.ok(comments);
     }
 
+    /**
+     * Obtiene comentarios de nivel superior de un post con paginación por cursor
+     * GET /api/posts/{postId}/comments/cursor
+     */
+    @GetMapping("/posts/{postId}/comments/cursor")
+    public ResponseEntity<CursorPaginatedResponse<CommentResponse>> getCommentByPostIdCursor(@PathVariable Long postId,
+                                                                                             @RequestParam(value = "after", required = false) String after,
+                                                                                             @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
+                                                                                             @RequestParam(value = "includeTotal", defaultValue = AppConstants.DEFAULT_INCLUDE_TOTAL, required = false) boolean includeTotal){
+        CursorPaginatedResponse<CommentResponse> comments = commentService.getCommentsByPostIdCursor(postId, after, pageSize, includeTotal);
+        return ResponseEntity.ok(comments);
+    }
+
     /**
      * Crea un nuevo comentario en un post
      * POST /api/posts/{postId}/comments
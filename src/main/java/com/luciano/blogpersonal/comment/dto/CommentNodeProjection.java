@@ -0,0 +1,30 @@
+package com.luciano.blogpersonal.comment.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección plana de un comentario junto con los datos de su autor.
+ * Se usa para armar la jerarquía de comentarios sin cargar entidades.
+ */
+public interface CommentNodeProjection {
+    Long getId();
+    String getContent();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    boolean isApproved();
+    Long getPostId();
+    Long getParentId();
+
+    // Datos del autor del comentario
+    Long getUserId();
+    String getUserName();
+    String getUserLastName();
+    String getUserUsername();
+    String getUserEmail();
+    String getUserBio();
+    String getUserProfileImage();
+    LocalDateTime getUserCreatedAt();
+    LocalDateTime getUserUpdatedAt();
+    String getUserRole();
+    boolean isUserActive();
+}
@@ -26,6 +26,9 @@ public class CommentResponse {
     private UserResponse user;
     private Long parentId;
 
+    //Cantidad total de respuestas directas (puede ser mayor que replies si el árbol se truncó)
+    private int replyCount;
+
     @Builder.Default
     private List<CommentResponse> replies = new ArrayList<>();
 
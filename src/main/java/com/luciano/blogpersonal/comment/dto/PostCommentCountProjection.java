@@ -0,0 +1,9 @@
+package com.luciano.blogpersonal.comment.dto;
+
+/**
+ * Proyección con la cantidad de comentarios de un post.
+ */
+public interface PostCommentCountProjection {
+    Long getPostId();
+    Long getCommentCount();
+}
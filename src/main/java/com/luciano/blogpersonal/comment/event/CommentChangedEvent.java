@@ -0,0 +1,14 @@
+package com.luciano.blogpersonal.comment.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado cuando se crea o elimina un comentario,
+ * para descartar los datos cacheados del post al que pertenece.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentChangedEvent {
+    private final Long postId;
+}
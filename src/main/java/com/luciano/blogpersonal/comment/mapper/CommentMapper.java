@@ -1,28 +1,33 @@
 package com.luciano.blogpersonal.comment.mapper;
 
 import com.luciano.blogpersonal.comment.dto.CommentCreateRequest;
+import com.luciano.blogpersonal.comment.dto.CommentNodeProjection;
 import com.luciano.blogpersonal.comment.dto.CommentResponse;
 import com.luciano.blogpersonal.comment.dto.CommentUpdateRequest;
 import com.luciano.blogpersonal.comment.model.Comment;
 import com.luciano.blogpersonal.post.model.Post;
+import com.luciano.blogpersonal.user.dto.UserResponse;
 import com.luciano.blogpersonal.user.mapper.UserMapper;
 import com.luciano.blogpersonal.user.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class CommentMapper {
 
     private final UserMapper userMapper;
+    private final CommentTreeBuilder commentTreeBuilder;
 
     @Autowired
-    public CommentMapper(UserMapper userMapper){
+    public CommentMapper(UserMapper userMapper,
+                         @Value("${app.comments.max-depth:0}") int maxDepth,
+                         @Value("${app.comments.max-replies:0}") int maxReplies){
         this.userMapper = userMapper;
-
+        this.commentTreeBuilder = new CommentTreeBuilder(maxDepth, maxReplies);
     }
 
     public Comment toEntity (CommentCreateRequest commentCreateRequest, User user, Post post, Comment parent){
@@ -51,13 +56,13 @@ public class CommentMapper {
         }
     }
 
-    //Metodo para convertir un comentario y sus hijos a commentResponse
-    public CommentResponse toDto (Comment comment, List<Comment> allReplies){
+    //Metodo para convertir un comentario (sin sus respuestas) a commentResponse
+    public CommentResponse toFlatDto (Comment comment){
         if (comment == null){
             return null;
         }
 
-        CommentResponse commentResponse = CommentResponse.builder()
+        return CommentResponse.builder()
                 .id(comment.getId())
                 .content(comment.getContent())
                 .createdAt(comment.getCreatedAt())
@@ -65,25 +70,19 @@ public class CommentMapper {
                 .approved(comment.isApproved())
                 .postId(comment.getPost().getId())
                 .user(userMapper.toDto(comment.getUser()))
-                .parentId(comment.getParent() != null ? comment.getParent().getId():null)
+                .parentId(parentIdOf(comment))
                 .replies(new ArrayList<>())
                 .build();
+    }
 
-
-        //Primero filtramos
-        List<Comment> directReplies = allReplies.stream()
-                .filter(reply -> reply.getParent() != null && reply.getParent().getId().equals(comment.getId()))
-                .collect(Collectors.toList());
-
-        //Ahora llenamos la lista de respuestas del comentario
-
-        for (Comment reply : directReplies){
-            commentResponse.getReplies().add(toDto(reply, allReplies));
+    //Metodo para convertir un comentario y sus hijos a commentResponse
+    public CommentResponse toDto (Comment comment, List<Comment> allReplies){
+        if (comment == null){
+            return null;
         }
 
-        return commentResponse;
-
-
+        //El índice de respuestas se arma una sola vez y solo se convierten los descendientes del comentario
+        return commentTreeBuilder.buildSubtree(comment, allReplies, Comment::getId, CommentMapper::parentIdOf, this::toFlatDto);
     }
 
     //Metodo para convertir todos los comentarios padre y sus hijos a commentResponse.
@@ -92,14 +91,57 @@ public class CommentMapper {
         if (comments == null){
             return new ArrayList<>();
         }
-        //Aplicamos el filtraje sobre la lista de todos los comentarios de un post para obtener solo los comentarios padres (topLevelComments)
-        List<Comment> topLevelComments = comments.stream()
-                .filter(comment -> comment.getParent() == null)
-                .collect(Collectors.toList());
-
-        //Ahora llenamos la lista de comentarios de cada comentario padre
-        return topLevelComments.stream()
-                .map(comment -> toDto(comment, comments))
-                .collect(Collectors.toList());
+
+        //Los comentarios padres (sin parent) son las raíces de cada árbol
+        return commentTreeBuilder.buildForest(comments, Comment::getId, CommentMapper::parentIdOf, this::toFlatDto);
+    }
+
+    //Metodo para convertir una proyección de comentario (sin sus respuestas) a commentResponse
+    public CommentResponse toFlatDto (CommentNodeProjection node){
+        if (node == null){
+            return null;
+        }
+
+        UserResponse user = UserResponse.builder()
+                .id(node.getUserId())
+                .name(node.getUserName())
+                .lastName(node.getUserLastName())
+                .username(node.getUserUsername())
+                .email(node.getUserEmail())
+                .bio(node.getUserBio())
+                .profileImage(node.getUserProfileImage())
+                .createdAt(node.getUserCreatedAt())
+                .updatedAt(node.getUserUpdatedAt())
+                .role(node.getUserRole())
+                .active(node.isUserActive())
+                .build();
+
+        return CommentResponse.builder()
+                .id(node.getId())
+                .content(node.getContent())
+                .createdAt(node.getCreatedAt())
+                .updatedAt(node.getUpdatedAt())
+                .approved(node.isApproved())
+                .postId(node.getPostId())
+                .user(user)
+                .parentId(node.getParentId())
+                .replies(new ArrayList<>())
+                .build();
+    }
+
+    //Metodo para convertir varias raíces y sus descendientes (ya cargados como proyecciones) a commentResponse,
+    // respetando el orden de rootIds
+    public List<CommentResponse> toSubtreeDtoList (List<Long> rootIds, List<CommentNodeProjection> nodes){
+        return commentTreeBuilder.buildSubtrees(rootIds, nodes, CommentNodeProjection::getId, CommentNodeProjection::getParentId, this::toFlatDto);
+    }
+
+    //Metodo para convertir todos los comentarios de un post (como proyecciones) a commentResponse jerárquico
+    public List<CommentResponse> toNodeDtoList (List<CommentNodeProjection> nodes){
+        return commentTreeBuilder.buildForest(nodes, CommentNodeProjection::getId, CommentNodeProjection::getParentId, this::toFlatDto);
+    }
+
+    //El id del padre se obtiene del proxy sin inicializarlo
+    private static Long parentIdOf(Comment comment){
+        return comment.getParent() != null ? comment.getParent().getId() : null;
     }
 }
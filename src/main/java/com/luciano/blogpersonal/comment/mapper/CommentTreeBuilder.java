@@ -0,0 +1,260 @@
+package com.luciano.blogpersonal.comment.mapper;
+
+import com.luciano.blogpersonal.comment.dto.CommentResponse;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Arma la jerarquía de comentarios en tiempo lineal.
+ * Agrupa los comentarios por su padre una sola vez en un índice de arreglos (primer hijo / siguiente hermano)
+ * y recorre el árbol de forma iterativa, por lo que no hay recursión ni búsquedas repetidas sobre la lista.
+ * Solo se convierten a DTO los comentarios que forman parte del resultado.
+ */
+public class CommentTreeBuilder {
+
+    private static final int NONE = -1;
+
+    private final int maxDepth; //Niveles de respuestas a incluir bajo cada raíz, 0 = sin límite
+    private final int maxReplies; //Respuestas directas a incluir por comentario, 0 = sin límite
+
+    public CommentTreeBuilder(int maxDepth, int maxReplies){
+        this.maxDepth = Math.max(maxDepth, 0);
+        this.maxReplies = Math.max(maxReplies, 0);
+    }
+
+    /**
+     * Construye todos los árboles cuya raíz es un comentario de nivel superior (sin padre)
+     * @param comments Comentarios de un post
+     * @param idOf Función que obtiene el ID de un comentario
+     * @param parentIdOf Función que obtiene el ID del padre (null si es de nivel superior)
+     * @param toNode Conversión de un comentario a CommentResponse sin respuestas
+     * @return Lista de comentarios de nivel superior con sus respuestas anidadas
+     */
+    public <T> List<CommentResponse> buildForest(List<T> comments, Function<T, Long> idOf, Function<T, Long> parentIdOf, Function<T, CommentResponse> toNode){
+        List<CommentResponse> roots = new ArrayList<>();
+        if (comments == null || comments.isEmpty()){
+            return roots;
+        }
+
+        Adjacency<T> adjacency = new Adjacency<>(comments, idOf, parentIdOf);
+        for (int position = 0; position < adjacency.size(); position++){
+            if (parentIdOf.apply(comments.get(position)) == null){
+                roots.add(build(adjacency, position, toNode));
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Construye el árbol de respuestas de un comentario
+     * @param root Comentario raíz
+     * @param comments Comentarios entre los que se buscan sus descendientes (puede o no incluir a la raíz)
+     * @param idOf Función que obtiene el ID de un comentario
+     * @param parentIdOf Función que obtiene el ID del padre (null si es de nivel superior)
+     * @param toNode Conversión de un comentario a CommentResponse sin respuestas
+     * @return El comentario raíz con sus respuestas anidadas
+     */
+    public <T> CommentResponse buildSubtree(T root, List<T> comments, Function<T, Long> idOf, Function<T, Long> parentIdOf, Function<T, CommentResponse> toNode){
+        if (root == null){
+            return null;
+        }
+
+        List<T> candidates = comments != null ? comments : new ArrayList<>();
+        Adjacency<T> adjacency = new Adjacency<>(candidates, idOf, parentIdOf);
+        int rootPosition = adjacency.positionOf(idOf.apply(root));
+
+        //Si la raíz no está en la lista (por ejemplo un comentario recién creado) se agrega al índice
+        if (rootPosition == NONE){
+            candidates = new ArrayList<>(candidates);
+            candidates.add(root);
+            adjacency = new Adjacency<>(candidates, idOf, parentIdOf);
+            rootPosition = candidates.size() - 1;
+        }
+
+        return build(adjacency, rootPosition, toNode);
+    }
+
+    /**
+     * Construye los árboles de varias raíces con un único índice
+     * @param rootIds IDs de las raíces, en el orden en que se deben devolver
+     * @param comments Raíces y todos sus descendientes
+     * @param idOf Función que obtiene el ID de un comentario
+     * @param parentIdOf Función que obtiene el ID del padre (null si es de nivel superior)
+     * @param toNode Conversión de un comentario a CommentResponse sin respuestas
+     * @return Una respuesta por cada raíz encontrada, en el orden de rootIds
+     */
+    public <T> List<CommentResponse> buildSubtrees(List<Long> rootIds, List<T> comments, Function<T, Long> idOf, Function<T, Long> parentIdOf, Function<T, CommentResponse> toNode){
+        List<CommentResponse> roots = new ArrayList<>();
+        if (rootIds == null || rootIds.isEmpty() || comments == null || comments.isEmpty()){
+            return roots;
+        }
+
+        Adjacency<T> adjacency = new Adjacency<>(comments, idOf, parentIdOf);
+        for (Long rootId : rootIds){
+            int rootPosition = adjacency.positionOf(rootId);
+            if (rootPosition != NONE){
+                roots.add(build(adjacency, rootPosition, toNode));
+            }
+        }
+        return roots;
+    }
+
+    //Recorrido iterativo en profundidad desde la raíz, respetando el orden original de las respuestas.
+    // Las marcas de visitado son del índice y se comparten entre raíces: cada recorrido usa una generación nueva,
+    // así construir todas las raíces sigue siendo lineal en la cantidad de comentarios
+    private <T> CommentResponse build(Adjacency<T> adjacency, int rootPosition, Function<T, CommentResponse> toNode){
+        int[] visited = adjacency.visited;
+        int generation = ++adjacency.generation;
+        Deque<Frame> stack = new ArrayDeque<>();
+
+        CommentResponse rootNode = toNode.apply(adjacency.items.get(rootPosition));
+        visited[rootPosition] = generation;
+        stack.push(new Frame(rootPosition, 0, rootNode));
+
+        while (!stack.isEmpty()){
+            Frame frame = stack.pop();
+            frame.node.setReplyCount(adjacency.childCount[frame.position]);
+            frame.node.setReplies(new ArrayList<>());
+
+            if (maxDepth > 0 && frame.depth >= maxDepth){
+                continue;
+            }
+
+            int added = 0;
+            for (int child = adjacency.firstChild[frame.position]; child != NONE; child = adjacency.nextSibling[child]){
+                if (maxReplies > 0 && added >= maxReplies){
+                    break;
+                }
+                //Protección ante datos inconsistentes (ciclos en parent_id)
+                if (visited[child] == generation){
+                    continue;
+                }
+                visited[child] = generation;
+
+                CommentResponse childNode = toNode.apply(adjacency.items.get(child));
+                frame.node.getReplies().add(childNode);
+                stack.push(new Frame(child, frame.depth + 1, childNode));
+                added++;
+            }
+        }
+
+        return rootNode;
+    }
+
+    //Índice de adyacencia: cada comentario se identifica por su posición en la lista
+    private static final class Adjacency<T> {
+        private final List<T> items;
+        private final PositionTable positionById;
+        private final int[] firstChild;
+        private final int[] nextSibling;
+        private final int[] childCount;
+        private final int[] visited; //Generación del último recorrido que pasó por cada comentario
+        private int generation;
+
+        private Adjacency(List<T> items, Function<T, Long> idOf, Function<T, Long> parentIdOf){
+            int size = items.size();
+            this.items = items;
+            this.positionById = new PositionTable(size);
+            this.firstChild = new int[size];
+            this.nextSibling = new int[size];
+            this.childCount = new int[size];
+            this.visited = new int[size];
+            int[] lastChild = new int[size];
+            Arrays.fill(firstChild, NONE);
+            Arrays.fill(nextSibling, NONE);
+            Arrays.fill(lastChild, NONE);
+
+            for (int position = 0; position < size; position++){
+                positionById.put(idOf.apply(items.get(position)), position);
+            }
+
+            for (int position = 0; position < size; position++){
+                Long parentId = parentIdOf.apply(items.get(position));
+                if (parentId == null){
+                    continue;
+                }
+                int parent = positionById.get(parentId);
+                if (parent == NONE || parent == position){
+                    continue;
+                }
+                if (lastChild[parent] == NONE){
+                    firstChild[parent] = position;
+                } else {
+                    nextSibling[lastChild[parent]] = position;
+                }
+                lastChild[parent] = position;
+                childCount[parent]++;
+            }
+        }
+
+        private int size(){
+            return items.size();
+        }
+
+        private int positionOf(Long id){
+            return id != null ? positionById.get(id) : NONE;
+        }
+    }
+
+    //Tabla hash de direccionamiento abierto id -> posición, sin objetos Long ni Integer por comentario
+    private static final class PositionTable {
+        private final long[] ids;
+        private final int[] positions;
+        private final int mask;
+
+        private PositionTable(int expectedSize){
+            //Capacidad potencia de dos con carga máxima del 50%
+            int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+            this.ids = new long[capacity];
+            this.positions = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(positions, NONE);
+        }
+
+        //Un id repetido queda con la última posición, igual que un Map
+        private void put(Long id, int position){
+            if (id == null){
+                return;
+            }
+            int slot = slotOf(id);
+            while (positions[slot] != NONE && ids[slot] != id){
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            positions[slot] = position;
+        }
+
+        private int get(long id){
+            int slot = slotOf(id);
+            while (positions[slot] != NONE){
+                if (ids[slot] == id){
+                    return positions[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NONE;
+        }
+
+        private int slotOf(long id){
+            long hash = id * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+
+    private static final class Frame {
+        private final int position;
+        private final int depth;
+        private final CommentResponse node;
+
+        private Frame(int position, int depth, CommentResponse node){
+            this.position = position;
+            this.depth = depth;
+            this.node = node;
+        }
+    }
+}
@@ -15,7 +15,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        //Índice para la paginación por cursor de los comentarios de nivel superior de un post
+        @Index(name = "idx_comments_post_parent_created_at", columnList = "post_id, parent_id, created_at, id")
+})
 
 public class Comment {
 
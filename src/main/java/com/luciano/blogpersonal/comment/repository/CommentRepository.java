@@ -1,5 +1,7 @@
 package com.luciano.blogpersonal.comment.repository;
 
+import com.luciano.blogpersonal.comment.dto.CommentNodeProjection;
+import com.luciano.blogpersonal.comment.dto.PostCommentCountProjection;
 import com.luciano.blogpersonal.comment.model.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,10 +9,20 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    //Selección común de las proyecciones de comentarios: datos del comentario y de su autor en una sola consulta
+    String NODE_SELECT = "SELECT c.id AS id, c.content AS content, c.createdAt AS createdAt, c.updatedAt AS updatedAt, " +
+            "c.approved AS approved, c.post.id AS postId, parent.id AS parentId, " +
+            "u.id AS userId, u.name AS userName, u.lastName AS userLastName, u.username AS userUsername, " +
+            "u.email AS userEmail, u.bio AS userBio, u.profileImage AS userProfileImage, " +
+            "u.createdAt AS userCreatedAt, u.updatedAt AS userUpdatedAt, u.role AS userRole, u.active AS userActive " +
+            "FROM Comment c JOIN c.user u LEFT JOIN c.parent parent ";
+
     @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.parent IS NULL")
     Page<Comment> findByPostIdAndParentIsNull(@Param("postId") Long postId, Pageable pageable);
 
@@ -19,17 +31,40 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     Page<Comment> findByUserId(Long userId, Pageable pageable);
 
+    // Paginación por cursor de los comentarios de nivel superior: orden estable por fecha de creación e id
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.parent IS NULL ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRootsByPostIdFirstPage(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.parent IS NULL AND " +
+            "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRootsByPostIdAfter(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId AND c.parent IS NULL")
+    long countRootsByPostId(@Param("postId") Long postId);
+
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId")
     long countByPostId(@Param("postId") Long postId);
 
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.user.id = :userId")
     long countByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT c.post.id AS postId, COUNT(c) AS commentCount FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<PostCommentCountProjection> countByPostIds(@Param("postIds") Collection<Long> postIds);
 
+    /**
+     * Obtiene los IDs de los comentarios indicados y de todos sus descendientes (consulta recursiva)
+     */
+    @Query(value = "WITH RECURSIVE subtree (id) AS (" +
+            "SELECT c.id FROM comments c WHERE c.id IN (:rootIds) " +
+            "UNION ALL " +
+            "SELECT c.id FROM comments c JOIN subtree s ON c.parent_id = s.id" +
+            ") SELECT id FROM subtree", nativeQuery = true)
+    List<Long> findSubtreeIds(@Param("rootIds") Collection<Long> rootIds);
 
+    @Query(NODE_SELECT + "WHERE c.id IN :ids ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentNodeProjection> findNodesByIds(@Param("ids") Collection<Long> ids);
 
-
-
-
-
+    @Query(NODE_SELECT + "WHERE c.post.id = :postId ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentNodeProjection> findNodesByPostId(@Param("postId") Long postId);
 }
@@ -3,6 +3,7 @@ package com.luciano.blogpersonal.comment.service;
 import com.luciano.blogpersonal.comment.dto.CommentCreateRequest;
 import com.luciano.blogpersonal.comment.dto.CommentResponse;
 import com.luciano.blogpersonal.comment.dto.CommentUpdateRequest;
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 
 import java.util.List;
@@ -62,6 +63,16 @@ public interface CommentService {
      */
     PaginatedResponse<CommentResponse> getCommentsByPostIdPaginated(Long postId, int pageNo, int pageSize);
 
+    /**
+     * Obtiene los comentarios de nivel superior de un post con paginación por cursor
+     * @param postId ID del post
+     * @param after Cursor devuelto por la página anterior (null para la primera página)
+     * @param pageSize Tamano de la pagina
+     * @param includeTotal Si se debe calcular el total de comentarios de nivel superior
+     * @return Respuesta paginada por cursor con comentarios
+     */
+    CursorPaginatedResponse<CommentResponse> getCommentsByPostIdCursor(Long postId, String after, int pageSize, boolean includeTotal);
+
     /**
      * Obtiene las respuestas de un comentario paginadas
      * @param commentId ID del comentario padre
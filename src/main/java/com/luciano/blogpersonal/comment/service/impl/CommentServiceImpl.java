@@ -1,21 +1,27 @@
 package com.luciano.blogpersonal.comment.service.impl;
 
 import com.luciano.blogpersonal.comment.dto.CommentCreateRequest;
+import com.luciano.blogpersonal.comment.dto.CommentNodeProjection;
 import com.luciano.blogpersonal.comment.dto.CommentResponse;
 import com.luciano.blogpersonal.comment.dto.CommentUpdateRequest;
+import com.luciano.blogpersonal.comment.event.CommentChangedEvent;
 import com.luciano.blogpersonal.comment.mapper.CommentMapper;
 import com.luciano.blogpersonal.comment.model.Comment;
 import com.luciano.blogpersonal.comment.repository.CommentRepository;
 import com.luciano.blogpersonal.comment.service.CommentService;
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.exception.BlogApiException;
 import com.luciano.blogpersonal.common.exception.ResourceNotFoundException;
 import com.luciano.blogpersonal.common.utils.AppConstants;
+import com.luciano.blogpersonal.common.utils.CursorUtils;
 import com.luciano.blogpersonal.post.model.Post;
 import com.luciano.blogpersonal.post.repository.PostRepository;
+import com.luciano.blogpersonal.post.service.impl.PostCommentCounter;
 import com.luciano.blogpersonal.user.model.User;
 import com.luciano.blogpersonal.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +32,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,13 +43,17 @@ public class CommentServiceImpl implements CommentService {
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostCommentCounter postCommentCounter;
 
     @Autowired
-    CommentServiceImpl (UserRepository userRepository, PostRepository postRepository, CommentRepository commentRepository, CommentMapper commentMapper){
+    CommentServiceImpl (UserRepository userRepository, PostRepository postRepository, CommentRepository commentRepository, CommentMapper commentMapper, ApplicationEventPublisher eventPublisher, PostCommentCounter postCommentCounter){
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
         this.commentMapper = commentMapper;
+        this.eventPublisher = eventPublisher;
+        this.postCommentCounter = postCommentCounter;
     }
 
     @Override
@@ -58,8 +69,11 @@ public class CommentServiceImpl implements CommentService {
 
         //Obtenemos el id del post
         Long postId = commentCreateRequest.getPostId();
-        //Obtenemos el post con el id
-        Post post = postRepository.findById(postId).orElseThrow(()-> new ResourceNotFoundException("Post","Id", postId));
+        //Verificamos que el post exista y obtenemos solo su referencia (no se cargan sus datos ni sus comentarios)
+        if (!postRepository.existsById(postId)){
+            throw new ResourceNotFoundException("Post","Id", postId);
+        }
+        Post post = postRepository.getReferenceById(postId);
 
         //Creamos la variable para almacenar el parentComment.
         Comment parentComment = null;
@@ -70,7 +84,7 @@ public class CommentServiceImpl implements CommentService {
                     .orElseThrow(()->new ResourceNotFoundException("Comentario", "Id", parentId));
 
             //Verificamos que el comentario padre esté enlazado al mismo post del comentario
-            if (!parentComment.getPost().getId().equals(post.getId())){
+            if (!parentComment.getPost().getId().equals(postId)){
                 throw new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.INVALID_PARENT_COMMENT);
             }
         }
@@ -79,10 +93,11 @@ public class CommentServiceImpl implements CommentService {
         Comment createdComment = commentMapper.toEntity(commentCreateRequest, user, post, parentComment);
         //Guardamos el comentario
         commentRepository.save(createdComment);
-        //Enlistamos la lista de comentarios del post
-        List<Comment> postComments = post.getComments().stream().collect(Collectors.toList());
+        postCommentCounter.commentAdded(postId, createdComment.isApproved());
+        eventPublisher.publishEvent(new CommentChangedEvent(postId));
 
-        return commentMapper.toDto(createdComment, postComments);
+        //Un comentario recién creado todavía no tiene respuestas
+        return commentMapper.toFlatDto(createdComment);
     }
 
     /**
@@ -117,14 +132,8 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional(readOnly = true)
     public CommentResponse getCommentById(Long commentId){
-        //Obtención del comentario
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(()->new ResourceNotFoundException("Comentario", "Id", commentId));
-
-        //Creamos una lista en la cual almacenaremos los comentarios del post para tener la jerarquía del comentario
-        List<Comment> postComments = comment.getPost().getComments().stream().collect(Collectors.toList());
-        //Devolvemos la respuesta
-        return commentMapper.toDto(comment, postComments);
+        //Obtención del comentario y sus respuestas
+        return getCommentSubtree(commentId);
     }
 
     @Override
@@ -146,11 +155,10 @@ public class CommentServiceImpl implements CommentService {
 
         //Actualización de datos
         commentMapper.updateEntityFromDto(comment, commentUpdateRequest);
-        Comment updatedComment = commentRepository.save(comment);
+        commentRepository.save(comment);
 
         //Retorno de respuesta al cliente
-        List<Comment> postComments = comment.getPost().getComments().stream().collect(Collectors.toList());
-        return commentMapper.toDto(updatedComment, postComments);
+        return getCommentSubtree(commentId);
 
     }
 
@@ -172,21 +180,24 @@ public class CommentServiceImpl implements CommentService {
 
         //Eliminación del comentario
         commentRepository.delete(comment);
+        postCommentCounter.commentRemoved(comment.getPost().getId(), comment.isApproved());
+        eventPublisher.publishEvent(new CommentChangedEvent(comment.getPost().getId()));
     }
 
     @Override
     @Transactional
     public List<CommentResponse> getCommentsByPostId(Long postId){
 
-        //Obtención del post
-       Post post = postRepository.findById(postId)
-                .orElseThrow(()->new ResourceNotFoundException("Post", "Id", postId));
+        //Verificación del post
+        if (!postRepository.existsById(postId)){
+            throw new ResourceNotFoundException("Post", "Id", postId);
+        }
 
-        //Obtención de los comentarios de un post
-        List<Comment> comments = post.getComments().stream().collect(Collectors.toList());
+        //Obtención de los comentarios de un post como proyecciones (comentario y autor en una sola consulta)
+        List<CommentNodeProjection> comments = commentRepository.findNodesByPostId(postId);
 
-        //Retorno de la funcion toDtoList que nos permite ordenar todos los comentarios de un post de manera jerárquica
-        return commentMapper.toDtoList(comments);
+        //Retorno de la funcion toNodeDtoList que nos permite ordenar todos los comentarios de un post de manera jerárquica
+        return commentMapper.toNodeDtoList(comments);
 
     }
 
@@ -194,22 +205,18 @@ public class CommentServiceImpl implements CommentService {
     @Transactional
     public PaginatedResponse<CommentResponse> getCommentsByPostIdPaginated(Long postId, int pageNo, int pageSize){
 
+        //Verificamos que el post exista
+        if (!postRepository.existsById(postId)){
+            throw new ResourceNotFoundException("Post", "Id", postId);
+        }
+
         //Creamos la paginación
         Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("createdAt").descending());
         //Creamos la pagina de la cual obtendremos el contenido y datos necesarios para devolver la respuesta paginada
         Page<Comment> commentPage = commentRepository.findByPostIdAndParentIsNull(postId, pageable);
 
-        //Obtenemos el postId para obtener todas las respuestas, necesarias para el toDto del mapper por la jerarquía
-        Post post = postRepository.findById(postId)
-                .orElseThrow(()->new ResourceNotFoundException("Post", "Id", postId));
-
-        //Obtención de todas las respuestas del post
-        List<Comment> allComments = post.getComments().stream().collect(Collectors.toList());
-
-        //Convertimos a CommentResponse los comentarios seleccionados en commentPage
-        List<CommentResponse> content = commentPage.getContent().stream()
-                .map(comment -> commentMapper.toDto(comment,allComments))
-                .collect(Collectors.toList());
+        //Convertimos a CommentResponse los comentarios seleccionados en commentPage junto con sus respuestas
+        List<CommentResponse> content = getCommentSubtrees(idsOf(commentPage));
 
         //Devolvemos la respuesta con los datos del commentPage paginado.
         return PaginatedResponse.<CommentResponse>builder()
@@ -223,6 +230,45 @@ public class CommentServiceImpl implements CommentService {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<CommentResponse> getCommentsByPostIdCursor(Long postId, String after, int pageSize, boolean includeTotal){
+
+        //Verificamos que el post exista
+        if (!postRepository.existsById(postId)){
+            throw new ResourceNotFoundException("Post", "Id", postId);
+        }
+
+        pageSize = CursorUtils.pageSize(pageSize);
+        CursorUtils.Cursor cursor = CursorUtils.decode(after);
+
+        //Se pide un elemento extra para saber si existe una página siguiente sin contar los comentarios
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Comment> comments = cursor == null
+                ? commentRepository.findRootsByPostIdFirstPage(postId, limit)
+                : commentRepository.findRootsByPostIdAfter(postId, cursor.createdAt(), cursor.id(), limit);
+
+        boolean hasNext = comments.size() > pageSize;
+        if (hasNext){
+            comments = comments.subList(0, pageSize);
+        }
+
+        Comment last = comments.isEmpty() ? null : comments.get(comments.size() - 1);
+
+        //Convertimos los comentarios de la página junto con sus respuestas
+        List<CommentResponse> content = getCommentSubtrees(comments.stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList()));
+
+        return CursorPaginatedResponse.<CommentResponse>builder()
+                .content(content)
+                .pageSize(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorUtils.encode(last.getCreatedAt(), last.getId()) : null)
+                .totalElements(includeTotal ? commentRepository.countRootsByPostId(postId) : null)
+                .build();
+    }
+
     @Override
     @Transactional
     public PaginatedResponse<CommentResponse> getRepliesByCommentIdPaginated(Long commentId, int pageNo, int pageSize){
@@ -230,21 +276,16 @@ public class CommentServiceImpl implements CommentService {
         //Creamos la paginación
         Pageable pageable = PageRequest.of(pageNo, pageSize,Sort.by("createdAt").descending());
 
-        //Obtenemos el comentario padre o elegido mediante el id para obtener el post al que pertenece y a la vez verificamos que el id del comentario exista
-        Comment parentComment = commentRepository.findById(commentId)
-                .orElseThrow(()-> new ResourceNotFoundException("Comment", "Id", commentId));
+        //Verificamos que el id del comentario elegido exista
+        if (!commentRepository.existsById(commentId)){
+            throw new ResourceNotFoundException("Comment", "Id", commentId);
+        }
 
         //Obtenemos los comentarios que son hijos del comentario elegido
         Page<Comment> commentPage = commentRepository.findByParentId(commentId, pageable);
 
-
-        //Obtenemos todos los comentarios del post donde se encuentra el comentario elegido
-        List<Comment> allComments = parentComment.getPost().getComments().stream().collect(Collectors.toList());
-
-        //Convertimos a DTO cada respuesta del comentario elegido
-        List<CommentResponse> content = commentPage.getContent().stream()
-                .map(comment -> commentMapper.toDto(comment, allComments))
-                .collect(Collectors.toList());
+        //Convertimos a DTO cada respuesta del comentario elegido junto con sus propias respuestas
+        List<CommentResponse> content = getCommentSubtrees(idsOf(commentPage));
 
         //Retornamos la respuesta paginada con las respuestas del comentario elegido
         return PaginatedResponse.<CommentResponse>builder()
@@ -262,8 +303,9 @@ public class CommentServiceImpl implements CommentService {
     @Transactional
     public PaginatedResponse<CommentResponse> getCommentsByUserId(Long userId, int pageNo, int pageSize){
         //Verificamos que el Id del usuario exista
-        User user = userRepository.findById(userId)
-                .orElseThrow(()-> new ResourceNotFoundException("Usuario", "Id", userId));
+        if (!userRepository.existsById(userId)){
+            throw new ResourceNotFoundException("Usuario", "Id", userId);
+        }
 
         //Creamos la paginación
         Pageable pageable = PageRequest.of(pageNo,pageSize,Sort.by("createdAt").descending());
@@ -271,10 +313,8 @@ public class CommentServiceImpl implements CommentService {
         //Obtenemos la pagina con la información a mostrar
         Page <Comment> commentPage = commentRepository.findByUserId(userId, pageable);
 
-        //Convertimos cada comentario de la pagina en un DTO y lo almacenamos en la misma lista
-        List<CommentResponse> content = commentPage.getContent().stream()
-                .map(comment -> commentMapper.toDto(comment, comment.getPost().getComments().stream().collect(Collectors.toList())))
-                .collect(Collectors.toList());
+        //Convertimos cada comentario de la pagina en un DTO con sus respuestas
+        List<CommentResponse> content = getCommentSubtrees(idsOf(commentPage));
 
         //Devolvemos la respuesta con los datos del commentPage paginado.
         return PaginatedResponse .<CommentResponse>builder()
@@ -308,17 +348,18 @@ public class CommentServiceImpl implements CommentService {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(()->new ResourceNotFoundException("Comentario", "Id", commentId));
 
-        //Modificamos la aprobación del comentario
-        comment.setApproved(true);
+        //Modificamos la aprobación del comentario (y el contador de aprobados del post si cambió)
+        if (!comment.isApproved()){
+            comment.setApproved(true);
+            postCommentCounter.approvalChanged(comment.getPost().getId(), true);
+            eventPublisher.publishEvent(new CommentChangedEvent(comment.getPost().getId()));
+        }
 
         //Actualizamos el comentario con el nuevo parametro
-        Comment updatedComment = commentRepository.save(comment);
+        commentRepository.save(comment);
 
-        //Obtenemos la lista de comentarios del post ya que es necesario para obtener la estructura de jerarquia del comentario
-        List<Comment> postComments = comment.getPost().getComments().stream().collect(Collectors.toList());
-
-        //Retornamos el comentario actualizado en DTO
-        return commentMapper.toDto(updatedComment, postComments);
+        //Retornamos el comentario actualizado en DTO con su jerarquía de respuestas
+        return getCommentSubtree(commentId);
     }
 
     @Override
@@ -341,21 +382,56 @@ public class CommentServiceImpl implements CommentService {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(()->new ResourceNotFoundException("Comentario", "Id", commentId));
 
-        //Modificamos la aprobación del comentario
+        //Modificamos la aprobación del comentario (y el contador de aprobados del post si cambió)
 
-        comment.setApproved(false);
+        if (comment.isApproved()){
+            comment.setApproved(false);
+            postCommentCounter.approvalChanged(comment.getPost().getId(), false);
+            eventPublisher.publishEvent(new CommentChangedEvent(comment.getPost().getId()));
+        }
 
         //Actualizamos el comentario con el nuevo parametro
 
-        Comment updatedComment = commentRepository.save(comment);
+        commentRepository.save(comment);
 
-        //Obtenemos la lista de comentarios del post ya que es necesario para obtener la estructura de jerarquia del comentario
+        //Retornamos el comentario actualizado en DTO con su jerarquía de respuestas
 
-        List<Comment> postComments = comment.getPost().getComments().stream().collect(Collectors.toList());
+        return getCommentSubtree(commentId);
+    }
 
-        //Retornamos el comentario actualizado en DTO
+    /**
+     * Obtiene un comentario y todas sus respuestas sin cargar el resto de comentarios del post.
+     * @param commentId ID del comentario raíz
+     * @return Comentario con sus respuestas anidadas
+     */
+    private CommentResponse getCommentSubtree(Long commentId){
+        List<CommentResponse> subtrees = getCommentSubtrees(List.of(commentId));
+        if (subtrees.isEmpty()){
+            throw new ResourceNotFoundException("Comentario", "Id", commentId);
+        }
+        return subtrees.get(0);
+    }
 
-        return commentMapper.toDto(updatedComment, postComments);
+    /**
+     * Obtiene varios comentarios con sus respuestas. Primero se resuelven los IDs de los descendientes
+     * con una consulta recursiva y luego se cargan solo esos comentarios como proyecciones.
+     * @param rootIds IDs de los comentarios raíz, en el orden en que se deben devolver
+     * @return Comentarios con sus respuestas anidadas
+     */
+    private List<CommentResponse> getCommentSubtrees(List<Long> rootIds){
+        if (rootIds.isEmpty()){
+            return new ArrayList<>();
+        }
+
+        List<Long> subtreeIds = commentRepository.findSubtreeIds(rootIds);
+        List<CommentNodeProjection> nodes = commentRepository.findNodesByIds(subtreeIds);
+        return commentMapper.toSubtreeDtoList(rootIds, nodes);
+    }
+
+    private static List<Long> idsOf(Page<Comment> commentPage){
+        return commentPage.getContent().stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList());
     }
 
 
@@ -0,0 +1,98 @@
+package com.luciano.blogpersonal.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache de los listados más consultados con carga única por clave y refresco en segundo plano.
+ * Si varias solicitudes piden a la vez un listado que no está en cache, solo una consulta la base de datos y
+ * las demás esperan ese mismo resultado. Cuando una entrada envejece se sigue entregando el valor anterior
+ * mientras se recarga en segundo plano (stale-while-revalidate), así los vencimientos no generan picos de latencia.
+ * Las escrituras no se invalidan aquí: la versión del contenido forma parte de la clave.
+ */
+@Component
+public class ListingCache {
+
+    private final LoadingCache<Key, Object> cache;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public ListingCache(PlatformTransactionManager transactionManager,
+                        @Value("${app.listing-cache.max-size:2000}") long maxSize,
+                        @Value("${app.listing-cache.refresh-after:30s}") Duration refreshAfter,
+                        @Value("${app.listing-cache.expire-after:10m}") Duration expireAfter){
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .build(this::load);
+    }
+
+    /**
+     * Obtiene un listado del cache o lo carga una sola vez aunque haya solicitudes concurrentes
+     * @param name Nombre del listado (por ejemplo "posts.published")
+     * @param version Versión del contenido del que depende el listado
+     * @param params Parámetros que identifican la página
+     * @param loader Carga el listado desde la base de datos; se ejecuta en una transacción de solo lectura
+     * @return Listado compartido entre solicitudes, que no debe modificarse
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name, String version, List<?> params, Supplier<T> loader){
+        return (T) cache.get(new Key(name, version, params, loader));
+    }
+
+    /**
+     * Descarta todos los listados cacheados
+     */
+    public void invalidateAll(){
+        cache.invalidateAll();
+    }
+
+    //El refresco reutiliza el loader guardado en la clave de la entrada
+    private Object load(Key key){
+        return readOnlyTransaction.execute(status -> key.loader.get());
+    }
+
+    //El loader no participa en equals/hashCode: dos solicitudes con los mismos parámetros comparten la entrada
+    private static final class Key {
+        private final String name;
+        private final String version;
+        private final List<?> params;
+        private final Supplier<?> loader;
+
+        private Key(String name, String version, List<?> params, Supplier<?> loader){
+            this.name = name;
+            this.version = version;
+            this.params = params;
+            this.loader = loader;
+        }
+
+        @Override
+        public boolean equals(Object other){
+            if (this == other){
+                return true;
+            }
+            if (!(other instanceof Key key)){
+                return false;
+            }
+            return name.equals(key.name) && version.equals(key.version) && params.equals(key.params);
+        }
+
+        @Override
+        public int hashCode(){
+            return Arrays.hashCode(new Object[]{name, version, params});
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.luciano.blogpersonal.common.datagen;
+
+import com.luciano.blogpersonal.common.utils.AppConstants;
+import com.luciano.blogpersonal.common.utils.SlugUtils;
+import com.luciano.blogpersonal.post.event.TaxonomyCountsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generador de datos sintéticos a escala de blog: usuarios, categorías, tags, posts y comentarios insertados
+ * con sentencias JDBC en lote.
+ * Reproduce la forma de los datos de producción: la popularidad de tags, categorías, autores y comentaristas
+ * sigue una distribución de Zipf, los comentarios por post una ley de potencias y las respuestas forman cadenas profundas.
+ * Los IDs se asignan a continuación del máximo existente, así los datos se pueden agregar a una base con contenido.
+ */
+@Component
+public class BlogDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(BlogDataGenerator.class);
+
+    public static final String USERNAME_PREFIX = "genuser";
+
+    //Vocabulario de títulos y contenido; sirve también como palabras clave para búsquedas
+    public static final String[] TOPICS = {
+            "spring", "java", "hibernate", "jwt", "docker", "kubernetes", "cache", "rendimiento", "consultas", "índices",
+            "seguridad", "pruebas", "arquitectura", "microservicios", "api", "rest", "json", "mysql", "transacciones", "hilos",
+            "memoria", "latencia", "paginación", "búsqueda", "eventos", "colas", "despliegue", "monitoreo", "logs", "diseño"
+    };
+
+    private static final String[] FILLER = {
+            "el", "la", "de", "para", "con", "sin", "cómo", "cuando", "mejor", "guía", "práctica", "errores", "patrones",
+            "ejemplo", "producción", "escala", "datos", "servicio", "equipo", "proyecto"
+    };
+
+    private static final int BATCH_SIZE = 1_000;
+    //Exponente de la ley de potencias (Pareto) de comentarios por post y de vistas
+    private static final double PARETO_ALPHA = 1.5;
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (id, name, last_name, username, email, password, bio, " +
+            "created_at, updated_at, active, role, token_version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_CATEGORY_SQL = "INSERT INTO categories (id, name, description, slug, created_at, updated_at, post_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_TAG_SQL = "INSERT INTO tags (id, name, slug, created_at, updated_at, post_count) VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_POST_SQL = "INSERT INTO posts (id, title, slug, excerpt, content, published, published_at, " +
+            "created_at, updated_at, view_count, comment_count, approved_comment_count, author_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_POST_CATEGORY_SQL = "INSERT INTO post_categories (post_id, category_id) VALUES (?, ?)";
+    private static final String INSERT_POST_TAG_SQL = "INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)";
+    private static final String INSERT_COMMENT_SQL = "INSERT INTO comments (id, content, created_at, updated_at, approved, post_id, user_id, parent_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ADD_CATEGORY_COUNT_SQL = "UPDATE categories SET post_count = post_count + ? WHERE id = ?";
+    private static final String ADD_TAG_COUNT_SQL = "UPDATE tags SET post_count = post_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public BlogDataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher){
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Resultado de una generación: rangos de IDs creados y cantidades
+     */
+    public record Result(long firstUserId, int users, long firstPostId, int posts, long comments, long elapsedMillis) {
+    }
+
+    /**
+     * Nombre de usuario de un usuario generado
+     * @param userId ID del usuario
+     */
+    public static String username(long userId){
+        return USERNAME_PREFIX + userId;
+    }
+
+    /**
+     * Genera e inserta el conjunto de datos completo
+     * @param spec Tamaño y forma de los datos
+     * @return Rangos de IDs generados
+     */
+    public Result generate(DataGenerationSpec spec){
+        long started = System.nanoTime();
+        //Todas las fechas se calculan desde la fecha de referencia de la especificación y ninguna la supera
+        LocalDateTime reference = spec.getReferenceDate().atStartOfDay();
+
+        long userBase = maxId("users");
+        long categoryBase = maxId("categories");
+        long tagBase = maxId("tags");
+        long postBase = maxId("posts");
+        long commentBase = maxId("comments");
+
+        log.info("Generando {} usuarios, {} categorías, {} tags y {} posts (semilla {})",
+                spec.getUsers(), spec.getCategories(), spec.getTags(), spec.getPosts(), spec.getSeed());
+
+        insertUsers(spec, userBase, reference);
+        insertCategories(spec, categoryBase, reference);
+        insertTags(spec, tagBase, reference);
+
+        //Cada tipo de dato usa su propio generador aleatorio: cambiar la forma de los comentarios no altera los posts
+        PostContext context = new PostContext(spec, userBase, categoryBase, tagBase, reference);
+        long nextCommentId = commentBase + 1;
+        for (int from = 0; from < spec.getPosts(); from += spec.getChunkSize()){
+            int to = Math.min(spec.getPosts(), from + spec.getChunkSize());
+            long firstCommentId = nextCommentId;
+            int chunkFrom = from;
+            nextCommentId = transactionTemplate.execute(status -> insertPostChunk(context, postBase, chunkFrom, to, firstCommentId));
+            if (to % (spec.getChunkSize() * 10) == 0 || to == spec.getPosts()){
+                log.info("Posts generados: {}/{} ({} comentarios)", to, spec.getPosts(), nextCommentId - commentBase - 1);
+            }
+        }
+
+        restartIdentities(Map.of("users", userBase + spec.getUsers(), "categories", categoryBase + spec.getCategories(),
+                "tags", tagBase + spec.getTags(), "posts", postBase + spec.getPosts(), "comments", nextCommentId - 1));
+        //Los rankings en memoria de tags y categorías se recargan desde los contadores
+        eventPublisher.publishEvent(TaxonomyCountsChangedEvent.all());
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        long comments = nextCommentId - commentBase - 1;
+        log.info("Datos generados en {} ms: {} posts y {} comentarios", elapsedMillis, spec.getPosts(), comments);
+        return new Result(userBase + 1, spec.getUsers(), postBase + 1, spec.getPosts(), comments, elapsedMillis);
+    }
+
+    private void insertUsers(DataGenerationSpec spec, long userBase, LocalDateTime reference){
+        Random random = random(spec, 1);
+        //Todos comparten la contraseña: codificarla una vez evita miles de hashes BCrypt
+        String passwordHash = passwordEncoder.encode(spec.getPassword());
+        List<Object[]> rows = new ArrayList<>(spec.getUsers());
+        for (int i = 1; i <= spec.getUsers(); i++){
+            long id = userBase + i;
+            Timestamp createdAt = Timestamp.valueOf(reference.minusDays(spec.getSpanDays() + 1L).plusMinutes(random.nextInt(60 * 24 * 30)));
+            //El primer usuario generado es administrador, para probar los endpoints restringidos
+            String role = i == 1 ? AppConstants.ROLE_ADMIN : AppConstants.ROLE_USER;
+            rows.add(new Object[]{id, "Usuario", "Generado " + id, username(id), username(id) + "@example.com", passwordHash,
+                    "Bio del usuario " + id, createdAt, createdAt, true, role});
+        }
+        transactionTemplate.executeWithoutResult(status -> batch(INSERT_USER_SQL, rows));
+    }
+
+    private void insertCategories(DataGenerationSpec spec, long categoryBase, LocalDateTime reference){
+        Timestamp createdAt = Timestamp.valueOf(reference.minusDays(spec.getSpanDays() + 1L));
+        List<Object[]> rows = new ArrayList<>(spec.getCategories());
+        for (int i = 1; i <= spec.getCategories(); i++){
+            long id = categoryBase + i;
+            String topic = TOPICS[(i - 1) % TOPICS.length];
+            rows.add(new Object[]{id, capitalize(topic) + " " + id, "Posts sobre " + topic, SlugUtils.generateSlug(topic) + "-" + id,
+                    createdAt, createdAt});
+        }
+        transactionTemplate.executeWithoutResult(status -> batch(INSERT_CATEGORY_SQL, rows));
+    }
+
+    private void insertTags(DataGenerationSpec spec, long tagBase, LocalDateTime reference){
+        Timestamp createdAt = Timestamp.valueOf(reference.minusDays(spec.getSpanDays() + 1L));
+        List<Object[]> rows = new ArrayList<>(spec.getTags());
+        for (int i = 1; i <= spec.getTags(); i++){
+            long id = tagBase + i;
+            String slug = SlugUtils.generateSlug(TOPICS[(i - 1) % TOPICS.length]) + "-" + id;
+            rows.add(new Object[]{id, slug, slug, createdAt, createdAt});
+        }
+        transactionTemplate.executeWithoutResult(status -> batch(INSERT_TAG_SQL, rows));
+    }
+
+    //Inserta los posts [from, to) con sus relaciones y comentarios; devuelve el siguiente ID de comentario libre
+    private long insertPostChunk(PostContext context, long postBase, int from, int to, long firstCommentId){
+        DataGenerationSpec spec = context.spec;
+        List<Object[]> posts = new ArrayList<>(to - from);
+        List<Object[]> postCategories = new ArrayList<>();
+        List<Object[]> postTags = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>(BATCH_SIZE);
+        Map<Long, Integer> categoryIncrements = new HashMap<>();
+        Map<Long, Integer> tagIncrements = new HashMap<>();
+        long commentId = firstCommentId;
+        double spanMinutes = spec.getSpanDays() * 24.0 * 60.0;
+
+        for (int i = from; i < to; i++){
+            long postId = postBase + i + 1;
+            Random random = context.postRandom;
+            LocalDateTime createdAt = context.reference.minusMinutes((long) (spanMinutes * (spec.getPosts() - i) / spec.getPosts()));
+            boolean published = random.nextDouble() < spec.getPublishedRatio();
+            String title = title(random, postId);
+
+            for (Long categoryId : distinct(context.categorySampler, random, 1 + (random.nextInt(10) < 3 ? 1 : 0), context.categoryBase)){
+                postCategories.add(new Object[]{postId, categoryId});
+                categoryIncrements.merge(categoryId, 1, Integer::sum);
+            }
+            for (Long tagId : distinct(context.tagSampler, random, random.nextInt(spec.getMaxTagsPerPost() + 1), context.tagBase)){
+                postTags.add(new Object[]{postId, tagId});
+                tagIncrements.merge(tagId, 1, Integer::sum);
+            }
+
+            //Comentarios del post: la cantidad sigue una ley de potencias y las respuestas forman cadenas
+            Random commentRandom = context.commentRandom;
+            int commentCount = pareto(commentRandom, spec.getMeanCommentsPerPost(), spec.getMaxCommentsPerPost());
+            int approvedCount = 0;
+            long firstOfPost = commentId;
+            for (int c = 0; c < commentCount; c++, commentId++){
+                Long parentId = null;
+                if (c > 0 && commentRandom.nextDouble() < spec.getReplyProbability()){
+                    parentId = commentRandom.nextDouble() < spec.getChainProbability()
+                            ? commentId - 1
+                            : firstOfPost + commentRandom.nextInt(c);
+                }
+                boolean approved = commentRandom.nextDouble() < spec.getApprovedRatio();
+                if (approved){
+                    approvedCount++;
+                }
+                //Los posts más nuevos con muchos comentarios los acumulan en la fecha de referencia en vez de pasarla
+                LocalDateTime commentDate = createdAt.plusMinutes(1L + c * 7L + commentRandom.nextInt(7));
+                Timestamp commentedAt = Timestamp.valueOf(commentDate.isAfter(context.reference) ? context.reference : commentDate);
+                long userId = context.userBase + 1 + context.commenterSampler.sample(commentRandom);
+                comments.add(new Object[]{commentId, comment(commentRandom), commentedAt, commentedAt, approved, postId, userId, parentId});
+            }
+
+            Timestamp created = Timestamp.valueOf(createdAt);
+            posts.add(new Object[]{postId, title, SlugUtils.generateSlug(title) + "-" + postId, excerpt(random), content(random),
+                    published, published ? created : null, created, created, pareto(random, 150, 1_000_000),
+                    commentCount, approvedCount, context.userBase + 1 + context.authorSampler.sample(random)});
+
+            //Los posts van antes que sus comentarios por la clave foránea
+            if (comments.size() >= BATCH_SIZE){
+                batch(INSERT_POST_SQL, posts);
+                posts.clear();
+                batch(INSERT_COMMENT_SQL, comments);
+                comments.clear();
+            }
+        }
+
+        batch(INSERT_POST_SQL, posts);
+        batch(INSERT_COMMENT_SQL, comments);
+        batch(INSERT_POST_CATEGORY_SQL, postCategories);
+        batch(INSERT_POST_TAG_SQL, postTags);
+        batch(ADD_CATEGORY_COUNT_SQL, toCountArgs(categoryIncrements));
+        batch(ADD_TAG_COUNT_SQL, toCountArgs(tagIncrements));
+        return commentId;
+    }
+
+    private String title(Random random, long postId){
+        String title = capitalize(TOPICS[random.nextInt(TOPICS.length)]) + " " + FILLER[random.nextInt(FILLER.length)] + " "
+                + TOPICS[random.nextInt(TOPICS.length)] + " " + FILLER[random.nextInt(FILLER.length)] + " " + TOPICS[random.nextInt(TOPICS.length)];
+        return title + " #" + postId;
+    }
+
+    //El extracto admite hasta 200 caracteres
+    private String excerpt(Random random){
+        String excerpt = capitalize(sentence(random, 12 + random.nextInt(10)));
+        return excerpt.length() > 200 ? excerpt.substring(0, 200) : excerpt;
+    }
+
+    //Entre 2 y ~40 párrafos: la mayoría de los posts son cortos y unos pocos muy largos
+    private String content(Random random){
+        int paragraphs = 2 + pareto(random, 4, 40);
+        StringBuilder content = new StringBuilder(paragraphs * 400);
+        for (int p = 0; p < paragraphs; p++){
+            content.append("<p>").append(capitalize(sentence(random, 40 + random.nextInt(40)))).append(".</p>\n");
+        }
+        return content.toString();
+    }
+
+    private String comment(Random random){
+        return capitalize(sentence(random, 5 + random.nextInt(25)));
+    }
+
+    private static String sentence(Random random, int words){
+        StringBuilder sentence = new StringBuilder(words * 8);
+        for (int w = 0; w < words; w++){
+            if (w > 0){
+                sentence.append(' ');
+            }
+            sentence.append(random.nextInt(4) == 0 ? TOPICS[random.nextInt(TOPICS.length)] : FILLER[random.nextInt(FILLER.length)]);
+        }
+        return sentence.toString();
+    }
+
+    //Muestras distintas de una distribución de Zipf, convertidas a IDs
+    private static Set<Long> distinct(ZipfSampler sampler, Random random, int count, long idBase){
+        Set<Long> ids = new LinkedHashSet<>();
+        //Con distribuciones muy sesgadas se limita el número de intentos para no buscar indefinidamente
+        for (int attempt = 0; ids.size() < count && attempt < count * 10; attempt++){
+            ids.add(idBase + 1 + sampler.sample(random));
+        }
+        return ids;
+    }
+
+    //Ley de potencias (Pareto) con la media indicada, truncada en max
+    private static int pareto(Random random, double mean, int max){
+        double scale = mean * (PARETO_ALPHA - 1);
+        double value = scale / Math.pow(1 - random.nextDouble(), 1 / PARETO_ALPHA) - scale;
+        return (int) Math.min(max, value);
+    }
+
+    private static String capitalize(String text){
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static List<Object[]> toCountArgs(Map<Long, Integer> increments){
+        List<Object[]> args = new ArrayList<>(increments.size());
+        increments.forEach((id, increment) -> args.add(new Object[]{increment, id}));
+        return args;
+    }
+
+    private void batch(String sql, List<Object[]> rows){
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE){
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private long maxId(String table){
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    //MySQL avanza el AUTO_INCREMENT al insertar IDs explícitos; H2 no, y hay que reiniciar la identidad a mano
+    private void restartIdentities(Map<String, Long> lastIds){
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equalsIgnoreCase(product)){
+            return;
+        }
+        lastIds.forEach((table, lastId) -> jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (lastId + 1)));
+    }
+
+    private static Random random(DataGenerationSpec spec, int stream){
+        return new Random(spec.getSeed() * 31 + stream);
+    }
+
+    //Distribuciones y generadores aleatorios compartidos por todos los bloques de posts
+    private static class PostContext {
+        private final DataGenerationSpec spec;
+        private final long userBase;
+        private final long categoryBase;
+        private final long tagBase;
+        private final LocalDateTime reference;
+        private final Random postRandom;
+        private final Random commentRandom;
+        private final ZipfSampler authorSampler;
+        private final ZipfSampler commenterSampler;
+        private final ZipfSampler categorySampler;
+        private final ZipfSampler tagSampler;
+
+        private PostContext(DataGenerationSpec spec, long userBase, long categoryBase, long tagBase, LocalDateTime reference){
+            this.spec = spec;
+            this.userBase = userBase;
+            this.categoryBase = categoryBase;
+            this.tagBase = tagBase;
+            this.reference = reference;
+            this.postRandom = random(spec, 2);
+            this.commentRandom = random(spec, 3);
+            this.authorSampler = new ZipfSampler(spec.getUsers(), spec.getZipfExponent());
+            this.commenterSampler = new ZipfSampler(spec.getUsers(), spec.getZipfExponent());
+            this.categorySampler = new ZipfSampler(spec.getCategories(), spec.getZipfExponent());
+            this.tagSampler = new ZipfSampler(spec.getTags(), spec.getZipfExponent());
+        }
+    }
+}
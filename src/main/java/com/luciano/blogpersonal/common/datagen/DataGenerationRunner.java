@@ -0,0 +1,39 @@
+package com.luciano.blogpersonal.common.datagen;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Genera el conjunto de datos sintético al iniciar la aplicación, para perfilar en local con volúmenes de producción.
+ * Solo se activa con app.datagen.enabled=true, por ejemplo:
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--app.datagen.enabled=true --app.datagen.scale=10"
+ * Se ejecuta antes de que la aplicación quede lista, así el índice de búsqueda se construye ya con los datos generados.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datagen.enabled", havingValue = "true")
+public class DataGenerationRunner implements ApplicationRunner {
+
+    private final BlogDataGenerator blogDataGenerator;
+    private final double scale;
+    private final long seed;
+
+    @Autowired
+    public DataGenerationRunner(BlogDataGenerator blogDataGenerator,
+                                @Value("${app.datagen.scale:1}") double scale,
+                                @Value("${app.datagen.seed:42}") long seed){
+        this.blogDataGenerator = blogDataGenerator;
+        this.scale = scale;
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args){
+        DataGenerationSpec spec = DataGenerationSpec.ofScale(scale);
+        spec.setSeed(seed);
+        blogDataGenerator.generate(spec);
+    }
+}
@@ -0,0 +1,95 @@
+package com.luciano.blogpersonal.common.datagen;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Tamaño y forma del conjunto de datos sintético.
+ * Con la misma especificación (incluida la semilla) el generador produce siempre los mismos datos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataGenerationSpec {
+
+    @Builder.Default
+    private long seed = 42;
+
+    @Builder.Default
+    private int users = 1_000;
+
+    @Builder.Default
+    private int categories = 30;
+
+    @Builder.Default
+    private int tags = 500;
+
+    @Builder.Default
+    private int posts = 10_000;
+
+    //Comentarios por post con distribución de ley de potencias: pocos posts concentran la mayoría
+    @Builder.Default
+    private double meanCommentsPerPost = 20;
+
+    @Builder.Default
+    private int maxCommentsPerPost = 5_000;
+
+    //Probabilidad de que un comentario sea respuesta y, si lo es, de que responda al inmediatamente anterior
+    // (esto último genera cadenas de respuestas profundas)
+    @Builder.Default
+    private double replyProbability = 0.6;
+
+    @Builder.Default
+    private double chainProbability = 0.5;
+
+    @Builder.Default
+    private int maxTagsPerPost = 5;
+
+    //Exponente de Zipf para la popularidad de tags, categorías, autores y comentaristas
+    @Builder.Default
+    private double zipfExponent = 1.1;
+
+    @Builder.Default
+    private double publishedRatio = 0.9;
+
+    @Builder.Default
+    private double approvedRatio = 0.95;
+
+    //Antigüedad del post más viejo
+    @Builder.Default
+    private int spanDays = 730;
+
+    //Fecha desde la que se calculan las demás; es fija para que la fecha de ejecución no cambie los datos generados
+    @Builder.Default
+    private LocalDate referenceDate = LocalDate.of(2025, 1, 1);
+
+    @Builder.Default
+    private String password = "password123";
+
+    //Posts (con sus relaciones y comentarios) por transacción
+    @Builder.Default
+    private int chunkSize = 1_000;
+
+    /**
+     * Especificación base multiplicada por un factor de escala.
+     * Con escala 1 son 10 mil posts y unos 200 mil comentarios; con escala 100, un millón de posts
+     * @param scale Factor de escala
+     */
+    public static DataGenerationSpec ofScale(double scale){
+        DataGenerationSpec base = DataGenerationSpec.builder().build();
+        base.setUsers(scaled(base.getUsers(), scale));
+        base.setCategories(scaled(base.getCategories(), Math.sqrt(scale)));
+        base.setTags(scaled(base.getTags(), Math.sqrt(scale)));
+        base.setPosts(scaled(base.getPosts(), scale));
+        return base;
+    }
+
+    private static int scaled(int value, double scale){
+        return (int) Math.max(1, Math.round(value * scale));
+    }
+}
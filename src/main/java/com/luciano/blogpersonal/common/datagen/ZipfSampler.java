@@ -0,0 +1,42 @@
+package com.luciano.blogpersonal.common.datagen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Muestreo con distribución de Zipf sobre los rangos 1..n: el rango k aparece con probabilidad proporcional a 1/k^s.
+ * La distribución acumulada se calcula una vez y cada muestra es una búsqueda binaria.
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+
+    /**
+     * @param n Cantidad de elementos
+     * @param exponent Exponente s; valores cercanos a 1 reproducen la popularidad típica de tags y autores
+     */
+    public ZipfSampler(int n, double exponent){
+        if (n < 1){
+            throw new IllegalArgumentException("La distribución necesita al menos un elemento");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++){
+            sum += 1.0 / Math.pow(k, exponent);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++){
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * Devuelve un rango entre 0 (el más frecuente) y n - 1
+     */
+    public int sample(Random random){
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        //binarySearch devuelve (-(punto de inserción) - 1) cuando el valor no está exactamente en la tabla
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
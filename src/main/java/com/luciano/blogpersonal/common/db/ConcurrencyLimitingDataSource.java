@@ -0,0 +1,108 @@
+package com.luciano.blogpersonal.common.db;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que limita cuántas conexiones pueden estar en uso al mismo tiempo.
+ * Con hilos virtuales puede haber miles de solicitudes simultáneas; en lugar de que todas compitan dentro del pool
+ * de conexiones, esperan su turno en un semáforo justo (un hilo virtual en espera casi no consume recursos) y,
+ * si no obtienen permiso dentro del tiempo máximo, fallan con un error de conexión transitorio.
+ * El permiso se devuelve al cerrar la conexión.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMillis;
+
+    public ConcurrencyLimitingDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout){
+        super(targetDataSource);
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException ex){
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex){
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Cantidad máxima de conexiones en uso simultáneo
+     */
+    public int getMaxConcurrent(){
+        return maxConcurrent;
+    }
+
+    /**
+     * Cantidad de hilos esperando una conexión
+     */
+    public int getQueueLength(){
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)){
+                throw new SQLTransientConnectionException("No hay conexiones disponibles: se alcanzó el límite de "
+                        + maxConcurrent + " consultas simultáneas tras esperar " + acquireTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido mientras se esperaba una conexión", ex);
+        }
+    }
+
+    //Envuelve la conexión para devolver el permiso una sola vez, aunque close() se llame varias veces
+    private Connection limited(Connection connection){
+        AtomicBoolean released = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+                ConcurrencyLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0){
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)){
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex){
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
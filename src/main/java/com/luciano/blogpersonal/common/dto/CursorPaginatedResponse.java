@@ -0,0 +1,21 @@
+package com.luciano.blogpersonal.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class CursorPaginatedResponse<T> {
+    private List<T> content; //Contenido
+    private int pageSize; //Tamano de pagina
+    private String nextCursor; //Cursor para pedir la siguiente página, null si no hay más elementos
+    private boolean hasNext; //Existe una página siguiente
+    private Long totalElements; //Elementos totales, solo se calcula si se solicita
+}
@@ -0,0 +1,9 @@
+package com.luciano.blogpersonal.common.dto;
+
+/**
+ * Proyección con el contador de posts de un tag o una categoría
+ */
+public interface PostCountProjection {
+    Long getId();
+    long getPostCount();
+}
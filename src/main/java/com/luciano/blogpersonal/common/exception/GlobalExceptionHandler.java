@@ -1,8 +1,10 @@
 package com.luciano.blogpersonal.common.exception;
 
 import com.luciano.blogpersonal.common.dto.ApiResponse;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -46,6 +48,17 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler{
        return new ResponseEntity<> (apiResponse,HttpStatus.FORBIDDEN);
    }
 
+   //Sin conexión disponible (por ejemplo, límite de consultas simultáneas alcanzado): el cliente puede reintentar
+   @ExceptionHandler ({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ApiResponse> handleDatabaseUnavailableException (Exception exception){
+       ApiResponse apiResponse = ApiResponse.builder()
+               .success(false)
+               .message("El servicio está ocupado, intente nuevamente en unos segundos")
+               .build();
+
+       return new ResponseEntity<> (apiResponse,HttpStatus.SERVICE_UNAVAILABLE);
+   }
+
    @ExceptionHandler (Exception.class)
     public ResponseEntity<ApiResponse> handleException (Exception exception){
         ApiResponse apiResponse = ApiResponse.builder()
@@ -0,0 +1,175 @@
+package com.luciano.blogpersonal.common.sql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luciano.blogpersonal.common.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cuenta las consultas SQL de cada solicitud y las compara con el presupuesto de su endpoint.
+ * Las solicitudes que superan el presupuesto, o que repiten una misma sentencia (posible N+1), quedan en el log
+ * con las sentencias más repetidas.
+ * Con failOnViolation la respuesta se guarda en memoria hasta terminar la solicitud: si se pasó del presupuesto,
+ * el cliente recibe un error 500 en lugar de la respuesta original, que todavía no se envió. Como esto impide
+ * escribir las respuestas por partes, solo debe activarse en las pruebas de integración.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private static final int MAX_LOGGED_STATEMENTS = 3;
+    private static final int MAX_STATEMENT_LENGTH = 200;
+
+    private final int defaultBudget;
+    private final Map<String, Integer> endpointBudgets;
+    private final int repeatThreshold;
+    private final boolean failOnViolation;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param defaultBudget Consultas permitidas por solicitud (0 = sin límite)
+     * @param endpointBudgets Presupuestos por endpoint con el formato "GET /api/posts/{id}=5;GET /api/posts=3"
+     * @param repeatThreshold Ejecuciones de una misma sentencia a partir de las cuales se avisa de un posible N+1 (0 = no avisar)
+     * @param failOnViolation Si una solicitud fuera de presupuesto termina con error
+     * @param objectMapper Serializa el error que reemplaza a la respuesta fuera de presupuesto
+     */
+    public SqlBudgetFilter(int defaultBudget, String endpointBudgets, int repeatThreshold, boolean failOnViolation, ObjectMapper objectMapper){
+        this.defaultBudget = defaultBudget;
+        this.endpointBudgets = parseBudgets(endpointBudgets);
+        this.repeatThreshold = repeatThreshold;
+        this.failOnViolation = failOnViolation;
+        this.objectMapper = objectMapper;
+    }
+
+    //Con failOnViolation el filtro también corre en el despacho asíncrono para enviar lo que quedó guardado en memoria
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch(){
+        return !failOnViolation;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)){
+            //Las consultas de la parte asíncrona corren en otros hilos y no se cuentan: solo se envía la respuesta
+            filterChain.doFilter(request, response);
+            ContentCachingResponseWrapper buffered = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (buffered != null && !isAsyncStarted(request)){
+                buffered.copyBodyToResponse();
+            }
+            return;
+        }
+
+        HttpServletResponse target = failOnViolation ? new ContentCachingResponseWrapper(response) : response;
+        SqlRequestStats stats = SqlRequestStats.begin();
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            SqlRequestStats.end();
+        }
+
+        String endpoint = endpointOf(request);
+        int budget = endpointBudgets.getOrDefault(endpoint, defaultBudget);
+        boolean overBudget = check(endpoint, budget, stats);
+
+        if (!(target instanceof ContentCachingResponseWrapper buffered) || isAsyncStarted(request)){
+            return;
+        }
+        if (overBudget){
+            replaceWithError(response, buffered, String.format("%s ejecutó %d consultas SQL (máximo %d)",
+                    endpoint, stats.getStatementCount(), budget));
+        } else {
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    //Registra la solicitud en el log si se pasó del presupuesto o repite sentencias; devuelve si se pasó del presupuesto
+    private boolean check(String endpoint, int budget, SqlRequestStats stats){
+        int statements = stats.getStatementCount();
+        boolean overBudget = budget > 0 && statements > budget;
+        Map<String, Integer> repeated = repeatThreshold > 0 ? stats.getRepeatedStatements(repeatThreshold) : Map.of();
+
+        if (overBudget){
+            log.warn("{} ejecutó {} consultas SQL (presupuesto {}, {} ms en base de datos). Más repetidas: {}",
+                    endpoint, statements, budget, stats.getDbTimeMillis(), describe(stats.getRepeatedStatements(2)));
+        } else if (!repeated.isEmpty()){
+            log.warn("Posible N+1 en {}: {} consultas SQL ({} ms en base de datos). Sentencias repetidas: {}",
+                    endpoint, statements, stats.getDbTimeMillis(), describe(repeated));
+        } else if (log.isDebugEnabled()){
+            log.debug("{}: {} consultas SQL, {} ms en base de datos", endpoint, statements, stats.getDbTimeMillis());
+        }
+
+        return overBudget;
+    }
+
+    //La respuesta original solo está en memoria, así que todavía se puede descartar junto con sus headers
+    private void replaceWithError(HttpServletResponse response, ContentCachingResponseWrapper buffered, String message) throws IOException {
+        if (response.isCommitted()){
+            //No debería pasar: el contenido se guarda en memoria. Si igual ocurre, se envía lo que había
+            log.error("No se pudo reemplazar la respuesta ya enviada: {}", message);
+            buffered.copyBodyToResponse();
+            return;
+        }
+
+        buffered.resetBuffer();
+        response.reset();
+        response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.builder()
+                .success(false)
+                .message("Presupuesto de consultas SQL superado: " + message)
+                .build());
+    }
+
+    //Método y patrón del endpoint (por ejemplo "GET /api/posts/{id}"); si no hubo handler, la URI
+    private static String endpointOf(HttpServletRequest request){
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static String describe(Map<String, Integer> statements){
+        if (statements.isEmpty()){
+            return "ninguna";
+        }
+        return statements.entrySet().stream()
+                .limit(MAX_LOGGED_STATEMENTS)
+                .map(entry -> entry.getValue() + "x " + abbreviate(entry.getKey()))
+                .collect(Collectors.joining(" | "));
+    }
+
+    private static String abbreviate(String sql){
+        return sql.length() > MAX_STATEMENT_LENGTH ? sql.substring(0, MAX_STATEMENT_LENGTH) + "..." : sql;
+    }
+
+    private static Map<String, Integer> parseBudgets(String budgets){
+        Map<String, Integer> result = new HashMap<>();
+        if (budgets == null || budgets.isBlank()){
+            return result;
+        }
+        for (String entry : budgets.split(";")){
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0){
+                throw new IllegalArgumentException("Presupuesto SQL inválido: '" + entry + "' (se espera 'GET /ruta=N')");
+            }
+            result.put(entry.substring(0, separator).trim().replaceAll("\\s+", " "), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package com.luciano.blogpersonal.common.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Consultas SQL ejecutadas durante una solicitud: cantidad, tiempo en base de datos y sentencias repetidas.
+ * Cada solicitud tiene la suya asociada al hilo que la atiende; las tareas que se reparten en otros hilos
+ * (por ejemplo el detalle de un post) la propagan con {@link #runWith}.
+ */
+public class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    //Listas IN con distinta cantidad de parámetros cuentan como la misma sentencia
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final LongAdder dbTimeNanos = new LongAdder();
+    private final Map<String, AtomicInteger> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * Asocia unas estadísticas nuevas al hilo actual
+     */
+    public static SqlRequestStats begin(){
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Estadísticas del hilo actual, o null si el hilo no atiende una solicitud
+     */
+    public static SqlRequestStats current(){
+        return CURRENT.get();
+    }
+
+    public static void end(){
+        CURRENT.remove();
+    }
+
+    /**
+     * Ejecuta una tarea en otro hilo registrando sus consultas en las estadísticas indicadas
+     * @param stats Estadísticas de la solicitud original (puede ser null)
+     * @param task Tarea a ejecutar
+     */
+    public static <T> T runWith(SqlRequestStats stats, Supplier<T> task){
+        if (stats == null){
+            return task.get();
+        }
+        SqlRequestStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null){
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    void recordStatement(String sql){
+        statements.incrementAndGet();
+        fingerprints.computeIfAbsent(fingerprint(sql), key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    void recordExecution(long nanos){
+        dbTimeNanos.add(nanos);
+    }
+
+    public int getStatementCount(){
+        return statements.get();
+    }
+
+    public long getDbTimeMillis(){
+        return dbTimeNanos.sum() / 1_000_000;
+    }
+
+    /**
+     * Sentencias ejecutadas al menos la cantidad indicada de veces, de la más repetida a la menos repetida.
+     * Una misma sentencia repetida muchas veces en una solicitud suele ser un N+1
+     * @param minTimes Cantidad mínima de ejecuciones
+     */
+    public Map<String, Integer> getRepeatedStatements(int minTimes){
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        fingerprints.entrySet().stream()
+                .filter(entry -> entry.getValue().get() >= minTimes)
+                .sorted((a, b) -> Integer.compare(b.getValue().get(), a.getValue().get()))
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue().get()));
+        return repeated;
+    }
+
+    //Normaliza la sentencia: espacios, literales numéricos y listas IN
+    static String fingerprint(String sql){
+        String fingerprint = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        return IN_LIST.matcher(fingerprint).replaceAll("(?)");
+    }
+}
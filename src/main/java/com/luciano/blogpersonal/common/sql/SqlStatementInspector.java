@@ -0,0 +1,18 @@
+package com.luciano.blogpersonal.common.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta cada sentencia que Hibernate prepara dentro de una solicitud, sin modificarla
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql){
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null){
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,49 @@
+package com.luciano.blogpersonal.common.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Agrega a las respuestas las consultas SQL ejecutadas por la solicitud (solo para desarrollo).
+ * Los headers se escriben justo antes de serializar el cuerpo, cuando la respuesta todavía no fue enviada
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "app.sql-budget.headers", havingValue = "true")
+public class SqlStatsHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SQL_COUNT_HEADER = "X-SQL-Count";
+    public static final String SQL_TIME_HEADER = "X-SQL-Time-Ms";
+    public static final String SQL_REPEATED_HEADER = "X-SQL-Repeated";
+
+    private final int repeatThreshold;
+
+    public SqlStatsHeadersAdvice(@Value("${app.sql-budget.repeat-threshold:3}") int repeatThreshold){
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType){
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response){
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null){
+            response.getHeaders().set(SQL_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+            response.getHeaders().set(SQL_TIME_HEADER, String.valueOf(stats.getDbTimeMillis()));
+            //Cantidad de sentencias distintas que se repitieron al menos repeat-threshold veces
+            response.getHeaders().set(SQL_REPEATED_HEADER, String.valueOf(stats.getRepeatedStatements(Math.max(2, repeatThreshold)).size()));
+        }
+        return body;
+    }
+}
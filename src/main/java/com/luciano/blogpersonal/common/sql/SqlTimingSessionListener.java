@@ -0,0 +1,40 @@
+package com.luciano.blogpersonal.common.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mide el tiempo de ejecución JDBC de cada sesión de Hibernate y lo suma a las estadísticas de la solicitud.
+ * Hibernate crea una instancia por sesión (hibernate.session.events.auto) y una sesión no se usa desde dos hilos a la vez
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart(){
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd(){
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart(){
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd(){
+        record(batchStart);
+    }
+
+    private static void record(long start){
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null && start != 0){
+            stats.recordExecution(System.nanoTime() - start);
+        }
+    }
+}
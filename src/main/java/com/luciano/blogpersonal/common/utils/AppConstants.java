@@ -6,6 +6,8 @@ public class AppConstants {
     public static final String DEFAULT_PAGE_SIZE = "10";
     public static final String DEFAULT_SORT_BY = "createdAt";
     public static final String DEFAULT_SORT_DIRECTION = "desc";
+    public static final String DEFAULT_INCLUDE_TOTAL = "false";
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     // Roles
     public static final String ROLE_USER = "ROLE_USER";
@@ -40,6 +42,9 @@ public class AppConstants {
     public static final String TOKEN_VALID = "Token válido";
     public static final String UNAUTHENTICATED = "Usted no se ha autenticado";
     public static final String UNAUTHORIZED = "No tiene autorización para acceder a este recurso";
+    public static final String INVALID_CURSOR = "El cursor de paginación no es válido";
+    public static final String INVALID_PAGE_SIZE = "El tamaño de página debe ser mayor a cero";
+    public static final String CONTENT_CHANGED = "El contenido del post cambió durante la descarga";
 
     // JWT
     public static final long JWT_EXPIRATION_TIME = 604800000; // 7 días en milisegundos
@@ -0,0 +1,76 @@
+package com.luciano.blogpersonal.common.utils;
+
+import com.luciano.blogpersonal.common.exception.BlogApiException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Codifica y decodifica los cursores de la paginación por cursor (keyset).
+ * El cursor es opaco para el cliente: contiene la fecha de creación y el id del último elemento
+ * entregado, codificados en Base64 URL-safe.
+ */
+public class CursorUtils {
+
+    private static final char SEPARATOR = '|';
+
+    private CursorUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Genera el cursor que apunta al elemento indicado
+     * @param createdAt Fecha de creación del último elemento de la página
+     * @param id ID del último elemento de la página
+     * @return Cursor opaco
+     */
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Obtiene la clave de ordenamiento contenida en un cursor
+     * @param cursor Cursor recibido del cliente
+     * @return Clave del cursor, o null si no se envió cursor (primera página)
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.INVALID_CURSOR);
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.parseLong(raw.substring(separator + 1));
+            return new Cursor(createdAt, id);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * Valida el tamaño de página pedido para la paginación por cursor
+     * @param pageSize Tamaño de página recibido del cliente
+     * @return Tamaño de página a usar, limitado a {@link AppConstants#MAX_CURSOR_PAGE_SIZE}
+     */
+    public static int pageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.INVALID_PAGE_SIZE);
+        }
+        return Math.min(pageSize, AppConstants.MAX_CURSOR_PAGE_SIZE);
+    }
+
+    /**
+     * Clave de ordenamiento (fecha de creación, id) contenida en un cursor
+     */
+    public record Cursor(LocalDateTime createdAt, Long id) {
+    }
+}
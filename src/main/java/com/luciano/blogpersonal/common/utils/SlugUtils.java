@@ -1,6 +1,8 @@
 package com.luciano.blogpersonal.common.utils;
 
 import java.text.Normalizer;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Locale;
 import java.util.regex.Pattern;
 
@@ -9,12 +11,21 @@ public class SlugUtils {
     //Busca cualquier elemento que no sea alfanumerico
     private static final Pattern NONLATIN = Pattern.compile("[^\\w-]");
 
-    //Busca cualquier espacio en blanco
-    private static final Pattern WHITESPACE = Pattern.compile("[\\s]");
-
     //Busca guiones consecutivos
     private static final Pattern MULTIPLE_HYPHENS = Pattern.compile("-+");
 
+    //Busca guiones al principio o al final
+    private static final Pattern EDGE_HYPHENS = Pattern.compile("^-|-$");
+
+    //Busca las marcas diacríticas (tildes) que quedan separadas al normalizar en NFD
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    //Caracteres cubiertos por la tabla: ASCII, Latin-1 y Latin Extended-A/B
+    private static final int FOLD_TABLE_SIZE = 0x250;
+
+    //Caracter que aporta cada código al slug; '-' es separador y 0 indica que requiere el camino con Normalizer
+    private static final char[] FOLD = buildFoldTable();
+
 
     private SlugUtils() {
         throw new IllegalStateException("No instanciar,es una Utility class");
@@ -26,6 +37,8 @@ public class SlugUtils {
      * Genera un slug a partir de un texto.
      * Convierte a minúsculas, reemplaza espacios y caracteres especiales por guiones,
      * elimina guiones múltiples y guiones al inicio o final del texto.
+     * Recorre el texto una sola vez con una tabla precalculada; solo los textos con caracteres fuera
+     * de la tabla (otros alfabetos, marcas combinadas sueltas) pasan por Normalizer.
      * @Param text El texto a convertir en slug
      * @return EL slug generado
      */
@@ -35,56 +48,165 @@ public class SlugUtils {
             return null;
         }
 
-        //Normaliza el texto a un estado donde no hay tildes y todos los caracteres están en minúscula
-        String slug = Normalizer
-                .normalize(text, Normalizer.Form.NFD)//Elimina tildes
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "") //Excepción para tildes
-                .toLowerCase(Locale.ROOT); //Ni un idioma en específico
+        StringBuilder slug = new StringBuilder(text.length());
+        //Un guion solo se escribe cuando llega el siguiente caracter válido: así no quedan guiones repetidos ni en los extremos
+        boolean pendingHyphen = false;
+
+        for (int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            char folded = c < FOLD_TABLE_SIZE ? FOLD[c] : 0;
+            if (folded == 0){
+                return generateSlugWithNormalizer(text);
+            }
+
+            if (folded == '-'){
+                pendingHyphen = slug.length() > 0;
+            } else {
+                if (pendingHyphen){
+                    slug.append('-');
+                    pendingHyphen = false;
+                }
+                slug.append(folded);
+            }
+        }
 
-        //Reemplaza los caracteres no alfanúmericos por guiones
-        slug = NONLATIN.matcher(slug).replaceAll("-");
-        //Reemplaza los espacios en blanco por guiones
-        slug = WHITESPACE.matcher(slug).replaceAll("-");
-        //Elimina los guiones multiples dejando solo uno
-        slug = MULTIPLE_HYPHENS.matcher(slug).replaceAll("-");
-        //Elimina guiones que esten al principio o al final
-        slug = slug.replaceAll("^-|-$", "");
+        return slug.toString();
+    }
 
-        return slug;
+    /**
+     * Normaliza un texto eliminando tildes y convirtiéndolo a minúsculas.
+     * Es la base de los slugs y también se usa para indexar y buscar posts.
+     * @param text El texto a normalizar
+     * @return El texto sin tildes y en minúsculas
+     */
+    public static String normalize(String text){
+        if (text == null){
+            return null;
+        }
 
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)) //Separa las tildes de las letras
+                .replaceAll("") //Elimina las tildes
+                .toLowerCase(Locale.ROOT); //Ni un idioma en específico
     }
 
     /**
      * Genera un slug único a partir de un texto base.
-     * Si el slug ya existe, agrega un sufijo numérico hasta encontrar uno único.
+     * Si el slug ya existe, agrega el menor sufijo numérico libre (-1, -2, ...).
+     * Los slugs ocupados se obtienen con una sola consulta por prefijo en lugar de probar sufijo por sufijo.
+     * @param text El texto base para generar el slug
+     * @param slugPrefixLookup Función que devuelve los slugs existentes iguales al base o que empiezan por "base-"
+     * @return El slug único generado
+     */
+    public static String generateUniqueSlug(String text, SlugPrefixLookup slugPrefixLookup) {
+        if (text == null) {
+            return null;
+        }
+
+        String baseSlug = generateSlug(text);
+        return nextFreeSlug(baseSlug, slugPrefixLookup.findSlugsWithPrefix(baseSlug));
+    }
+
+    /**
+     * Genera un slug único para una entidad que ya tiene slug (por ejemplo, al cambiar su nombre).
+     * Si el slug actual ya corresponde al texto (el base o el base con sufijo numérico) se conserva, así la
+     * entidad no compite con su propio slug ni cambia de URL al guardar el mismo nombre.
      * @param text El texto base para generar el slug
-     * @param slugExistsFunction Función que verifica si un slug ya existe
+     * @param currentSlug Slug actual de la entidad
+     * @param slugPrefixLookup Función que devuelve los slugs existentes iguales al base o que empiezan por "base-"
      * @return El slug único generado
      */
-    public static String generateUniqueSlug(String text, SlugExistsFunction slugExistsFunction) {
+    public static String generateUniqueSlug(String text, String currentSlug, SlugPrefixLookup slugPrefixLookup) {
         if (text == null) {
             return null;
         }
 
         String baseSlug = generateSlug(text);
-        String uniqueSlug = baseSlug;
-        int counter = 1;
+        if (currentSlug != null && (currentSlug.equals(baseSlug)
+                || (currentSlug.startsWith(baseSlug + "-") && parseSuffix(currentSlug, baseSlug.length() + 1) > 0))) {
+            return currentSlug;
+        }
+        return nextFreeSlug(baseSlug, slugPrefixLookup.findSlugsWithPrefix(baseSlug));
+    }
 
-        // Verifica si el slug existe y agrega un sufijo numérico si es necesario
-        while (slugExistsFunction.exists(uniqueSlug)) {
-            uniqueSlug = baseSlug + "-" + counter;
-            counter++;
+    /**
+     * Elige el slug libre a partir de los slugs ya ocupados con el mismo prefijo
+     * @param baseSlug Slug base
+     * @param takenSlugs Slugs existentes; los que no sean el base o el base con sufijo numérico se ignoran
+     * @return El slug base si está libre, o el base con el menor sufijo numérico libre
+     */
+    public static String nextFreeSlug(String baseSlug, Collection<String> takenSlugs) {
+        String prefix = baseSlug + "-";
+        boolean baseTaken = false;
+        BitSet usedSuffixes = new BitSet();
+
+        for (String taken : takenSlugs) {
+            if (taken.equals(baseSlug)) {
+                baseTaken = true;
+            } else if (taken.startsWith(prefix)) {
+                int suffix = parseSuffix(taken, prefix.length());
+                if (suffix > 0) {
+                    usedSuffixes.set(suffix);
+                }
+            }
         }
 
-        return uniqueSlug;
+        if (!baseTaken) {
+            return baseSlug;
+        }
+        return prefix + usedSuffixes.nextClearBit(1);
     }
 
     /**
-     * Interfaz funcional para verificar si un slug existe
+     * Interfaz funcional para obtener los slugs existentes que coinciden con un slug base o empiezan por "base-"
      */
     @FunctionalInterface
-    public interface SlugExistsFunction {
-        boolean exists(String slug);
+    public interface SlugPrefixLookup {
+        Collection<String> findSlugsWithPrefix(String baseSlug);
+    }
+
+    //Camino original: normaliza con Normalizer y limpia con expresiones regulares. Visible en el paquete para compararlo en las pruebas
+    static String generateSlugWithNormalizer(String text){
+        //Normaliza el texto a un estado donde no hay tildes y todos los caracteres están en minúscula
+        String slug = normalize(text);
+
+        //Reemplaza los caracteres no alfanúmericos (incluidos los espacios) por guiones
+        slug = NONLATIN.matcher(slug).replaceAll("-");
+        //Elimina los guiones multiples dejando solo uno
+        slug = MULTIPLE_HYPHENS.matcher(slug).replaceAll("-");
+        //Elimina guiones que esten al principio o al final
+        return EDGE_HYPHENS.matcher(slug).replaceAll("");
+    }
+
+    //La tabla se arma con el camino original, de modo que ambos caminos producen el mismo slug
+    private static char[] buildFoldTable(){
+        char[] table = new char[FOLD_TABLE_SIZE];
+        for (char c = 0; c < FOLD_TABLE_SIZE; c++){
+            String folded = normalize(String.valueOf(c));
+            if (folded.length() != 1){
+                continue;
+            }
+            char f = folded.charAt(0);
+            boolean wordChar = (f >= 'a' && f <= 'z') || (f >= 'A' && f <= 'Z') || (f >= '0' && f <= '9') || f == '_';
+            table[c] = wordChar ? f : '-';
+        }
+        return table;
+    }
+
+    //Devuelve el sufijo numérico o -1 si no es un número válido
+    private static int parseSuffix(String slug, int start){
+        int length = slug.length() - start;
+        if (length == 0 || length > 9 || slug.charAt(start) == '0'){
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < slug.length(); i++){
+            char c = slug.charAt(i);
+            if (c < '0' || c > '9'){
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
     }
 
 }
@@ -0,0 +1,84 @@
+package com.luciano.blogpersonal.common.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ranking en memoria de elementos por cantidad, ordenado de mayor a menor (y por id ante empates).
+ * Cada cambio de cantidad reubica solo ese elemento en O(log n), y obtener los K primeros
+ * recorre únicamente K entradas del skip list. Las lecturas no se bloquean.
+ */
+public class TopKRanking {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong(Entry::count).reversed()
+            .thenComparingLong(Entry::id);
+
+    private final NavigableSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<Long, Long> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Establece la cantidad de un elemento, agregándolo si no existe
+     * @param id ID del elemento
+     * @param count Cantidad actual
+     */
+    public synchronized void put(Long id, long count){
+        Long previous = counts.put(id, count);
+        if (previous != null){
+            if (previous == count){
+                return;
+            }
+            ranking.remove(new Entry(id, previous));
+        }
+        ranking.add(new Entry(id, count));
+    }
+
+    /**
+     * Quita un elemento del ranking
+     * @param id ID del elemento
+     */
+    public synchronized void remove(Long id){
+        Long previous = counts.remove(id);
+        if (previous != null){
+            ranking.remove(new Entry(id, previous));
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido del ranking
+     * @param values ID del elemento -> cantidad
+     */
+    public synchronized void replaceAll(Map<Long, Long> values){
+        counts.keySet().removeIf(id -> !values.containsKey(id));
+        ranking.removeIf(entry -> !values.containsKey(entry.id()));
+        values.forEach(this::put);
+    }
+
+    /**
+     * Obtiene los IDs de los K elementos con mayor cantidad
+     * @param limit Cantidad de elementos (K)
+     * @return IDs ordenados de mayor a menor cantidad
+     */
+    public List<Long> top(int limit){
+        List<Long> ids = new ArrayList<>(Math.max(0, Math.min(limit, counts.size())));
+        for (Entry entry : ranking){
+            if (ids.size() >= limit){
+                break;
+            }
+            ids.add(entry.id());
+        }
+        return ids;
+    }
+
+    public int size(){
+        return counts.size();
+    }
+
+    private record Entry(long id, long count) {
+    }
+}
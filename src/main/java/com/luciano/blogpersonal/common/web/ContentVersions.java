@@ -0,0 +1,153 @@
+package com.luciano.blogpersonal.common.web;
+
+import com.luciano.blogpersonal.comment.event.CommentChangedEvent;
+import com.luciano.blogpersonal.post.event.PostChangedEvent;
+import com.luciano.blogpersonal.post.event.PostsImportedEvent;
+import com.luciano.blogpersonal.post.event.TaxonomyCountsChangedEvent;
+import com.luciano.blogpersonal.post.event.TaxonomyRenamedEvent;
+import com.luciano.blogpersonal.user.event.UserSecurityChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión en memoria del contenido público de posts, tags y categorías.
+ * Cada familia tiene un contador que se incrementa después del commit de cualquier escritura que cambie sus respuestas,
+ * y con él se construyen los validadores HTTP (ETag y Last-Modified) de los listados sin consultar la base de datos.
+ * El detalle de un post usa sus propios validadores; de aquí solo toma la versión de los datos de otras entidades
+ * que se copian en él (POST_REFERENCES).
+ * El prefijo de arranque evita que un validador emitido antes de un reinicio se confunda con uno nuevo.
+ * Los listeners van al final para que los caches en memoria ya estén actualizados cuando cambia la versión.
+ */
+@Component
+public class ContentVersions {
+
+    public enum Resource {
+        POSTS,
+        TAGS,
+        CATEGORIES,
+        //Nombres de tags, categorías y autores copiados en el detalle de los posts
+        POST_REFERENCES
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Resource, Version> versions = new EnumMap<>(Resource.class);
+
+    public ContentVersions(){
+        for (Resource resource : Resource.values()){
+            versions.put(resource, new Version());
+        }
+    }
+
+    /**
+     * Versión actual de una familia de recursos, para usar en claves de cache
+     */
+    public String current(Resource resource){
+        return epoch + "-" + versions.get(resource).counter.get();
+    }
+
+    /**
+     * Momento (ms) del último cambio de una familia de recursos, o del arranque si no hubo cambios
+     */
+    public long lastModified(Resource resource){
+        return versions.get(resource).changedAt;
+    }
+
+    /**
+     * Valida la solicitud condicional contra la versión actual y agrega ETag y Last-Modified a la respuesta.
+     * Debe llamarse antes de armar la respuesta, así una escritura confirmada después nunca queda con un validador viejo
+     * @param request Solicitud actual
+     * @param resource Familia de recursos de la que depende la respuesta
+     * @param weak true si la respuesta incluye datos que cambian sin pasar por una escritura (por ejemplo las vistas)
+     * @return true si el cliente ya tiene la versión actual y se respondió 304
+     */
+    public boolean checkNotModified(WebRequest request, Resource resource, boolean weak){
+        return checkNotModified(request, resource.name().toLowerCase() + "-" + current(resource), lastModified(resource), weak);
+    }
+
+    /**
+     * Valida la solicitud condicional contra los validadores de una entidad concreta y los agrega a la respuesta
+     * @param request Solicitud actual
+     * @param version Versión de la entidad, sin comillas; debe cambiar con cualquier dato de la respuesta
+     * @param lastModified Momento (ms) de la última modificación de la entidad
+     * @param weak true si la respuesta incluye datos que cambian sin pasar por una escritura
+     * @return true si el cliente ya tiene la versión actual y se respondió 304
+     */
+    public boolean checkNotModified(WebRequest request, String version, long lastModified, boolean weak){
+        String tag = "\"" + version + "\"";
+        return request.checkNotModified(weak ? "W/" + tag : tag, lastModified);
+    }
+
+    /**
+     * Marca un cambio en una familia de recursos
+     */
+    public void bump(Resource resource){
+        Version version = versions.get(resource);
+        synchronized (version){
+            //Last-Modified nunca pasa de la hora actual: dos cambios en el mismo segundo se distinguen por el ETag
+            version.changedAt = Math.max(System.currentTimeMillis(), version.changedAt);
+            version.counter.incrementAndGet();
+        }
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event){
+        bump(Resource.POSTS);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostsImported(PostsImportedEvent event){
+        bump(Resource.POSTS);
+    }
+
+    //La cantidad de comentarios forma parte de las respuestas de posts
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommentChanged(CommentChangedEvent event){
+        bump(Resource.POSTS);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaxonomyCountsChanged(TaxonomyCountsChangedEvent event){
+        if (event.getTagIds() == null || !event.getTagIds().isEmpty()){
+            bump(Resource.TAGS);
+        }
+        if (event.getCategoryIds() == null || !event.getCategoryIds().isEmpty()){
+            bump(Resource.CATEGORIES);
+        }
+    }
+
+    //Los nombres de tags y categorías se copian en las respuestas de posts
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaxonomyRenamed(TaxonomyRenamedEvent event){
+        bump(Resource.TAGS);
+        bump(Resource.CATEGORIES);
+        bump(Resource.POSTS);
+        bump(Resource.POST_REFERENCES);
+    }
+
+    //Al eliminar un usuario se eliminan sus posts en cascada
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event){
+        bump(Resource.POSTS);
+        bump(Resource.POST_REFERENCES);
+    }
+
+    private static final class Version {
+        private final AtomicLong counter = new AtomicLong();
+        //El arranque cuenta como el último cambio conocido
+        private volatile long changedAt = System.currentTimeMillis();
+    }
+}
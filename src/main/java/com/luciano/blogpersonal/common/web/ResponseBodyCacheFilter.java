@@ -0,0 +1,186 @@
+package com.luciano.blogpersonal.common.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache de respuestas ya serializadas para las primeras páginas de los listados públicos.
+ * Guarda los bytes del JSON (y su versión comprimida con gzip) por endpoint, parámetros normalizados y versión
+ * del contenido, y en las siguientes solicitudes anónimas los escribe directamente en la respuesta sin pasar por
+ * el controlador ni por Jackson. Las escrituras cambian la versión del contenido, así que las entradas viejas
+ * dejan de usarse sin invalidarlas una por una.
+ */
+public class ResponseBodyCacheFilter extends OncePerRequestFilter {
+
+    //Solo estos parámetros forman parte de la clave; cualquier otro hace que la solicitud no se cachee
+    private static final Set<String> CACHEABLE_PARAMS = Set.of("pageNo", "pageSize", "sortBy", "sortDir", "limit");
+    private static final int MIN_GZIP_SIZE = 1024;
+
+    private final ContentVersions contentVersions;
+    private final int maxPage;
+    private final Cache<String, CachedBody> cache;
+
+    public ResponseBodyCacheFilter(ContentVersions contentVersions, DataSize maxWeight, Duration ttl, int maxPage){
+        this.contentVersions = contentVersions;
+        this.maxPage = maxPage;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((String key, CachedBody body) -> key.length() * 2 + body.size())
+                //Las vistas de los posts cambian sin escrituras; la duración limita cuánto se congelan en la respuesta
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ContentVersions.Resource resource = resourceOf(request.getRequestURI());
+        String key = resource != null ? cacheKey(request, resource) : null;
+        if (key == null){
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        //Mismos validadores que el controlador, así un cliente con la versión actual recibe 304
+        boolean weak = resource == ContentVersions.Resource.POSTS;
+        if (contentVersions.checkNotModified(new ServletWebRequest(request, response), resource, weak)){
+            return;
+        }
+
+        CachedBody cached = cache.getIfPresent(key);
+        if (cached != null){
+            write(request, response, cached);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && isJson(wrapper.getContentType())){
+                cache.put(key, CachedBody.of(wrapper.getContentType(), wrapper.getContentAsByteArray()));
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    //Solo solicitudes GET anónimas a las primeras páginas, con parámetros conocidos
+    private String cacheKey(HttpServletRequest request, ContentVersions.Resource resource){
+        if (!HttpMethod.GET.matches(request.getMethod()) || request.getHeader(HttpHeaders.AUTHORIZATION) != null){
+            return null;
+        }
+
+        Map<String, String> params = new TreeMap<>();
+        for (Map.Entry<String, String[]> param : request.getParameterMap().entrySet()){
+            if (!CACHEABLE_PARAMS.contains(param.getKey()) || param.getValue().length != 1){
+                return null;
+            }
+            params.put(param.getKey(), param.getValue()[0].trim());
+        }
+
+        String pageNo = params.get("pageNo");
+        if (pageNo != null && !pageNo.isEmpty()){
+            try {
+                if (Integer.parseInt(pageNo) >= maxPage){
+                    return null;
+                }
+            } catch (NumberFormatException ex){
+                return null;
+            }
+        }
+
+        StringBuilder key = new StringBuilder(request.getRequestURI())
+                .append('@').append(contentVersions.current(resource));
+        params.forEach((name, value) -> key.append('&').append(name).append('=').append(value));
+        return key.toString();
+    }
+
+    private static ContentVersions.Resource resourceOf(String uri){
+        if (uri.startsWith("/api/posts")){
+            return ContentVersions.Resource.POSTS;
+        }
+        if (uri.startsWith("/api/tags")){
+            return ContentVersions.Resource.TAGS;
+        }
+        if (uri.startsWith("/api/categories")){
+            return ContentVersions.Resource.CATEGORIES;
+        }
+        return null;
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, CachedBody cached) throws IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = cached.gzipped != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? cached.gzipped : cached.body;
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (gzip){
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean isJson(String contentType){
+        if (contentType == null){
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException ex){
+            return false;
+        }
+    }
+
+    private static final class CachedBody {
+        private final String contentType;
+        private final byte[] body;
+        private final byte[] gzipped;
+
+        private CachedBody(String contentType, byte[] body, byte[] gzipped){
+            this.contentType = contentType;
+            this.body = body;
+            this.gzipped = gzipped;
+        }
+
+        //Las respuestas pequeñas no se comprimen: el ahorro no compensa el costo para el cliente
+        private static CachedBody of(String contentType, byte[] body) throws IOException {
+            byte[] gzipped = null;
+            if (body.length >= MIN_GZIP_SIZE){
+                ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)){
+                    gzip.write(body);
+                }
+                gzipped = out.toByteArray();
+            }
+            return new CachedBody(contentType, body, gzipped);
+        }
+
+        private int size(){
+            return body.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+}
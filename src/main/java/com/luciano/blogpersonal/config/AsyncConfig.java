@@ -0,0 +1,14 @@
+package com.luciano.blogpersonal.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Configuración de tareas asíncronas
+ * Habilita los métodos anotados con @Async, que se ejecutan en el executor de la aplicación
+ * (hilos virtuales cuando spring.threads.virtual.enabled=true)
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
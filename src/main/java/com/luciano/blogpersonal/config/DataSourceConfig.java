@@ -0,0 +1,50 @@
+package com.luciano.blogpersonal.config;
+
+import com.luciano.blogpersonal.common.db.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuración del acceso a la base de datos
+ * Con hilos virtuales limita las consultas simultáneas al tamaño del pool de HikariCP,
+ * para que un pico de solicitudes espere en un semáforo en lugar de saturar el pool
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConfig.class);
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Envuelve el DataSource de HikariCP con el limitador de concurrencia
+     * Un límite o tiempo de espera en 0 toma el tamaño máximo y el connectionTimeout del pool
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.db-limiter.enabled", havingValue = "true")
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(@Value("${app.db-limiter.max-concurrent:0}") int maxConcurrent,
+                                                                               @Value("${app.db-limiter.acquire-timeout:0}") Duration acquireTimeout){
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName){
+                if (!(bean instanceof HikariDataSource hikari)){
+                    return bean;
+                }
+
+                //Si el pool no tiene tamaño configurado, HikariCP usa 10 al iniciarse
+                int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                int limit = maxConcurrent > 0 ? maxConcurrent : poolSize;
+                Duration timeout = !acquireTimeout.isZero() ? acquireTimeout : Duration.ofMillis(hikari.getConnectionTimeout());
+                log.info("Limitador de conexiones activo: {} consultas simultáneas, espera máxima de {} ms", limit, timeout.toMillis());
+                return new ConcurrencyLimitingDataSource(hikari, limit, timeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.luciano.blogpersonal.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuración de tareas programadas
+ * Habilita los métodos anotados con @Scheduled (por ejemplo el volcado del contador de vistas)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
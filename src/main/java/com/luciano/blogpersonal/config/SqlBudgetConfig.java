@@ -0,0 +1,48 @@
+package com.luciano.blogpersonal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luciano.blogpersonal.common.sql.SqlBudgetFilter;
+import com.luciano.blogpersonal.common.sql.SqlStatementInspector;
+import com.luciano.blogpersonal.common.sql.SqlTimingSessionListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Conteo de consultas SQL por solicitud
+ * Registra en Hibernate el inspector de sentencias y el listener que mide el tiempo JDBC, y el filtro que
+ * compara cada solicitud con su presupuesto de consultas
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCountingCustomizer(){
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        };
+    }
+
+    /**
+     * Se ejecuta antes de Spring Security, así también cuenta las consultas de la autenticación JWT
+     */
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(@Value("${app.sql-budget.default:0}") int defaultBudget,
+                                                                   @Value("${app.sql-budget.endpoints:}") String endpointBudgets,
+                                                                   @Value("${app.sql-budget.repeat-threshold:3}") int repeatThreshold,
+                                                                   @Value("${app.sql-budget.fail-on-violation:false}") boolean failOnViolation,
+                                                                   ObjectMapper objectMapper){
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlBudgetFilter(defaultBudget, endpointBudgets, repeatThreshold, failOnViolation, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
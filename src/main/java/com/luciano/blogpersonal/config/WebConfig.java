@@ -1,10 +1,19 @@
 package com.luciano.blogpersonal.config;
 
+import com.luciano.blogpersonal.common.web.ContentVersions;
+import com.luciano.blogpersonal.common.web.ResponseBodyCacheFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 /**
  * Configuración web para el proyecto
  * Maneja CORS, recursos estáticos y otras configuraciones web
@@ -50,6 +59,29 @@ public class WebConfig implements WebMvcConfigurer {
                 .setCachePeriod(3600);
     }
 
-
-
+    /**
+     * Cache de respuestas serializadas para los listados públicos más consultados
+     * Se ejecuta después de Spring Security, así las respuestas cacheadas ya llevan los headers de CORS
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseBodyCacheFilter> responseBodyCacheFilter(ContentVersions contentVersions,
+                                                                                   @Value("${app.response-cache.enabled:true}") boolean enabled,
+                                                                                   @Value("${app.response-cache.max-weight:16MB}") DataSize maxWeight,
+                                                                                   @Value("${app.response-cache.ttl:10s}") Duration ttl,
+                                                                                   @Value("${app.response-cache.max-page:2}") int maxPage){
+        FilterRegistrationBean<ResponseBodyCacheFilter> registration =
+                new FilterRegistrationBean<>(new ResponseBodyCacheFilter(contentVersions, maxWeight, ttl, maxPage));
+        registration.addUrlPatterns(
+                "/api/posts",
+                "/api/tags",
+                "/api/tags/all",
+                "/api/tags/popular",
+                "/api/categories",
+                "/api/categories/all",
+                "/api/categories/popular"
+        );
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
 }
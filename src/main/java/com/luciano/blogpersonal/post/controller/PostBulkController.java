@@ -0,0 +1,82 @@
+package com.luciano.blogpersonal.post.controller;
+
+import com.luciano.blogpersonal.common.exception.BlogApiException;
+import com.luciano.blogpersonal.post.dto.PostImportResult;
+import com.luciano.blogpersonal.post.service.PostBulkService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Controlador REST para la importación y exportación masiva de posts
+ * Ambos endpoints trabajan con NDJSON (un post por línea) y leen o escriben el contenido a medida que avanza
+ */
+
+@RestController
+@RequestMapping("/api/posts/bulk")
+
+public class PostBulkController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final PostBulkService postBulkService;
+
+    @Autowired
+    public PostBulkController(PostBulkService postBulkService){
+        this.postBulkService = postBulkService;
+    }
+
+    /**
+     * Importa posts desde un cuerpo NDJSON, opcionalmente comprimido con gzip (Content-Encoding: gzip)
+     * POST /api/posts/bulk/import
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PostImportResult> importPosts(HttpServletRequest request){
+        //El cuerpo se lee directamente del request para no cargar el archivo completo en memoria
+        try (InputStream body = "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))
+                ? new GZIPInputStream(request.getInputStream())
+                : request.getInputStream()){
+            PostImportResult result = postBulkService.importPosts(body);
+            return ResponseEntity.ok(result);
+        } catch (IOException ex){
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, "No se pudo leer el contenido a importar: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Exporta todos los posts como NDJSON, opcionalmente comprimido con gzip
+     * GET /api/posts/bulk/export
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPosts(@RequestParam(value = "gzip", defaultValue = "false", required = false) boolean gzip){
+        StreamingResponseBody body = outputStream -> {
+            if (gzip){
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream);
+                postBulkService.exportPosts(gzipStream);
+                gzipStream.finish();
+            } else {
+                postBulkService.exportPosts(outputStream);
+            }
+        };
+
+        String fileName = gzip ? "posts.ndjson.gz" : "posts.ndjson";
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.APPLICATION_OCTET_STREAM : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -1,8 +1,11 @@
 package com.luciano.blogpersonal.post.controller;
 
 import com.luciano.blogpersonal.common.dto.ApiResponse;
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
+import com.luciano.blogpersonal.common.exception.ResourceNotFoundException;
 import com.luciano.blogpersonal.common.utils.AppConstants;
+import com.luciano.blogpersonal.common.web.ContentVersions;
 import com.luciano.blogpersonal.post.dto.PostCreateRequest;
 import com.luciano.blogpersonal.post.dto.PostResponse;
 import com.luciano.blogpersonal.post.dto.PostSummaryResponse;
@@ -10,10 +13,21 @@ import com.luciano.blogpersonal.post.dto.PostUpdateRequest;
 import com.luciano.blogpersonal.post.service.PostService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * Controlador REST para manejo de posts
@@ -25,11 +39,13 @@ import org.springframework.web.bind.annotation.*;
 
 public class PostController {
     private final PostService postService;
+    private final ContentVersions contentVersions;
 
 
     @Autowired
-    public PostController (PostService postService){
+    public PostController (PostService postService, ContentVersions contentVersions){
         this.postService = postService;
+        this.contentVersions = contentVersions;
     }
 
     /**
@@ -40,13 +56,35 @@ public class PostController {
     public ResponseEntity<PaginatedResponse<PostSummaryResponse>> getPostsPublished(@RequestParam(value = "pageNo", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER, required = false) int pageNo,
                                                                                     @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
                                                                                     @RequestParam(value = "sortBy", defaultValue = AppConstants.DEFAULT_SORT_BY, required = false) String sortBy,
-                                                                                    @RequestParam(value = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir) {
+                                                                                    @RequestParam(value = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir,
+                                                                                    WebRequest webRequest) {
+        //Los listados dependen de la versión de posts; las vistas cambian sin escritura, por eso el ETag es débil
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.POSTS, true)){
+            return null;
+        }
         PaginatedResponse<PostSummaryResponse> posts= postService.getAllPublishedPost(pageNo,pageSize, sortBy, sortDir);
-        return ResponseEntity.ok(posts);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
 
 
     }
 
+    /**
+     * Obtiene los posts publicados con paginación por cursor ("público")
+     * Pensado para scroll infinito: el costo no depende de la profundidad de la página
+     * GET /api/posts/cursor
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPaginatedResponse<PostSummaryResponse>> getPostsPublishedByCursor(@RequestParam(value = "after", required = false) String after,
+                                                                                                  @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
+                                                                                                  @RequestParam(value = "includeTotal", defaultValue = AppConstants.DEFAULT_INCLUDE_TOTAL, required = false) boolean includeTotal,
+                                                                                                  WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.POSTS, true)){
+            return null;
+        }
+        CursorPaginatedResponse<PostSummaryResponse> posts = postService.getPublishedPostsByCursor(after, pageSize, includeTotal);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
+    }
+
     /**
      * Obtiene todos los posts (incluye borradores - solo para admin)
      * GET /api/posts/all
@@ -67,10 +105,15 @@ public class PostController {
      * GET /api/posts/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponse> getPostById (@PathVariable Long id){
+    public ResponseEntity<PostResponse> getPostById (@PathVariable Long id, WebRequest webRequest){
+        //El detalle sale del cache y sus validadores se calculan de él: un ID inexistente responde 404 y no suma vistas.
+        // Si el cliente ya tiene la versión actual se responde 304, pero la visita se cuenta igual
         PostResponse response = postService.getPostById(id);
         postService.incrementViewCount(id);
-        return ResponseEntity.ok(response);
+        if (checkNotModified(webRequest, response)){
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     /**
@@ -78,10 +121,36 @@ public class PostController {
      * GET /api/posts/slug/{slug}
      */
     @GetMapping("/slug/{slug}")
-    public ResponseEntity<PostResponse> getPostBySlug(@PathVariable String slug){
+    public ResponseEntity<PostResponse> getPostBySlug(@PathVariable String slug, WebRequest webRequest){
+        //Si el cliente ya tiene la versión actual se responde 304, pero la visita se cuenta igual
         PostResponse post = postService.getPostBySlug(slug);
         postService.incrementViewCount(post.getId());
-        return ResponseEntity.ok(post);
+        if (checkNotModified(webRequest, post)){
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(post);
+    }
+
+    /**
+     * Obtiene el contenido HTML de un post publicado, escrito por bloques sin cargarlo completo en memoria
+     * GET /api/posts/{id}/content
+     */
+    @GetMapping("/{id}/content")
+    public ResponseEntity<StreamingResponseBody> getPostContent(@PathVariable Long id){
+        //Se verifica antes de empezar a escribir, así un post inexistente responde 404 como el resto de la API
+        if (!postService.existsPublishedById(id)){
+            throw new ResourceNotFoundException("Post", "Id", id);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            postService.writePublishedContent(id, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noCache())
+                .body(body);
     }
 
     /**
@@ -132,9 +201,13 @@ public class PostController {
                                                                                   @RequestParam(value = "pageNo", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER, required = false) int pageNo,
                                                                                   @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
                                                                                   @RequestParam(value = "sortBy", defaultValue = AppConstants.DEFAULT_SORT_BY, required = false) String sortBy,
-                                                                                  @RequestParam(value = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir){
+                                                                                  @RequestParam(value = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir,
+                                                                                  WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.POSTS, true)){
+            return null;
+        }
         PaginatedResponse<PostSummaryResponse> posts = postService.getPostByUserId(id,pageNo,pageSize,sortBy,sortDir);
-        return ResponseEntity.ok(posts);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
     }
 
     /**
@@ -156,9 +229,13 @@ public class PostController {
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<PaginatedResponse<PostSummaryResponse>> getPostsByCategory (@PathVariable Long categoryId,
                                                                   @RequestParam(value = "pageNo", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER, required = false) int pageNo,
-                                                                  @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize){
+                                                                  @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
+                                                                  WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.POSTS, true)){
+            return null;
+        }
         PaginatedResponse<PostSummaryResponse>posts = postService.getPostsByCategory(categoryId, pageNo, pageSize);
-        return ResponseEntity.ok(posts);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
     }
 
     /**
@@ -168,9 +245,24 @@ public class PostController {
     @GetMapping("/tag/{tagId}")
     public ResponseEntity<PaginatedResponse<PostSummaryResponse>> getPostsByTag (@PathVariable Long tagId,
                                                                                  @RequestParam(value = "pageNo", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER, required = false) int pageNo,
-                                                                                 @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize){
+                                                                                 @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
+                                                                                 WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.POSTS, true)){
+            return null;
+        }
         PaginatedResponse<PostSummaryResponse>posts = postService.getPostsByTag(tagId, pageNo, pageSize);
-        return ResponseEntity.ok(posts);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
+    }
+
+    //Validadores propios de cada post: su fecha de actualización, sus contadores de comentarios y la versión de los nombres
+    // de tags, categorías y autores copiados en él. Escribir otro post no invalida este detalle. Las vistas cambian sin
+    // escritura, por eso el ETag es débil; Last-Modified es la actualización del post y los demás cambios los distingue el ETag
+    private boolean checkNotModified(WebRequest webRequest, PostResponse post){
+        LocalDateTime updatedAt = post.getUpdatedAt() != null ? post.getUpdatedAt() : post.getCreatedAt();
+        long lastModified = updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        String version = "post-" + post.getId() + "-" + lastModified + "-" + post.getCommentCount() + "-" + post.getApprovedCommentCount()
+                + "-" + contentVersions.current(ContentVersions.Resource.POST_REFERENCES);
+        return contentVersions.checkNotModified(webRequest, version, lastModified, true);
     }
 
     /**
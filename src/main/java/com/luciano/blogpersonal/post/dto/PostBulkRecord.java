@@ -0,0 +1,40 @@
+package com.luciano.blogpersonal.post.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Línea del formato NDJSON de importación y exportación masiva de posts.
+ * Al importar el id se ignora, el slug se genera desde el título si no viene (y si ya está ocupado se le agrega
+ * el menor sufijo numérico libre) y, si no se indica autor, el post queda a nombre del usuario que importa.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostBulkRecord {
+    private Long id;
+    private String title;
+    private String slug;
+    private String excerpt;
+    private String content;
+    private String featuredImage;
+    private boolean published;
+    private LocalDateTime publishedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private int viewCount;
+    private String authorUsername;
+
+    @Builder.Default
+    private Set<Long> categoryIds = new HashSet<>();
+
+    @Builder.Default
+    private Set<Long> tagIds = new HashSet<>();
+}
@@ -0,0 +1,26 @@
+package com.luciano.blogpersonal.post.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de posts
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostImportResult {
+    private long received;
+    private long imported;
+    private long failed;
+
+    //Detalle de las primeras líneas rechazadas, con su número de línea
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
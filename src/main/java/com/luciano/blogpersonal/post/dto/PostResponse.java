@@ -10,7 +10,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PostResponse {
@@ -38,6 +38,7 @@ public class PostResponse {
     private Set<TagInfo> tags = new HashSet<>();
 
     private int commentCount;
+    private int approvedCommentCount;
 
     // Clases internas para información básica
     @Data
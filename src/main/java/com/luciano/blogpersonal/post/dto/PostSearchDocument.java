@@ -0,0 +1,14 @@
+package com.luciano.blogpersonal.post.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con los campos de un post que se indexan para la búsqueda
+ */
+public interface PostSearchDocument {
+    Long getId();
+    String getTitle();
+    String getExcerpt();
+    String getContent();
+    LocalDateTime getUpdatedAt();
+}
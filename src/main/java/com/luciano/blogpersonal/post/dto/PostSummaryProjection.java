@@ -0,0 +1,22 @@
+package com.luciano.blogpersonal.post.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con las columnas que necesita el resumen de un post en los listados.
+ * No incluye el contenido (LONGTEXT), que los resúmenes nunca muestran
+ */
+public interface PostSummaryProjection {
+    Long getId();
+    String getTitle();
+    String getSlug();
+    String getExcerpt();
+    String getFeaturedImage();
+    LocalDateTime getPublishedAt();
+    LocalDateTime getCreatedAt();
+    int getViewCount();
+    int getCommentCount();
+    int getApprovedCommentCount();
+    Long getAuthorId();
+    String getAuthorName();
+}
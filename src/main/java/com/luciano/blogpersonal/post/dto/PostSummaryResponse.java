@@ -35,6 +35,7 @@ public class PostSummaryResponse {
     private Set<TagInfo> tags = new HashSet<>();
 
     private int commentCount;
+    private int approvedCommentCount;
 
     // Clases internas para información básica
     @Data
@@ -0,0 +1,22 @@
+package com.luciano.blogpersonal.post.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado cuando se crea, actualiza o elimina un post.
+ * Los listeners que dependen de la base de datos lo procesan después del commit de la transacción.
+ */
+@Getter
+@AllArgsConstructor
+public class PostChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long postId;
+    private final Type type;
+}
@@ -0,0 +1,16 @@
+package com.luciano.blogpersonal.post.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Evento publicado después de volcar las vistas acumuladas en memoria a la base de datos,
+ * con las vistas volcadas de cada post
+ */
+@Getter
+@AllArgsConstructor
+public class PostViewsFlushedEvent {
+    private final Map<Long, Long> viewsByPostId;
+}
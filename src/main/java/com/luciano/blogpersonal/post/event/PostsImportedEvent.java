@@ -0,0 +1,16 @@
+package com.luciano.blogpersonal.post.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Evento publicado al importar un bloque de posts, en lugar de un PostChangedEvent por post.
+ * Los listeners lo procesan después del commit con una sola consulta para todo el bloque.
+ */
+@Getter
+@AllArgsConstructor
+public class PostsImportedEvent {
+    private final Set<Long> postIds;
+}
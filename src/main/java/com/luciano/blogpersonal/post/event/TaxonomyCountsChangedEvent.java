@@ -0,0 +1,25 @@
+package com.luciano.blogpersonal.post.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Evento publicado cuando cambian los contadores de posts de tags o categorías,
+ * o cuando se crean o eliminan tags y categorías.
+ * Un conjunto null indica que pueden haber cambiado todos los elementos de ese tipo.
+ */
+@Getter
+@AllArgsConstructor
+public class TaxonomyCountsChangedEvent {
+    private final Set<Long> tagIds;
+    private final Set<Long> categoryIds;
+
+    /**
+     * Evento para cambios que afectan a todos los tags y categorías (conciliación, eliminación masiva)
+     */
+    public static TaxonomyCountsChangedEvent all(){
+        return new TaxonomyCountsChangedEvent(null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.luciano.blogpersonal.post.event;
+
+/**
+ * Evento publicado cuando se modifica el nombre o slug de un tag o una categoría,
+ * datos que se copian en las respuestas de los posts.
+ */
+public class TaxonomyRenamedEvent {
+}
@@ -0,0 +1,191 @@
+package com.luciano.blogpersonal.post.mapper;
+
+import com.luciano.blogpersonal.category.model.Category;
+import com.luciano.blogpersonal.category.repository.CategoryRepository;
+import com.luciano.blogpersonal.common.exception.BlogApiException;
+import com.luciano.blogpersonal.common.exception.ResourceNotFoundException;
+import com.luciano.blogpersonal.common.sql.SqlRequestStats;
+import com.luciano.blogpersonal.post.dto.PostResponse;
+import com.luciano.blogpersonal.post.model.Post;
+import com.luciano.blogpersonal.post.repository.PostRepository;
+import com.luciano.blogpersonal.tag.model.Tag;
+import com.luciano.blogpersonal.tag.repository.TagRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Construye el PostResponse del detalle de un post.
+ * Post (con su contenido y su cantidad de comentarios), categorías y tags son consultas independientes; en modo
+ * paralelo se lanzan a la vez en un pool acotado, cada una en su propia transacción de solo lectura y con un tiempo
+ * máximo, de modo que el detalle tarda lo que la consulta más lenta y no la suma de las tres.
+ */
+@Component
+public class PostDetailAssembler {
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final PostRepository postRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final PostMapper postMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean parallel;
+    private final Duration partTimeout;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public PostDetailAssembler(PostRepository postRepository, CategoryRepository categoryRepository, TagRepository tagRepository,
+                               PostMapper postMapper, PlatformTransactionManager transactionManager,
+                               @Value("${app.post-assembly.parallel:true}") boolean parallel,
+                               @Value("${app.post-assembly.threads:8}") int threads,
+                               @Value("${app.post-assembly.part-timeout:2s}") Duration partTimeout){
+        this.postRepository = postRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.postMapper = postMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        //El tiempo de la transacción se expresa en segundos; se redondea hacia arriba
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, (partTimeout.toMillis() + 999) / 1000));
+        this.parallel = parallel;
+        this.partTimeout = partTimeout;
+
+        //Con la cola llena la parte se ejecuta en el hilo de la solicitud: degrada a secuencial en vez de fallar
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "post-assembly-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Arma el detalle de un post a partir de su ID; las tres consultas se lanzan a la vez
+     * @param postId ID del post
+     * @return Detalle del post con autor, categorías, tags y cantidad de comentarios
+     */
+    public PostResponse assembleById(Long postId){
+        if (!parallel){
+            Post post = readOnlyTransaction.execute(status -> withContent(postRepository.findWithAuthorById(postId)));
+            if (post == null){
+                throw new ResourceNotFoundException("Post", "Id", postId);
+            }
+            return assemble(post);
+        }
+
+        CompletableFuture<Post> post = submit(() -> withContent(postRepository.findWithAuthorById(postId)));
+        CompletableFuture<Set<Category>> categories = submit(() -> categoryRepository.findCategoriesByPostId(postId));
+        CompletableFuture<Set<Tag>> tags = submit(() -> tagRepository.findTagsByPostId(postId));
+
+        Post found = join(post);
+        if (found == null){
+            //Las demás consultas ya no sirven
+            categories.cancel(true);
+            tags.cancel(true);
+            throw new ResourceNotFoundException("Post", "Id", postId);
+        }
+        return merge(found, join(categories), join(tags));
+    }
+
+    /**
+     * Arma el detalle de un post a partir de su slug; categorías y tags se consultan a la vez una vez encontrado el post
+     * @param slug Slug del post
+     * @return Detalle del post con autor, categorías, tags y cantidad de comentarios
+     */
+    public PostResponse assembleBySlug(String slug){
+        Post post = readOnlyTransaction.execute(status -> withContent(postRepository.findWithAuthorBySlug(slug)));
+        if (post == null){
+            throw new ResourceNotFoundException("Post", "Slug", slug);
+        }
+        return assemble(post);
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        executor.shutdownNow();
+    }
+
+    private PostResponse assemble(Post post){
+        Long postId = post.getId();
+        if (!parallel){
+            return merge(post, categoryRepository.findCategoriesByPostId(postId), tagRepository.findTagsByPostId(postId));
+        }
+
+        CompletableFuture<Set<Category>> categories = submit(() -> categoryRepository.findCategoriesByPostId(postId));
+        CompletableFuture<Set<Tag>> tags = submit(() -> tagRepository.findTagsByPostId(postId));
+        return merge(post, join(categories), join(tags));
+    }
+
+    //El contenido se carga de forma diferida; el detalle lo incluye, así que se inicializa dentro de la transacción
+    private static Post withContent(Optional<Post> post){
+        post.ifPresent(Post::getContent);
+        return post.orElse(null);
+    }
+
+    private PostResponse merge(Post post, Set<Category> categories, Set<Tag> tags){
+        PostResponse response = postMapper.toResponse(post);
+
+        response.setCategories(categories.stream()
+                .map(category -> PostResponse.CategoryInfo.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .slug(category.getSlug())
+                        .build())
+                .collect(Collectors.toSet()));
+
+        response.setTags(tags.stream()
+                .map(tag -> PostResponse.TagInfo.builder()
+                        .id(tag.getId())
+                        .name(tag.getName())
+                        .slug(tag.getSlug())
+                        .build())
+                .collect(Collectors.toSet()));
+
+        return response;
+    }
+
+    //Cada parte corre en su propia transacción de solo lectura y con su propio tiempo máximo.
+    // Sus consultas se suman a las de la solicitud que pidió el detalle
+    private <T> CompletableFuture<T> submit(Supplier<T> query){
+        SqlRequestStats stats = SqlRequestStats.current();
+        return CompletableFuture.supplyAsync(() -> SqlRequestStats.runWith(stats, () -> readOnlyTransaction.execute(status -> query.get())), executor)
+                .orTimeout(partTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static <T> T join(CompletableFuture<T> future){
+        try {
+            return future.join();
+        } catch (CompletionException ex){
+            Throwable cause = ex.getCause();
+            if (cause instanceof TimeoutException){
+                throw new BlogApiException(HttpStatus.SERVICE_UNAVAILABLE, "El detalle del post tardó demasiado en cargarse");
+            }
+            if (cause instanceof RuntimeException runtimeException){
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+}
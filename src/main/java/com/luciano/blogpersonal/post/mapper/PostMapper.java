@@ -2,11 +2,11 @@ package com.luciano.blogpersonal.post.mapper;
 
 import com.luciano.blogpersonal.post.dto.PostCreateRequest;
 import com.luciano.blogpersonal.post.dto.PostResponse;
+import com.luciano.blogpersonal.post.dto.PostSummaryProjection;
 import com.luciano.blogpersonal.post.dto.PostSummaryResponse;
 import com.luciano.blogpersonal.post.dto.PostUpdateRequest;
 import com.luciano.blogpersonal.post.model.Post;
 import com.luciano.blogpersonal.user.model.User;
-import com.luciano.blogpersonal.common.utils.SlugUtils;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -14,10 +14,10 @@ import java.time.LocalDateTime;
 @Component
 public class PostMapper {
 
-    public Post toEntity(PostCreateRequest request, User author) {
+    public Post toEntity(PostCreateRequest request, User author, String slug) {
         Post post = new Post();
         post.setTitle(request.getTitle());
-        post.setSlug(SlugUtils.generateSlug(request.getTitle()));
+        post.setSlug(slug);
         post.setExcerpt(request.getExcerpt());
         post.setContent(request.getContent());
         post.setFeaturedImage(request.getFeaturedImage());
@@ -32,10 +32,10 @@ public class PostMapper {
         return post;
     }
 
-    public Post updateEntity(Post post, PostUpdateRequest request) {
+    public Post updateEntity(Post post, PostUpdateRequest request, String slug) {
         if (request.getTitle() != null) {
             post.setTitle(request.getTitle());
-            post.setSlug(SlugUtils.generateSlug(request.getTitle()));
+            post.setSlug(slug);
         }
         if (request.getExcerpt() != null) {
             post.setExcerpt(request.getExcerpt());
@@ -56,6 +56,7 @@ public class PostMapper {
         return post;
     }
 
+    //La cantidad de comentarios se lee del contador del post, sin inicializar la colección de comentarios
     public PostResponse toResponse(Post post) {
         PostResponse response = PostResponse.builder()
                 .id(post.getId())
@@ -69,7 +70,8 @@ public class PostMapper {
                 .updatedAt(post.getUpdatedAt())
                 .published(post.isPublished())
                 .viewCount(post.getViewCount())
-                .commentCount(post.getComments() != null ? post.getComments().size() : 0)
+                .commentCount(post.getCommentCount())
+                .approvedCommentCount(post.getApprovedCommentCount())
                 .build();
         
         // Información del autor
@@ -81,8 +83,9 @@ public class PostMapper {
         return response;
     }
 
-    public PostSummaryResponse toSummaryResponse(Post post) {
-        PostSummaryResponse response = PostSummaryResponse.builder()
+    //Los resúmenes se arman desde la proyección del listado, que ya trae el autor y no incluye el contenido
+    public PostSummaryResponse toSummaryResponse(PostSummaryProjection post) {
+        return PostSummaryResponse.builder()
                 .id(post.getId())
                 .title(post.getTitle())
                 .slug(post.getSlug())
@@ -91,15 +94,10 @@ public class PostMapper {
                 .publishedAt(post.getPublishedAt())
                 .createdAt(post.getCreatedAt())
                 .viewCount(post.getViewCount())
-                .commentCount(post.getComments() != null ? post.getComments().size() : 0)
+                .commentCount(post.getCommentCount())
+                .approvedCommentCount(post.getApprovedCommentCount())
+                .authorId(post.getAuthorId())
+                .authorName(post.getAuthorName())
                 .build();
-        
-        // Información del autor
-        if (post.getAuthor() != null) {
-            response.setAuthorId(post.getAuthor().getId());
-            response.setAuthorName(post.getAuthor().getUsername());
-        }
-        
-        return response;
     }
 }
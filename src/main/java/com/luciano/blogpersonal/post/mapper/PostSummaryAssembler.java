@@ -0,0 +1,80 @@
+package com.luciano.blogpersonal.post.mapper;
+
+import com.luciano.blogpersonal.category.dto.PostCategoryProjection;
+import com.luciano.blogpersonal.category.repository.CategoryRepository;
+import com.luciano.blogpersonal.post.dto.PostSummaryProjection;
+import com.luciano.blogpersonal.post.dto.PostSummaryResponse;
+import com.luciano.blogpersonal.tag.dto.PostTagProjection;
+import com.luciano.blogpersonal.tag.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Construye los PostSummaryResponse de una página completa de posts.
+ * Carga categorías y tags de todos los posts con una consulta por tipo
+ * (el autor y los contadores ya vienen en la proyección del listado) y arma las respuestas en memoria.
+ */
+@Component
+public class PostSummaryAssembler {
+
+    private final PostMapper postMapper;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+
+    @Autowired
+    public PostSummaryAssembler(PostMapper postMapper, CategoryRepository categoryRepository, TagRepository tagRepository){
+        this.postMapper = postMapper;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+    }
+
+    public List<PostSummaryResponse> toSummaryResponses(List<PostSummaryProjection> posts){
+        if (posts == null || posts.isEmpty()){
+            return new ArrayList<>();
+        }
+
+        List<Long> postIds = posts.stream()
+                .map(PostSummaryProjection::getId)
+                .collect(Collectors.toList());
+
+        //Una consulta por tipo de dato para toda la página
+        Map<Long, Set<PostSummaryResponse.CategoryInfo>> categoriesByPost = new HashMap<>();
+        for (PostCategoryProjection category : categoryRepository.findCategoriesByPostIds(postIds)){
+            categoriesByPost.computeIfAbsent(category.getPostId(), id -> new HashSet<>())
+                    .add(PostSummaryResponse.CategoryInfo.builder()
+                            .id(category.getId())
+                            .name(category.getName())
+                            .slug(category.getSlug())
+                            .build());
+        }
+
+        Map<Long, Set<PostSummaryResponse.TagInfo>> tagsByPost = new HashMap<>();
+        for (PostTagProjection tag : tagRepository.findTagsByPostIds(postIds)){
+            tagsByPost.computeIfAbsent(tag.getPostId(), id -> new HashSet<>())
+                    .add(PostSummaryResponse.TagInfo.builder()
+                            .id(tag.getId())
+                            .name(tag.getName())
+                            .slug(tag.getSlug())
+                            .build());
+        }
+
+        //Armado de las respuestas respetando el orden de la página
+        List<PostSummaryResponse> content = new ArrayList<>(posts.size());
+        for (PostSummaryProjection post : posts){
+            PostSummaryResponse response = postMapper.toSummaryResponse(post);
+            response.setCategories(categoriesByPost.getOrDefault(post.getId(), new HashSet<>()));
+            response.setTags(tagsByPost.getOrDefault(post.getId(), new HashSet<>()));
+            content.add(response);
+        }
+
+        return content;
+    }
+}
@@ -8,7 +8,9 @@ import com.luciano.blogpersonal.user.model.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -19,7 +21,10 @@ import java.util.Set;
 @AllArgsConstructor
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        //Índice para la paginación por cursor de los posts publicados
+        @Index(name = "idx_posts_published_created_at", columnList = "published, created_at, id")
+})
 
 public class Post {
 
@@ -36,8 +41,13 @@ public class Post {
     @Column(nullable = false, length = 200)
     private String excerpt;
 
+    //Se carga solo cuando se accede (requiere el bytecode enhancement de Hibernate configurado en el pom).
+    // Cargar un post para verificar permisos o actualizar otros campos no trae el cuerpo completo
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Column(nullable = false, columnDefinition = "LONGTEXT")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String content;
 
     private String featuredImage;
@@ -53,9 +63,19 @@ public class Post {
 
     private boolean published = false;
 
-    @Column(name = "view_count")
+    //Solo lo modifica el volcado en lote de PostViewCounter: si se actualizara con la entidad, guardar un post
+    // sobrescribiría las vistas volcadas mientras su transacción estaba abierta
+    @Column(name = "view_count", nullable = false, updatable = false)
     private int viewCount = 0;
 
+    //Cantidad de comentarios (total y aprobados). Solo se modifican con las consultas de incremento y conciliación
+    // del repositorio, así los listados no cargan la colección de comentarios
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private int commentCount = 0;
+
+    @Column(name = "approved_comment_count", nullable = false, updatable = false)
+    private int approvedCommentCount = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
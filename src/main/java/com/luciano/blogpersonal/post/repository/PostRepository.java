@@ -1,35 +1,133 @@
 package com.luciano.blogpersonal.post.repository;
 
+import com.luciano.blogpersonal.post.dto.PostSearchDocument;
+import com.luciano.blogpersonal.post.dto.PostSummaryProjection;
 import com.luciano.blogpersonal.post.model.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+
+    //Selección común de los resúmenes de posts: columnas del listado y autor, sin el contenido
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.title AS title, p.slug AS slug, p.excerpt AS excerpt, " +
+            "p.featuredImage AS featuredImage, p.publishedAt AS publishedAt, p.createdAt AS createdAt, " +
+            "p.viewCount AS viewCount, p.commentCount AS commentCount, p.approvedCommentCount AS approvedCommentCount, " +
+            "a.id AS authorId, a.username AS authorName " +
+            "FROM Post p JOIN p.author a ";
+
     Optional<Post> findBySlug(String slug);
-    Page<Post> findByAuthorId(Long authorId, Pageable pageable);
-    Page<Post> findByPublishedTrue(Pageable pageable);
 
-    @Query("SELECT p FROM Post p WHERE " +
+    // Detalle del post con su autor en una sola consulta
+    @EntityGraph(attributePaths = "author")
+    Optional<Post> findWithAuthorById(Long id);
+
+    @EntityGraph(attributePaths = "author")
+    Optional<Post> findWithAuthorBySlug(String slug);
+
+    //Slugs ocupados por el slug base y sus variantes con sufijo, para elegir el siguiente libre con una sola consulta
+    @Query("SELECT p.slug FROM Post p WHERE p.slug = :slug OR p.slug LIKE CONCAT(:slug, '-%')")
+    List<String> findSlugsWithPrefix(@Param("slug") String slug);
+
+    // Los listados seleccionan solo las columnas del resumen (sin el contenido) y el autor en la misma consulta
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostSummaryProjection> findAllSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE a.id = :authorId",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.author.id = :authorId")
+    Page<PostSummaryProjection> findSummariesByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.published = true",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.published = true")
+    Page<PostSummaryProjection> findPublishedSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE " +
+            "p.published = true AND " +
+            "(lower(p.title) LIKE lower(concat('%', :keyword, '%')) OR " +
+            "lower(cast(p.content as string)) LIKE lower(concat('%', :keyword, '%')))",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE " +
             "p.published = true AND " +
             "(lower(p.title) LIKE lower(concat('%', :keyword, '%')) OR " +
             "lower(cast(p.content as string)) LIKE lower(concat('%', :keyword, '%')))")
-    Page<Post> searchPosts(@Param("keyword") String keyword, Pageable pageable);
+    Page<PostSummaryProjection> searchPostSummaries(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PostSummaryProjection> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT p FROM Post p JOIN p.categories c WHERE c.id = :categoryId AND p.published = true")
-    Page<Post> findByCategoryId(@Param("categoryId")Long categoryId, Pageable pageable);
+    // Consultas del índice de búsqueda: solo se indexan los posts publicados
+    @Query("SELECT p.id AS id, p.title AS title, p.excerpt AS excerpt, p.content AS content, p.updatedAt AS updatedAt " +
+            "FROM Post p WHERE p.published = true AND p.id > :afterId ORDER BY p.id")
+    List<PostSearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
-    @Query("SELECT p FROM Post p JOIN p.tags t where t.id = :tagId AND p.published = true")
-    Page<Post> findByTagId(@Param("tagId") Long tagId, Pageable pageable);
+    @Query("SELECT p.id AS id, p.title AS title, p.excerpt AS excerpt, p.content AS content, p.updatedAt AS updatedAt " +
+            "FROM Post p WHERE p.published = true AND p.id = :id")
+    Optional<PostSearchDocument> findPublishedSearchDocument(@Param("id") Long id);
+
+    @Query("SELECT p.id AS id, p.title AS title, p.excerpt AS excerpt, p.content AS content, p.updatedAt AS updatedAt " +
+            "FROM Post p WHERE p.published = true AND p.id IN :ids")
+    List<PostSearchDocument> findPublishedSearchDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MAX(p.updatedAt) FROM Post p WHERE p.published = true")
+    LocalDateTime findLastPublishedUpdate();
+
+    @Query(value = SUMMARY_SELECT + "JOIN p.categories c WHERE c.id = :categoryId AND p.published = true",
+            countQuery = "SELECT COUNT(p) FROM Post p JOIN p.categories c WHERE c.id = :categoryId AND p.published = true")
+    Page<PostSummaryProjection> findSummariesByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "JOIN p.tags t WHERE t.id = :tagId AND p.published = true",
+            countQuery = "SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.id = :tagId AND p.published = true")
+    Page<PostSummaryProjection> findSummariesByTagId(@Param("tagId") Long tagId, Pageable pageable);
+
+    // Paginación por cursor: orden estable por fecha de creación e id, sin consulta de conteo
+    @Query(SUMMARY_SELECT + "WHERE p.published = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryProjection> findPublishedSummariesFirstPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.published = true AND " +
+            "(p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryProjection> findPublishedSummariesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    long countByPublishedTrue();
 
     boolean existsBySlug(String slug);
 
+    boolean existsByIdAndPublishedTrue(Long id);
+
     @Query("SELECT COUNT(p) FROM Post p WHERE p.author.id = :userId")
     long countByUserId(@Param("userId") Long userId);
+
+    // Mantenimiento de los contadores de comentarios
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta, " +
+            "p.approvedCommentCount = p.approvedCommentCount + :approvedDelta WHERE p.id = :postId")
+    int addToCommentCount(@Param("postId") Long postId, @Param("delta") int delta, @Param("approvedDelta") int approvedDelta);
+
+    //Descuenta los comentarios de un usuario antes de eliminarlos en cascada junto con él
+    @Modifying
+    @Query("UPDATE Post p SET " +
+            "p.commentCount = p.commentCount - (SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id AND c.user.id = :userId), " +
+            "p.approvedCommentCount = p.approvedCommentCount - " +
+            "(SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id AND c.user.id = :userId AND c.approved = true) " +
+            "WHERE p.id IN (SELECT c.post.id FROM Comment c WHERE c.user.id = :userId)")
+    int subtractCommentsOfUser(@Param("userId") Long userId);
+
+    //Subconsultas correlacionadas en lugar de UPDATE ... JOIN, que solo existe en MySQL
+    @Modifying
+    @Query(value = "UPDATE posts p SET " +
+            "p.comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id), " +
+            "p.approved_comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.approved = TRUE) " +
+            "WHERE p.comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) " +
+            "OR p.approved_comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.approved = TRUE)", nativeQuery = true)
+    int reconcileCommentCounts();
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.luciano.blogpersonal.post.search;
+
+import com.luciano.blogpersonal.post.dto.PostSearchDocument;
+import com.luciano.blogpersonal.post.event.PostChangedEvent;
+import com.luciano.blogpersonal.post.event.PostsImportedEvent;
+import com.luciano.blogpersonal.post.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Motor de búsqueda de posts embebido en la aplicación.
+ * Mantiene el índice invertido al día con los cambios de los posts y lo guarda en disco para que un reinicio
+ * no obligue a reconstruirlo. Mientras el índice no está listo la búsqueda usa la consulta LIKE del repositorio.
+ */
+@Component
+public class PostSearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchEngine.class);
+
+    private static final String SNAPSHOT_FILE = "posts.idx";
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    private final PostRepository postRepository;
+    private final boolean enabled;
+    private final Path indexDir;
+
+    private volatile PostSearchIndex index = new PostSearchIndex();
+    private volatile boolean ready = false;
+    private volatile boolean rebuilding = false;
+
+    //Posts eliminados mientras se reconstruye el índice, para no volver a agregarlos con datos ya leídos
+    private final Set<Long> removedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    //Indica si hay cambios que aún no se guardaron en disco
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    @Autowired
+    public PostSearchEngine(PostRepository postRepository,
+                            @Value("${app.search.enabled:true}") boolean enabled,
+                            @Value("${app.search.index-dir:data/search-index}") String indexDir){
+        this.postRepository = postRepository;
+        this.enabled = enabled;
+        this.indexDir = Paths.get(indexDir);
+    }
+
+    /**
+     * Indica si el índice está completo y puede atender búsquedas
+     */
+    public boolean isReady(){
+        return enabled && ready;
+    }
+
+    /**
+     * Busca posts publicados ordenados por relevancia
+     * @param keyword Texto de la búsqueda
+     * @param offset Cantidad de resultados a omitir
+     * @param limit Cantidad máxima de resultados
+     * @return IDs de los posts encontrados y total de coincidencias
+     */
+    public PostSearchIndex.SearchHits search(String keyword, int offset, int limit){
+        return index.search(keyword, offset, limit);
+    }
+
+    //Al iniciar se carga la copia en disco si está al día; si no, se reconstruye en segundo plano
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize(){
+        if (!enabled){
+            return;
+        }
+
+        PostSearchIndex snapshot = loadSnapshot();
+        if (snapshot != null && isUpToDate(snapshot)){
+            index = snapshot;
+            ready = true;
+            log.info("Índice de búsqueda cargado desde disco con {} posts", snapshot.size());
+            return;
+        }
+
+        Thread rebuildThread = new Thread(this::rebuild, "post-search-rebuild");
+        rebuildThread.setDaemon(true);
+        rebuildThread.start();
+    }
+
+    /**
+     * Reconstruye el índice completo leyendo los posts publicados por bloques
+     */
+    public void rebuild(){
+        rebuilding = true;
+        ready = false;
+        removedDuringRebuild.clear();
+        index = new PostSearchIndex();
+
+        try {
+            Long afterId = 0L;
+            List<PostSearchDocument> batch;
+            do {
+                batch = postRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (PostSearchDocument document : batch){
+                    if (!removedDuringRebuild.contains(document.getId())){
+                        index.putIfNewer(document);
+                    }
+                }
+                if (!batch.isEmpty()){
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            ready = true;
+            dirty.set(true);
+            log.info("Índice de búsqueda reconstruido con {} posts", index.size());
+            saveSnapshot();
+        } catch (RuntimeException ex){
+            log.error("No se pudo reconstruir el índice de búsqueda, se seguirá usando la búsqueda en base de datos", ex);
+        } finally {
+            rebuilding = false;
+            removedDuringRebuild.clear();
+        }
+    }
+
+    //Actualización incremental: se ejecuta después del commit para indexar solo datos confirmados
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event){
+        if (!enabled){
+            return;
+        }
+
+        Long postId = event.getPostId();
+        Optional<PostSearchDocument> document = event.getType() == PostChangedEvent.Type.DELETED
+                ? Optional.empty()
+                : postRepository.findPublishedSearchDocument(postId);
+
+        //Los posts eliminados o no publicados no deben aparecer en la búsqueda
+        if (document.isPresent()){
+            index.put(document.get());
+        } else {
+            if (rebuilding){
+                removedDuringRebuild.add(postId);
+            }
+            index.remove(postId);
+        }
+        dirty.set(true);
+    }
+
+    //Los posts importados en bloque se indexan con una sola consulta; los borradores no se indexan
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostsImported(PostsImportedEvent event){
+        if (!enabled || event.getPostIds().isEmpty()){
+            return;
+        }
+
+        for (PostSearchDocument document : postRepository.findPublishedSearchDocumentsByIdIn(event.getPostIds())){
+            index.put(document);
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * Guarda periódicamente el índice en disco si hubo cambios
+     */
+    @Scheduled(fixedDelayString = "${app.search.snapshot-interval-ms:60000}")
+    public void saveSnapshotIfDirty(){
+        if (isReady() && dirty.get()){
+            saveSnapshot();
+        }
+    }
+
+    //Guarda lo pendiente antes de que se cierre la aplicación
+    @PreDestroy
+    public void saveOnShutdown(){
+        saveSnapshotIfDirty();
+    }
+
+    //Se escribe en un archivo temporal y se reemplaza el anterior, así nunca queda una copia a medio escribir
+    private synchronized void saveSnapshot(){
+        dirty.set(false);
+        Path target = indexDir.resolve(SNAPSHOT_FILE);
+        Path temp = indexDir.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            Files.createDirectories(indexDir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))){
+                index.writeTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex){
+            dirty.set(true);
+            log.warn("No se pudo guardar el índice de búsqueda en {}", target, ex);
+        }
+    }
+
+    private PostSearchIndex loadSnapshot(){
+        Path source = indexDir.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(source)){
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(source))))){
+            return PostSearchIndex.readFrom(in);
+        } catch (IOException | RuntimeException ex){
+            log.warn("No se pudo leer el índice de búsqueda de {}, se reconstruirá", source, ex);
+            return null;
+        }
+    }
+
+    //La copia está al día si tiene la misma cantidad de posts publicados y la misma última modificación que la base de datos
+    private boolean isUpToDate(PostSearchIndex snapshot){
+        long publishedPosts = postRepository.countByPublishedTrue();
+        LocalDateTime lastUpdate = postRepository.findLastPublishedUpdate();
+        return snapshot.size() == publishedPosts && Objects.equals(snapshot.lastUpdatedAt(), lastUpdate);
+    }
+}
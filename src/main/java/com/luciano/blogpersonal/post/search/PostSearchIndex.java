@@ -0,0 +1,322 @@
+package com.luciano.blogpersonal.post.search;
+
+import com.luciano.blogpersonal.post.dto.PostSearchDocument;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria de los posts publicados con ranking BM25.
+ * Por cada término guarda los posts que lo contienen y su frecuencia ponderada por campo
+ * (el título pesa más que el extracto y el extracto más que el contenido).
+ * Es seguro para uso concurrente: las búsquedas comparten un bloqueo de lectura y las modificaciones
+ * toman el de escritura.
+ */
+public class PostSearchIndex {
+
+    private static final int FORMAT_VERSION = 1;
+
+    //Parámetros estándar de BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    //Peso de cada campo en la frecuencia del término
+    private static final int TITLE_WEIGHT = 3;
+    private static final int EXCERPT_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    //El último término de la consulta se busca como prefijo; se limita cuántos términos puede abarcar
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //Término -> (ID del post -> frecuencia ponderada)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    //ID del post -> datos necesarios para actualizarlo o eliminarlo
+    private final Map<Long, IndexedPost> posts = new HashMap<>();
+
+    private long totalLength;
+
+    /**
+     * Agrega o reemplaza un post en el índice
+     * @param document Campos del post a indexar
+     */
+    public void put(PostSearchDocument document) {
+        IndexedPost entry = analyze(document);
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.getId());
+            addInternal(document.getId(), entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega un post solo si el índice no tiene ya una versión igual o más reciente.
+     * Se usa en la reconstrucción completa, que puede leer datos más antiguos que los cambios recibidos mientras tanto.
+     * @param document Campos del post a indexar
+     */
+    public void putIfNewer(PostSearchDocument document) {
+        IndexedPost entry = analyze(document);
+        lock.writeLock().lock();
+        try {
+            IndexedPost current = posts.get(document.getId());
+            if (current != null && current.updatedAt != null && entry.updatedAt != null
+                    && !current.updatedAt.isBefore(entry.updatedAt)) {
+                return;
+            }
+            removeInternal(document.getId());
+            addInternal(document.getId(), entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un post del índice
+     * @param postId ID del post
+     */
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los posts que contienen alguno de los términos de la consulta, ordenados por relevancia
+     * @param query Texto de la búsqueda
+     * @param offset Cantidad de resultados a omitir
+     * @param limit Cantidad máxima de resultados a devolver
+     * @return IDs de los posts de la página solicitada y total de coincidencias
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return new SearchHits(new ArrayList<>(), 0);
+        }
+
+        List<Map.Entry<Long, Double>> ranked;
+        lock.readLock().lock();
+        try {
+            if (posts.isEmpty()) {
+                return new SearchHits(new ArrayList<>(), 0);
+            }
+
+            double averageLength = (double) totalLength / posts.size();
+            Map<Long, Double> scores = new HashMap<>();
+
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                score(term, 1.0, averageLength, scores);
+
+                //El último término también se busca como prefijo (búsqueda mientras se escribe)
+                if (i == terms.size() - 1) {
+                    int expansions = 0;
+                    for (String candidate : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                        if (expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        score(candidate, PREFIX_MATCH_FACTOR, averageLength, scores);
+                    }
+                }
+            }
+
+            ranked = new ArrayList<>(scores.entrySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        //Mayor puntaje primero; a igual puntaje, el post más reciente (ID mayor)
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey(Comparator.reverseOrder())));
+
+        List<Long> page = new ArrayList<>();
+        for (int i = Math.max(offset, 0); i < ranked.size() && page.size() < limit; i++) {
+            page.add(ranked.get(i).getKey());
+        }
+        return new SearchHits(page, ranked.size());
+    }
+
+    /**
+     * Cantidad de posts indexados
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return posts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fecha de la última modificación entre los posts indexados, usada para saber si una copia en disco está al día
+     */
+    public LocalDateTime lastUpdatedAt() {
+        lock.readLock().lock();
+        try {
+            LocalDateTime last = null;
+            for (IndexedPost post : posts.values()) {
+                if (post.updatedAt != null && (last == null || post.updatedAt.isAfter(last))) {
+                    last = post.updatedAt;
+                }
+            }
+            return last;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Escribe el índice en formato binario
+     * @param out Flujo de salida
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(posts.size());
+            for (Map.Entry<Long, IndexedPost> entry : posts.entrySet()) {
+                IndexedPost post = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeUTF(post.updatedAt != null ? post.updatedAt.toString() : "");
+                out.writeInt(post.length);
+                out.writeInt(post.termFrequencies.size());
+                for (Map.Entry<String, Integer> term : post.termFrequencies.entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeInt(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lee un índice escrito con writeTo
+     * @param in Flujo de entrada
+     * @return El índice leído
+     * @throws IOException Si el archivo está dañado o tiene otro formato
+     */
+    public static PostSearchIndex readFrom(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Formato de índice no soportado: " + version);
+        }
+
+        PostSearchIndex index = new PostSearchIndex();
+        int postCount = in.readInt();
+        for (int i = 0; i < postCount; i++) {
+            long postId = in.readLong();
+            String updatedAt = in.readUTF();
+            int length = in.readInt();
+            int termCount = in.readInt();
+            Map<String, Integer> termFrequencies = new HashMap<>(termCount * 4 / 3 + 1);
+            for (int j = 0; j < termCount; j++) {
+                termFrequencies.put(in.readUTF(), in.readInt());
+            }
+            index.addInternal(postId, new IndexedPost(termFrequencies, length,
+                    updatedAt.isEmpty() ? null : LocalDateTime.parse(updatedAt)));
+        }
+        return index;
+    }
+
+    //Suma la contribución BM25 de un término al puntaje de cada post que lo contiene
+    private void score(String term, double factor, double averageLength, Map<Long, Double> scores) {
+        Map<Long, Integer> matches = postings.get(term);
+        if (matches == null) {
+            return;
+        }
+
+        int total = posts.size();
+        int documentFrequency = matches.size();
+        double idf = Math.log(1 + (total - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+        for (Map.Entry<Long, Integer> match : matches.entrySet()) {
+            int frequency = match.getValue();
+            int length = posts.get(match.getKey()).length;
+            double normalization = K1 * (1 - B + B * length / averageLength);
+            double termScore = idf * frequency * (K1 + 1) / (frequency + normalization);
+            scores.merge(match.getKey(), termScore * factor, Double::sum);
+        }
+    }
+
+    //La separación en términos se hace fuera del bloqueo
+    private static IndexedPost analyze(PostSearchDocument document) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        int length = addTerms(termFrequencies, document.getTitle(), TITLE_WEIGHT)
+                + addTerms(termFrequencies, document.getExcerpt(), EXCERPT_WEIGHT)
+                + addTerms(termFrequencies, document.getContent(), CONTENT_WEIGHT);
+        return new IndexedPost(termFrequencies, length, document.getUpdatedAt());
+    }
+
+    private static int addTerms(Map<String, Integer> termFrequencies, String text, int weight) {
+        List<String> terms = SearchTokenizer.tokenize(text);
+        for (String term : terms) {
+            termFrequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private void addInternal(Long postId, IndexedPost post) {
+        posts.put(postId, post);
+        totalLength += post.length;
+        for (Map.Entry<String, Integer> term : post.termFrequencies.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(postId, term.getValue());
+        }
+    }
+
+    private void removeInternal(Long postId) {
+        IndexedPost previous = posts.remove(postId);
+        if (previous == null) {
+            return;
+        }
+
+        totalLength -= previous.length;
+        for (String term : previous.termFrequencies.keySet()) {
+            Map<Long, Integer> matches = postings.get(term);
+            if (matches != null) {
+                matches.remove(postId);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda: IDs de la página solicitada en orden de relevancia y total de coincidencias
+     */
+    public record SearchHits(List<Long> postIds, long total) {
+    }
+
+    private static final class IndexedPost {
+        private final Map<String, Integer> termFrequencies;
+        private final int length;
+        private final LocalDateTime updatedAt;
+
+        private IndexedPost(Map<String, Integer> termFrequencies, int length, LocalDateTime updatedAt) {
+            this.termFrequencies = termFrequencies;
+            this.length = length;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
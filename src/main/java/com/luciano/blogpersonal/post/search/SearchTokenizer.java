@@ -0,0 +1,46 @@
+package com.luciano.blogpersonal.post.search;
+
+import com.luciano.blogpersonal.common.utils.SlugUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divide un texto en términos para el índice de búsqueda.
+ * Usa la misma normalización que los slugs (sin tildes y en minúsculas), por lo que
+ * "Canción" y "cancion" generan el mismo término.
+ */
+public final class SearchTokenizer {
+
+    //Los términos más largos se recortan para que una cadena sin espacios no genere entradas enormes
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private SearchTokenizer() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Obtiene los términos de un texto en el orden en que aparecen
+     * @param text Texto a dividir
+     * @return Lista de términos normalizados (puede contener repetidos)
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String normalized = SlugUtils.normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean partOfTerm = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (partOfTerm && start < 0) {
+                start = i;
+            } else if (!partOfTerm && start >= 0) {
+                terms.add(normalized.substring(start, Math.min(i, start + MAX_TERM_LENGTH)));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
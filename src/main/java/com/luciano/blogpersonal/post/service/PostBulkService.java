@@ -0,0 +1,22 @@
+package com.luciano.blogpersonal.post.service;
+
+import com.luciano.blogpersonal.post.dto.PostImportResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface PostBulkService {
+
+    /**
+     * Importa posts desde un flujo NDJSON (un PostBulkRecord por línea), insertándolos por bloques
+     * @param ndjson Contenido a importar
+     * @return Resumen de la importación con las líneas rechazadas
+     */
+    PostImportResult importPosts(InputStream ndjson);
+
+    /**
+     * Exporta todos los posts como NDJSON, escribiéndolos por bloques sin cargarlos todos en memoria
+     * @param output Destino de la exportación
+     */
+    void exportPosts(OutputStream output);
+}
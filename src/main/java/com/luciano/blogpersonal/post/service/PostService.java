@@ -1,11 +1,14 @@
 package com.luciano.blogpersonal.post.service;
 
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.post.dto.PostCreateRequest;
 import com.luciano.blogpersonal.post.dto.PostResponse;
 import com.luciano.blogpersonal.post.dto.PostSummaryResponse;
 import com.luciano.blogpersonal.post.dto.PostUpdateRequest;
 
+import java.io.Writer;
+
 public interface PostService {
 
     /**
@@ -69,6 +72,15 @@ public interface PostService {
      */
     PaginatedResponse<PostSummaryResponse> getAllPublishedPost(int pageNo, int pageSize, String sortBy, String sortDir);
 
+    /**
+     * Obtiene los posts publicados con paginación por cursor, del más reciente al más antiguo
+     * @param after Cursor devuelto por la página anterior (null para la primera página)
+     * @param pageSize Tamano de la página
+     * @param includeTotal Si se debe calcular el total de posts publicados
+     * @return Respuesta paginada por cursor con resúmenes de posts
+     */
+    CursorPaginatedResponse<PostSummaryResponse> getPublishedPostsByCursor(String after, int pageSize, boolean includeTotal);
+
     /**
      * Obtiene todos los post de un usuario
      * @param userId ID del usuario
@@ -114,4 +126,18 @@ public interface PostService {
      */
 
     boolean existsBySlug(String slug);
+
+    /**
+     * Comprueba si un post existe y está publicado
+     * @param postId ID del post
+     * @return true si existe y está publicado, false en caso contrario
+     */
+    boolean existsPublishedById(Long postId);
+
+    /**
+     * Escribe el contenido de un post publicado sin cargarlo completo en memoria
+     * @param postId ID del post
+     * @param writer Destino del contenido
+     */
+    void writePublishedContent(Long postId, Writer writer);
 }
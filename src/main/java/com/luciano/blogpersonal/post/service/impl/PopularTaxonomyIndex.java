@@ -0,0 +1,141 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.category.repository.CategoryRepository;
+import com.luciano.blogpersonal.common.dto.PostCountProjection;
+import com.luciano.blogpersonal.common.utils.TopKRanking;
+import com.luciano.blogpersonal.post.event.TaxonomyCountsChangedEvent;
+import com.luciano.blogpersonal.tag.repository.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranking en memoria de los tags y categorías con más posts.
+ * Se carga al iniciar desde la columna post_count y se actualiza solo con los elementos que cambian,
+ * de modo que los endpoints de populares no ordenan la tabla completa en cada solicitud.
+ * Cada cierto tiempo se recarga completo para corregir cualquier diferencia con la base de datos.
+ */
+@Component
+public class PopularTaxonomyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularTaxonomyIndex.class);
+
+    private final TagRepository tagRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final TopKRanking tagRanking = new TopKRanking();
+    private final TopKRanking categoryRanking = new TopKRanking();
+    private volatile boolean ready = false;
+
+    @Autowired
+    public PopularTaxonomyIndex(TagRepository tagRepository, CategoryRepository categoryRepository){
+        this.tagRepository = tagRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Indica si el ranking ya fue cargado y puede atender solicitudes
+     */
+    public boolean isReady(){
+        return ready;
+    }
+
+    /**
+     * IDs de los tags con más posts, de mayor a menor
+     * @param limit Cantidad de tags
+     */
+    public List<Long> topTagIds(int limit){
+        return tagRanking.top(limit);
+    }
+
+    /**
+     * IDs de las categorías con más posts, de mayor a menor
+     * @param limit Cantidad de categorías
+     */
+    public List<Long> topCategoryIds(int limit){
+        return categoryRanking.top(limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize(){
+        reloadTags(null);
+        reloadCategories(null);
+        ready = true;
+        log.info("Ranking de populares cargado con {} tags y {} categorías", tagRanking.size(), categoryRanking.size());
+    }
+
+    /**
+     * Recarga ambos rankings completos desde la columna post_count
+     */
+    @Scheduled(initialDelayString = "${app.taxonomy.popular-refresh-interval-ms:300000}",
+            fixedDelayString = "${app.taxonomy.popular-refresh-interval-ms:300000}")
+    public void refresh(){
+        reloadTags(null);
+        reloadCategories(null);
+    }
+
+    //Se leen los contadores ya confirmados, así un rollback nunca deja el ranking desalineado
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaxonomyCountsChanged(TaxonomyCountsChangedEvent event){
+        if (event.getTagIds() == null || !event.getTagIds().isEmpty()){
+            reloadTags(event.getTagIds());
+        }
+        if (event.getCategoryIds() == null || !event.getCategoryIds().isEmpty()){
+            reloadCategories(event.getCategoryIds());
+        }
+    }
+
+    //La lectura y la actualización de cada ranking se sincronizan: si dos commits terminan en desorden,
+    // la lectura posterior ya ve ambos y una lectura anterior nunca pisa un contador más nuevo
+    private void reloadTags(Set<Long> tagIds){
+        synchronized (tagRanking){
+            if (tagIds == null){
+                tagRanking.replaceAll(toMap(tagRepository.findAllPostCounts()));
+            } else {
+                apply(tagRanking, tagIds, tagRepository.findPostCountsByIdIn(tagIds));
+            }
+        }
+    }
+
+    private void reloadCategories(Set<Long> categoryIds){
+        synchronized (categoryRanking){
+            if (categoryIds == null){
+                categoryRanking.replaceAll(toMap(categoryRepository.findAllPostCounts()));
+            } else {
+                apply(categoryRanking, categoryIds, categoryRepository.findPostCountsByIdIn(categoryIds));
+            }
+        }
+    }
+
+    //Los IDs que ya no existen en la base de datos se quitan del ranking
+    private static void apply(TopKRanking ranking, Set<Long> ids, List<PostCountProjection> counts){
+        Map<Long, Long> current = toMap(counts);
+        for (Long id : ids){
+            Long count = current.get(id);
+            if (count != null){
+                ranking.put(id, count);
+            } else {
+                ranking.remove(id);
+            }
+        }
+    }
+
+    private static Map<Long, Long> toMap(List<PostCountProjection> counts){
+        Map<Long, Long> result = new HashMap<>();
+        for (PostCountProjection count : counts){
+            result.put(count.getId(), count.getPostCount());
+        }
+        return result;
+    }
+}
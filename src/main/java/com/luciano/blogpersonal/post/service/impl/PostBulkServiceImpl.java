@@ -0,0 +1,455 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.luciano.blogpersonal.common.exception.BlogApiException;
+import com.luciano.blogpersonal.common.exception.ResourceNotFoundException;
+import com.luciano.blogpersonal.common.utils.SlugUtils;
+import com.luciano.blogpersonal.post.dto.PostBulkRecord;
+import com.luciano.blogpersonal.post.dto.PostImportResult;
+import com.luciano.blogpersonal.post.event.PostsImportedEvent;
+import com.luciano.blogpersonal.post.event.TaxonomyCountsChangedEvent;
+import com.luciano.blogpersonal.post.service.PostBulkService;
+import com.luciano.blogpersonal.user.model.User;
+import com.luciano.blogpersonal.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importación y exportación masiva de posts en formato NDJSON.
+ * La importación lee el flujo línea por línea y procesa bloques acotados: resuelve autores, categorías, tags y slugs
+ * con una consulta por tipo, e inserta los posts y sus relaciones con sentencias JDBC en lote dentro de una
+ * transacción por bloque. La exportación recorre los posts por id y los escribe a medida que los lee.
+ */
+@Service
+public class PostBulkServiceImpl implements PostBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostBulkServiceImpl.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_TITLE_LENGTH = 100;
+    private static final int MAX_EXCERPT_LENGTH = 200;
+
+    private static final String INSERT_POST_SQL = "INSERT INTO posts (title, slug, excerpt, content, featured_image, published, " +
+            "published_at, created_at, updated_at, view_count, comment_count, approved_comment_count, author_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?)";
+    private static final String INSERT_POST_CATEGORY_SQL = "INSERT INTO post_categories (post_id, category_id) VALUES (?, ?)";
+    private static final String INSERT_POST_TAG_SQL = "INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)";
+    private static final String ADD_CATEGORY_COUNT_SQL = "UPDATE categories SET post_count = post_count + ? WHERE id = ?";
+    private static final String ADD_TAG_COUNT_SQL = "UPDATE tags SET post_count = post_count + ? WHERE id = ?";
+
+    private static final String EXPORT_SQL = "SELECT p.id, p.title, p.slug, p.excerpt, p.content, p.featured_image, p.published, " +
+            "p.published_at, p.created_at, p.updated_at, p.view_count, u.username " +
+            "FROM posts p JOIN users u ON u.id = p.author_id WHERE p.id > ? ORDER BY p.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int exportBatchSize;
+
+    @Autowired
+    public PostBulkServiceImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate, UserRepository userRepository,
+                               ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                               @Value("${app.bulk.import-chunk-size:500}") int chunkSize,
+                               @Value("${app.bulk.export-batch-size:100}") int exportBatchSize){
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.exportBatchSize = exportBatchSize;
+    }
+
+    @Override
+    public PostImportResult importPosts(InputStream ndjson){
+        //Los posts sin autor indicado quedan a nombre del usuario que importa
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String currentUsername = authentication.getName();
+        User importer = userRepository.findByUsername(currentUsername)
+                .orElseThrow(()-> new ResourceNotFoundException("Usuario", "Username", currentUsername));
+
+        PostImportResult result = PostImportResult.builder().build();
+        List<PendingPost> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))){
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null){
+                lineNumber++;
+                if (line.isBlank()){
+                    continue;
+                }
+                result.setReceived(result.getReceived() + 1);
+
+                try {
+                    PostBulkRecord record = objectMapper.readValue(line, PostBulkRecord.class);
+                    chunk.add(new PendingPost(lineNumber, record, validate(record)));
+                } catch (JsonProcessingException ex){
+                    reject(result, lineNumber, "JSON inválido: " + ex.getOriginalMessage());
+                } catch (BlogApiException ex){
+                    reject(result, lineNumber, ex.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize){
+                    importChunk(chunk, importer.getId(), result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex){
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, "No se pudo leer el contenido a importar: " + ex.getMessage());
+        }
+
+        if (!chunk.isEmpty()){
+            importChunk(chunk, importer.getId(), result);
+        }
+
+        log.info("Importación de posts terminada: {} recibidos, {} importados, {} rechazados",
+                result.getReceived(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    @Override
+    public void exportPosts(OutputStream output){
+        try {
+            //Un objeto JSON por línea; el flujo de salida no se cierra aquí
+            SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(output);
+            Long afterId = 0L;
+            List<PostBulkRecord> batch;
+            do {
+                batch = jdbcTemplate.query(EXPORT_SQL, (resultSet, rowNum) -> PostBulkRecord.builder()
+                        .id(resultSet.getLong("id"))
+                        .title(resultSet.getString("title"))
+                        .slug(resultSet.getString("slug"))
+                        .excerpt(resultSet.getString("excerpt"))
+                        .content(resultSet.getString("content"))
+                        .featuredImage(resultSet.getString("featured_image"))
+                        .published(resultSet.getBoolean("published"))
+                        .publishedAt(toLocalDateTime(resultSet.getTimestamp("published_at")))
+                        .createdAt(toLocalDateTime(resultSet.getTimestamp("created_at")))
+                        .updatedAt(toLocalDateTime(resultSet.getTimestamp("updated_at")))
+                        .viewCount(resultSet.getInt("view_count"))
+                        .authorUsername(resultSet.getString("username"))
+                        .build(), afterId, exportBatchSize);
+
+                if (batch.isEmpty()){
+                    break;
+                }
+
+                List<Long> postIds = batch.stream().map(PostBulkRecord::getId).collect(Collectors.toList());
+                Map<Long, Set<Long>> categoriesByPost = findRelatedIds("SELECT post_id, category_id AS related_id FROM post_categories WHERE post_id IN (:ids)", postIds);
+                Map<Long, Set<Long>> tagsByPost = findRelatedIds("SELECT post_id, tag_id AS related_id FROM post_tags WHERE post_id IN (:ids)", postIds);
+
+                for (PostBulkRecord record : batch){
+                    record.setCategoryIds(categoriesByPost.getOrDefault(record.getId(), new HashSet<>()));
+                    record.setTagIds(tagsByPost.getOrDefault(record.getId(), new HashSet<>()));
+                    writer.write(record);
+                }
+                writer.flush();
+                afterId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == exportBatchSize);
+
+            output.write('\n');
+            output.flush();
+        } catch (IOException ex){
+            //Normalmente el cliente cerró la conexión a mitad de la descarga
+            throw new BlogApiException(HttpStatus.INTERNAL_SERVER_ERROR, "No se pudo escribir la exportación: " + ex.getMessage());
+        }
+    }
+
+    //Valida los campos obligatorios y devuelve el slug que tendrá el post
+    private static String validate(PostBulkRecord record){
+        if (isBlank(record.getTitle()) || record.getTitle().length() > MAX_TITLE_LENGTH){
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, "El titulo es obligatorio y debe tener hasta " + MAX_TITLE_LENGTH + " caracteres");
+        }
+        if (isBlank(record.getExcerpt()) || record.getExcerpt().length() > MAX_EXCERPT_LENGTH){
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, "El extracto es obligatorio y debe tener hasta " + MAX_EXCERPT_LENGTH + " caracteres");
+        }
+        if (isBlank(record.getContent())){
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, "El contenido es obligatorio");
+        }
+
+        //"categoryIds": null o "tagIds": null equivalen a no indicar categorías o tags
+        if (record.getCategoryIds() == null){
+            record.setCategoryIds(new HashSet<>());
+        }
+        if (record.getTagIds() == null){
+            record.setTagIds(new HashSet<>());
+        }
+        if (record.getCategoryIds().contains(null) || record.getTagIds().contains(null)){
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, "Los ids de categorías y tags no pueden ser nulos");
+        }
+
+        String slug = SlugUtils.generateSlug(isBlank(record.getSlug()) ? record.getTitle() : record.getSlug());
+        if (isBlank(slug)){
+            throw new BlogApiException(HttpStatus.BAD_REQUEST, "No se pudo generar el slug del post");
+        }
+        return slug;
+    }
+
+    private void importChunk(List<PendingPost> chunk, Long importerId, PostImportResult result){
+        //Resolución en bloque: una consulta por tipo de dato para todo el bloque
+        Map<String, Long> authorIds = findUserIds(chunk.stream()
+                .map(pending -> pending.record().getAuthorUsername())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Set<Long> categoryIds = findExistingIds("SELECT id FROM categories WHERE id IN (:ids)", chunk.stream()
+                .flatMap(pending -> pending.record().getCategoryIds().stream())
+                .collect(Collectors.toSet()));
+        Set<Long> tagIds = findExistingIds("SELECT id FROM tags WHERE id IN (:ids)", chunk.stream()
+                .flatMap(pending -> pending.record().getTagIds().stream())
+                .collect(Collectors.toSet()));
+        Map<String, List<String>> takenSlugs = findSlugsWithPrefixes(chunk.stream().map(PendingPost::slug).collect(Collectors.toSet()));
+
+        List<ResolvedPost> resolved = new ArrayList<>(chunk.size());
+        for (PendingPost pending : chunk){
+            PostBulkRecord record = pending.record();
+            Long authorId = importerId;
+            if (record.getAuthorUsername() != null){
+                authorId = authorIds.get(record.getAuthorUsername());
+                if (authorId == null){
+                    reject(result, pending.lineNumber(), "No existe el usuario " + record.getAuthorUsername());
+                    continue;
+                }
+            }
+
+            if (!categoryIds.containsAll(record.getCategoryIds())){
+                reject(result, pending.lineNumber(), "Categorías inexistentes: " + missing(record.getCategoryIds(), categoryIds));
+                continue;
+            }
+            if (!tagIds.containsAll(record.getTagIds())){
+                reject(result, pending.lineNumber(), "Tags inexistentes: " + missing(record.getTagIds(), tagIds));
+                continue;
+            }
+
+            //Un slug ocupado en la base de datos o por una línea anterior del bloque recibe el menor sufijo numérico libre
+            String slug = SlugUtils.nextFreeSlug(pending.slug(), takenSlugs.get(pending.slug()));
+            reserveSlug(takenSlugs, slug);
+            resolved.add(new ResolvedPost(pending, authorId, slug));
+        }
+
+        if (resolved.isEmpty()){
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertChunk(resolved));
+            result.setImported(result.getImported() + resolved.size());
+        } catch (DataAccessException ex){
+            //Si el lote falla (por ejemplo, un slug creado en paralelo) se rechaza el bloque completo
+            log.warn("No se pudo importar un bloque de {} posts", resolved.size(), ex);
+            for (ResolvedPost post : resolved){
+                reject(result, post.pending().lineNumber(), "No se pudo insertar el bloque: " + ex.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private void insertChunk(List<ResolvedPost> posts){
+        LocalDateTime now = LocalDateTime.now();
+
+        //Los posts se insertan en un solo lote y se recuperan sus IDs generados en el mismo orden
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_POST_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        ResolvedPost post = posts.get(i);
+                        PostBulkRecord record = post.pending().record();
+                        LocalDateTime createdAt = record.getCreatedAt() != null ? record.getCreatedAt() : now;
+                        LocalDateTime publishedAt = record.isPublished()
+                                ? (record.getPublishedAt() != null ? record.getPublishedAt() : createdAt)
+                                : null;
+
+                        statement.setString(1, record.getTitle());
+                        statement.setString(2, post.slug());
+                        statement.setString(3, record.getExcerpt());
+                        statement.setString(4, record.getContent());
+                        statement.setString(5, record.getFeaturedImage());
+                        statement.setBoolean(6, record.isPublished());
+                        statement.setTimestamp(7, publishedAt != null ? Timestamp.valueOf(publishedAt) : null);
+                        statement.setTimestamp(8, Timestamp.valueOf(createdAt));
+                        statement.setTimestamp(9, Timestamp.valueOf(record.getUpdatedAt() != null ? record.getUpdatedAt() : createdAt));
+                        statement.setInt(10, Math.max(record.getViewCount(), 0));
+                        statement.setLong(11, post.authorId());
+                    }
+
+                    @Override
+                    public int getBatchSize(){
+                        return posts.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        Set<Long> postIds = new HashSet<>(posts.size() * 4 / 3 + 1);
+        List<Object[]> postCategories = new ArrayList<>();
+        List<Object[]> postTags = new ArrayList<>();
+        Map<Long, Integer> categoryIncrements = new HashMap<>();
+        Map<Long, Integer> tagIncrements = new HashMap<>();
+
+        for (int i = 0; i < posts.size(); i++){
+            Long postId = ((Number) keys.get(i).values().iterator().next()).longValue();
+            postIds.add(postId);
+            PostBulkRecord record = posts.get(i).pending().record();
+
+            for (Long categoryId : record.getCategoryIds()){
+                postCategories.add(new Object[]{postId, categoryId});
+                categoryIncrements.merge(categoryId, 1, Integer::sum);
+            }
+            for (Long tagId : record.getTagIds()){
+                postTags.add(new Object[]{postId, tagId});
+                tagIncrements.merge(tagId, 1, Integer::sum);
+            }
+        }
+
+        //Relaciones y contadores de posts también en lote
+        if (!postCategories.isEmpty()){
+            jdbcTemplate.batchUpdate(INSERT_POST_CATEGORY_SQL, postCategories);
+            jdbcTemplate.batchUpdate(ADD_CATEGORY_COUNT_SQL, toCountArgs(categoryIncrements));
+        }
+        if (!postTags.isEmpty()){
+            jdbcTemplate.batchUpdate(INSERT_POST_TAG_SQL, postTags);
+            jdbcTemplate.batchUpdate(ADD_TAG_COUNT_SQL, toCountArgs(tagIncrements));
+        }
+
+        //Un solo evento por bloque: el índice de búsqueda y las versiones de contenido se actualizan una vez
+        eventPublisher.publishEvent(new PostsImportedEvent(postIds));
+        if (!categoryIncrements.isEmpty() || !tagIncrements.isEmpty()){
+            eventPublisher.publishEvent(new TaxonomyCountsChangedEvent(tagIncrements.keySet(), categoryIncrements.keySet()));
+        }
+    }
+
+    private Map<String, Long> findUserIds(Set<String> usernames){
+        Map<String, Long> result = new HashMap<>();
+        if (usernames.isEmpty()){
+            return result;
+        }
+        namedJdbcTemplate.query("SELECT id, username FROM users WHERE username IN (:usernames)", Map.of("usernames", usernames),
+                resultSet -> {
+                    result.put(resultSet.getString("username"), resultSet.getLong("id"));
+                });
+        return result;
+    }
+
+    private Set<Long> findExistingIds(String sql, Set<Long> ids){
+        if (ids.isEmpty()){
+            return new HashSet<>();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(sql, Map.of("ids", ids), Long.class));
+    }
+
+    //Slugs ocupados por cada slug base del bloque y sus variantes con sufijo, con una sola consulta para todo el bloque
+    private Map<String, List<String>> findSlugsWithPrefixes(Set<String> baseSlugs){
+        Map<String, List<String>> result = new HashMap<>();
+        if (baseSlugs.isEmpty()){
+            return result;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT slug FROM posts WHERE slug IN (:slugs)");
+        Map<String, Object> params = new HashMap<>();
+        params.put("slugs", baseSlugs);
+        int i = 0;
+        for (String baseSlug : baseSlugs){
+            sql.append(" OR slug LIKE :prefix").append(i);
+            params.put("prefix" + i, baseSlug + "-%");
+            result.put(baseSlug, new ArrayList<>());
+            i++;
+        }
+
+        for (String taken : namedJdbcTemplate.queryForList(sql.toString(), params, String.class)){
+            reserveSlug(result, taken);
+        }
+        return result;
+    }
+
+    //Marca el slug como ocupado para cada slug base al que corresponde (el mismo o una variante "base-...")
+    private static void reserveSlug(Map<String, List<String>> takenSlugs, String slug){
+        takenSlugs.forEach((baseSlug, taken) -> {
+            if (slug.equals(baseSlug) || slug.startsWith(baseSlug + "-")){
+                taken.add(slug);
+            }
+        });
+    }
+
+    private Map<Long, Set<Long>> findRelatedIds(String sql, Collection<Long> postIds){
+        Map<Long, Set<Long>> result = new HashMap<>();
+        namedJdbcTemplate.query(sql, Map.of("ids", postIds), resultSet -> {
+            result.computeIfAbsent(resultSet.getLong("post_id"), id -> new HashSet<>()).add(resultSet.getLong("related_id"));
+        });
+        return result;
+    }
+
+    private static List<Object[]> toCountArgs(Map<Long, Integer> increments){
+        return increments.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .collect(Collectors.toList());
+    }
+
+    private static Set<Long> missing(Set<Long> requested, Set<Long> existing){
+        Set<Long> result = new HashSet<>(requested);
+        result.removeAll(existing);
+        return result;
+    }
+
+    private static void reject(PostImportResult result, long lineNumber, String message){
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS){
+            result.getErrors().add("Línea " + lineNumber + ": " + message);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp){
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static boolean isBlank(String value){
+        return value == null || value.isBlank();
+    }
+
+    private record PendingPost(long lineNumber, PostBulkRecord record, String slug) {
+    }
+
+    private record ResolvedPost(PendingPost pending, Long authorId, String slug) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.post.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mantiene los contadores de comentarios de los posts (columnas comment_count y approved_comment_count).
+ * Cada alta, baja o cambio de aprobación se aplica como incremento dentro de la misma transacción,
+ * y una conciliación periódica corrige cualquier diferencia con la tabla de comentarios.
+ */
+@Component
+public class PostCommentCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(PostCommentCounter.class);
+
+    private final PostRepository postRepository;
+    private final PostResponseCache postResponseCache;
+
+    @Autowired
+    public PostCommentCounter(PostRepository postRepository, PostResponseCache postResponseCache){
+        this.postRepository = postRepository;
+        this.postResponseCache = postResponseCache;
+    }
+
+    /**
+     * Suma un comentario nuevo al post
+     * @param postId ID del post
+     * @param approved Si el comentario se creó aprobado
+     */
+    @Transactional
+    public void commentAdded(Long postId, boolean approved){
+        postRepository.addToCommentCount(postId, 1, approved ? 1 : 0);
+    }
+
+    /**
+     * Descuenta un comentario eliminado del post
+     * @param postId ID del post
+     * @param approved Si el comentario estaba aprobado
+     */
+    @Transactional
+    public void commentRemoved(Long postId, boolean approved){
+        postRepository.addToCommentCount(postId, -1, approved ? -1 : 0);
+    }
+
+    /**
+     * Ajusta los comentarios aprobados cuando un comentario cambia de estado
+     * @param postId ID del post
+     * @param approved Nuevo estado del comentario
+     */
+    @Transactional
+    public void approvalChanged(Long postId, boolean approved){
+        postRepository.addToCommentCount(postId, 0, approved ? 1 : -1);
+    }
+
+    /**
+     * Descuenta los comentarios de un usuario que se eliminarán en cascada junto con él
+     * @param userId ID del usuario
+     */
+    @Transactional
+    public void removeCommentsOfUser(Long userId){
+        postRepository.subtractCommentsOfUser(userId);
+    }
+
+    /**
+     * Recalcula los contadores a partir de la tabla de comentarios.
+     * Solo actualiza los posts cuyo contador difiere del valor real
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.comments.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile(){
+        int posts = postRepository.reconcileCommentCounts();
+        if (posts > 0){
+            log.info("Contadores de comentarios corregidos en {} posts", posts);
+            //El detalle cacheado incluye la cantidad de comentarios; se descarta una vez confirmada la corrección
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit(){
+                    postResponseCache.evictAll();
+                }
+            });
+        }
+    }
+}
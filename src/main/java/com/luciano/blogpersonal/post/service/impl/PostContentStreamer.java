@@ -0,0 +1,91 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.common.exception.BlogApiException;
+import com.luciano.blogpersonal.common.utils.AppConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.Timestamp;
+import java.util.Objects;
+
+/**
+ * Escribe el contenido de un post por bloques leídos con SUBSTRING.
+ * Con MySQL Connector/J un resultado normal se recibe completo (getCharacterStream solo envuelve un String ya armado),
+ * por eso cada bloque es una consulta propia: en memoria nunca hay más de un bloque por descarga.
+ * La conexión vuelve al pool después de cada bloque, así un cliente lento no retiene una conexión durante toda la descarga;
+ * el tiempo total de la descarga lo limita spring.mvc.async.request-timeout.
+ */
+@Component
+public class PostContentStreamer {
+
+    //CHAR_LENGTH y SUBSTRING cuentan los caracteres con las mismas reglas en cada base de datos
+    private static final String CHUNK_SQL = "SELECT SUBSTRING(content, ?, ?), CHAR_LENGTH(content), updated_at " +
+            "FROM posts WHERE id = ? AND published = true";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkChars;
+
+    @Autowired
+    public PostContentStreamer(JdbcTemplate jdbcTemplate,
+                               @Value("${app.post-content.chunk-chars:262144}") int chunkChars){
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkChars = Math.max(chunkChars, 1);
+    }
+
+    /**
+     * Copia el contenido de un post publicado en el writer
+     * @param postId ID del post
+     * @param writer Destino del contenido
+     * @return false si el post no existe o no está publicado
+     */
+    public boolean writePublishedContent(Long postId, Writer writer){
+        Chunk first = readChunk(postId, 1);
+        if (first == null){
+            return false;
+        }
+
+        Chunk chunk = first;
+        long position = 1;
+        while (true){
+            write(writer, chunk.text());
+            position += chunkChars;
+            if (position > chunk.totalLength()){
+                return true;
+            }
+
+            chunk = readChunk(postId, position);
+            //Si el post se modificó, despublicó o eliminó entre bloques, el resultado mezclaría dos versiones: se corta la descarga
+            if (chunk == null || chunk.totalLength() != first.totalLength() || !Objects.equals(chunk.updatedAt(), first.updatedAt())){
+                throw new BlogApiException(HttpStatus.CONFLICT, AppConstants.CONTENT_CHANGED);
+            }
+        }
+    }
+
+    private Chunk readChunk(Long postId, long position){
+        return jdbcTemplate.query(CHUNK_SQL, (ResultSetExtractor<Chunk>) resultSet -> resultSet.next()
+                ? new Chunk(resultSet.getString(1), resultSet.getLong(2), resultSet.getTimestamp(3))
+                : null, position, chunkChars, postId);
+    }
+
+    private static void write(Writer writer, String text){
+        if (text == null){
+            return;
+        }
+        try {
+            writer.write(text);
+        } catch (IOException ex){
+            //Normalmente el cliente cerró la conexión a mitad de la descarga
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record Chunk(String text, long totalLength, Timestamp updatedAt) {
+    }
+}
@@ -0,0 +1,248 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.luciano.blogpersonal.comment.event.CommentChangedEvent;
+import com.luciano.blogpersonal.post.dto.PostResponse;
+import com.luciano.blogpersonal.post.event.PostChangedEvent;
+import com.luciano.blogpersonal.post.event.PostViewsFlushedEvent;
+import com.luciano.blogpersonal.post.event.TaxonomyRenamedEvent;
+import com.luciano.blogpersonal.user.event.UserSecurityChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Cache de lectura del detalle de los posts publicados, por id y por slug.
+ * Guarda el PostResponse ya armado (autor, categorías, tags y cantidad de comentarios) con un límite de memoria
+ * aproximado, y se descarta explícitamente cuando cambia el post, sus comentarios o los nombres de tags y categorías.
+ * Los borradores no se cachean.
+ */
+@Component
+public class PostResponseCache {
+
+    private static final int SLUG_INDEX_MAX_SIZE = 100_000;
+
+    //Franjas de marcas de invalidación; cada post usa la de su id
+    private static final int INVALIDATION_STRIPES = 4096;
+
+    private final boolean enabled;
+    private final Cache<Long, PostResponse> responsesById;
+    private final Cache<String, Long> idsBySlug;
+
+    //Momento (System.nanoTime) de la última invalidación de cada franja de posts y de la última invalidación total.
+    // Una carga que empezó antes de invalidarse su post no se guarda porque pudo leer datos viejos;
+    // las cargas de otros posts no se ven afectadas
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(INVALIDATION_STRIPES);
+    private volatile long allInvalidatedAt = System.nanoTime();
+
+    @Autowired
+    public PostResponseCache(@Value("${app.post-cache.enabled:true}") boolean enabled,
+                             @Value("${app.post-cache.max-weight:64MB}") DataSize maxWeight,
+                             @Value("${app.post-cache.ttl:10m}") Duration ttl){
+        this.enabled = enabled;
+        this.idsBySlug = Caffeine.newBuilder()
+                .maximumSize(SLUG_INDEX_MAX_SIZE)
+                .expireAfterWrite(ttl)
+                .build();
+        //Al salir una respuesta del cache (invalidación, memoria o expiración) se quita su slug del índice,
+        // solo si todavía apunta a ese post
+        this.responsesById = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((Long postId, PostResponse response) -> estimateSize(response))
+                .expireAfterWrite(ttl)
+                .executor(Runnable::run)
+                .removalListener((Long postId, PostResponse response, RemovalCause cause) -> {
+                    if (postId != null && response != null && cause != RemovalCause.REPLACED){
+                        idsBySlug.asMap().remove(response.getSlug(), postId);
+                    }
+                })
+                .build();
+        for (int stripe = 0; stripe < INVALIDATION_STRIPES; stripe++){
+            invalidatedAt.set(stripe, allInvalidatedAt);
+        }
+    }
+
+    /**
+     * Obtiene el detalle de un post, cargándolo con el loader si no está en cache
+     * @param postId ID del post
+     * @param loader Arma la respuesta desde la base de datos
+     * @return Copia de la respuesta, que el llamador puede modificar
+     */
+    public PostResponse getById(Long postId, Function<Long, PostResponse> loader){
+        if (!enabled){
+            return loader.apply(postId);
+        }
+
+        PostResponse cached = responsesById.getIfPresent(postId);
+        if (cached != null){
+            return copyOf(cached);
+        }
+
+        long loadStartedAt = System.nanoTime();
+        PostResponse response = loader.apply(postId);
+        store(response, loadStartedAt);
+        return copyOf(response);
+    }
+
+    /**
+     * Obtiene el detalle de un post por slug, cargándolo con el loader si no está en cache
+     * @param slug Slug del post
+     * @param loader Arma la respuesta desde la base de datos
+     * @return Copia de la respuesta, que el llamador puede modificar
+     */
+    public PostResponse getBySlug(String slug, Function<String, PostResponse> loader){
+        if (!enabled){
+            return loader.apply(slug);
+        }
+
+        Long postId = idsBySlug.getIfPresent(slug);
+        if (postId != null){
+            PostResponse cached = responsesById.getIfPresent(postId);
+            //El slug cambia con el título, así que se verifica que la entrada siga correspondiendo
+            if (cached != null && slug.equals(cached.getSlug())){
+                return copyOf(cached);
+            }
+            idsBySlug.invalidate(slug);
+        }
+
+        long loadStartedAt = System.nanoTime();
+        PostResponse response = loader.apply(slug);
+        store(response, loadStartedAt);
+        return copyOf(response);
+    }
+
+    /**
+     * Busca en memoria el ID del post cacheado con un slug
+     * @param slug Slug del post
+     * @return ID del post, o null si no está en cache
+     */
+    public Long findIdBySlug(String slug){
+        if (!enabled){
+            return null;
+        }
+        Long postId = idsBySlug.getIfPresent(slug);
+        PostResponse cached = postId != null ? responsesById.getIfPresent(postId) : null;
+        return cached != null && slug.equals(cached.getSlug()) ? postId : null;
+    }
+
+    /**
+     * Descarta el detalle cacheado de un post
+     * @param postId ID del post
+     */
+    public void evict(Long postId){
+        markInvalidated(postId);
+        //El listener de eliminación quita también el slug del índice
+        responsesById.invalidate(postId);
+    }
+
+    /**
+     * Descarta todo el contenido del cache
+     */
+    public void evictAll(){
+        allInvalidatedAt = System.nanoTime();
+        responsesById.invalidateAll();
+        idsBySlug.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event){
+        evict(event.getPostId());
+    }
+
+    //La cantidad de comentarios forma parte del detalle
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommentChanged(CommentChangedEvent event){
+        evict(event.getPostId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaxonomyRenamed(TaxonomyRenamedEvent event){
+        evictAll();
+    }
+
+    //Al eliminar un usuario se eliminan sus posts en cascada
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event){
+        evictAll();
+    }
+
+    //Las vistas volcadas dejan de estar pendientes en el contador: se suman a la respuesta cacheada en lugar de descartarla.
+    // Una carga en curso de esos posts pudo leer el valor anterior al volcado, por eso no se guarda
+    @EventListener
+    public void onViewsFlushed(PostViewsFlushedEvent event){
+        for (Map.Entry<Long, Long> views : event.getViewsByPostId().entrySet()){
+            markInvalidated(views.getKey());
+            responsesById.asMap().computeIfPresent(views.getKey(), (postId, cached) -> cached.toBuilder()
+                    .viewCount(cached.getViewCount() + views.getValue().intValue())
+                    .build());
+        }
+    }
+
+    private void store(PostResponse response, long loadStartedAt){
+        if (response == null || !response.isPublished()){
+            return;
+        }
+
+        Long postId = response.getId();
+        if (isInvalidatedSince(postId, loadStartedAt)){
+            return;
+        }
+        responsesById.put(postId, response);
+        idsBySlug.put(response.getSlug(), postId);
+
+        //Si el post se invalidó mientras se guardaba, la respuesta puede estar desactualizada
+        if (isInvalidatedSince(postId, loadStartedAt)){
+            responsesById.asMap().remove(postId, response);
+        }
+    }
+
+    private void markInvalidated(Long postId){
+        invalidatedAt.set(stripeOf(postId), System.nanoTime());
+    }
+
+    private boolean isInvalidatedSince(Long postId, long loadStartedAt){
+        return invalidatedAt.get(stripeOf(postId)) - loadStartedAt >= 0 || allInvalidatedAt - loadStartedAt >= 0;
+    }
+
+    private static int stripeOf(Long postId){
+        long hash = postId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 52) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private static PostResponse copyOf(PostResponse response){
+        return response.toBuilder()
+                .categories(new HashSet<>(response.getCategories()))
+                .tags(new HashSet<>(response.getTags()))
+                .build();
+    }
+
+    //Tamaño aproximado en memoria: 2 bytes por carácter de texto más un costo fijo por objeto
+    private static int estimateSize(PostResponse response){
+        long size = 256;
+        size += 2L * (length(response.getTitle()) + length(response.getSlug()) + length(response.getExcerpt())
+                + length(response.getContent()) + length(response.getFeaturedImage()) + length(response.getAuthorName()));
+        for (PostResponse.CategoryInfo category : response.getCategories()){
+            size += 64 + 2L * (length(category.getName()) + length(category.getSlug()));
+        }
+        for (PostResponse.TagInfo tag : response.getTags()){
+            size += 64 + 2L * (length(tag.getName()) + length(tag.getSlug()));
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value){
+        return value != null ? value.length() : 0;
+    }
+}
@@ -2,24 +2,36 @@ package com.luciano.blogpersonal.post.service.impl;
 
 import com.luciano.blogpersonal.category.model.Category;
 import com.luciano.blogpersonal.category.repository.CategoryRepository;
+import com.luciano.blogpersonal.common.cache.ListingCache;
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.exception.BlogApiException;
 import com.luciano.blogpersonal.common.exception.ResourceNotFoundException;
 import com.luciano.blogpersonal.post.dto.PostCreateRequest;
 import com.luciano.blogpersonal.post.dto.PostResponse;
+import com.luciano.blogpersonal.post.dto.PostSummaryProjection;
 import com.luciano.blogpersonal.post.dto.PostSummaryResponse;
 import com.luciano.blogpersonal.post.dto.PostUpdateRequest;
+import com.luciano.blogpersonal.post.event.PostChangedEvent;
 import com.luciano.blogpersonal.post.mapper.PostMapper;
+import com.luciano.blogpersonal.post.mapper.PostDetailAssembler;
+import com.luciano.blogpersonal.post.mapper.PostSummaryAssembler;
 import com.luciano.blogpersonal.post.model.Post;
 import com.luciano.blogpersonal.post.repository.PostRepository;
+import com.luciano.blogpersonal.post.search.PostSearchEngine;
+import com.luciano.blogpersonal.post.search.PostSearchIndex;
 import com.luciano.blogpersonal.post.service.PostService;
 import com.luciano.blogpersonal.tag.model.Tag;
 import com.luciano.blogpersonal.tag.repository.TagRepository;
 import com.luciano.blogpersonal.user.model.User;
 import com.luciano.blogpersonal.user.repository.UserRepository;
+import com.luciano.blogpersonal.common.utils.CursorUtils;
 import com.luciano.blogpersonal.common.utils.SlugUtils;
+import com.luciano.blogpersonal.common.web.ContentVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -29,9 +41,13 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,14 +58,34 @@ public class PostServiceImpl implements PostService {
     private final CategoryRepository categoryRepository;
     private final TagRepository tagRepository;
     private final PostMapper postMapper;
+    private final PostSummaryAssembler postSummaryAssembler;
+    private final PostDetailAssembler postDetailAssembler;
+    private final PostContentStreamer postContentStreamer;
+    private final PostViewCounter postViewCounter;
+    private final PostTaxonomyCounter postTaxonomyCounter;
+    private final PostResponseCache postResponseCache;
+    private final ListingCache listingCache;
+    private final ContentVersions contentVersions;
+    private final PostSearchEngine postSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public PostServiceImpl(PostRepository postRepository, UserRepository userRepository, CategoryRepository categoryRepository, TagRepository tagRepository, PostMapper postMapper){
+    public PostServiceImpl(PostRepository postRepository, UserRepository userRepository, CategoryRepository categoryRepository, TagRepository tagRepository, PostMapper postMapper, PostSummaryAssembler postSummaryAssembler, PostDetailAssembler postDetailAssembler, PostContentStreamer postContentStreamer, PostViewCounter postViewCounter, PostTaxonomyCounter postTaxonomyCounter, PostResponseCache postResponseCache, ListingCache listingCache, ContentVersions contentVersions, PostSearchEngine postSearchEngine, ApplicationEventPublisher eventPublisher){
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.tagRepository = tagRepository;
         this.postMapper = postMapper;
+        this.postSummaryAssembler = postSummaryAssembler;
+        this.postDetailAssembler = postDetailAssembler;
+        this.postContentStreamer = postContentStreamer;
+        this.postViewCounter = postViewCounter;
+        this.postTaxonomyCounter = postTaxonomyCounter;
+        this.postResponseCache = postResponseCache;
+        this.listingCache = listingCache;
+        this.contentVersions = contentVersions;
+        this.postSearchEngine = postSearchEngine;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -62,8 +98,9 @@ public class PostServiceImpl implements PostService {
         User author = userRepository.findByUsername(currentUsername)
                 .orElseThrow(()-> new ResourceNotFoundException("Usuario", "Username", currentUsername));
 
-        // Crear el post usando el nuevo mapper
-        Post post = postMapper.toEntity(postCreateRequest, author);
+        // Crear el post usando el nuevo mapper; con un título repetido el slug lleva el menor sufijo numérico libre
+        String slug = SlugUtils.generateUniqueSlug(postCreateRequest.getTitle(), postRepository::findSlugsWithPrefix);
+        Post post = postMapper.toEntity(postCreateRequest, author, slug);
 
         // Cargar y asignar categorías
         if (postCreateRequest.getCategoryIds() != null && !postCreateRequest.getCategoryIds().isEmpty()){
@@ -84,6 +121,8 @@ public class PostServiceImpl implements PostService {
         }
 
         Post savedPost = postRepository.save(post);
+        postTaxonomyCounter.applyChange(Set.of(), savedPost.getTags(), Set.of(), savedPost.getCategories());
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.CREATED));
 
         // Crear response y agregar categorías y tags
         PostResponse response = postMapper.toResponse(savedPost);
@@ -130,6 +169,10 @@ public class PostServiceImpl implements PostService {
             throw new BlogApiException(HttpStatus.FORBIDDEN, "Usted no tiene los permisos necesarios para realizar esta acción");
         }
 
+        //Copiamos las asociaciones actuales para ajustar los contadores de tags y categorías
+        Set<Tag> previousTags = new HashSet<>(post.getTags());
+        Set<Category> previousCategories = new HashSet<>(post.getCategories());
+
         // Actualizar categorías
         if (postUpdateRequest.getCategoryIds()!= null){
             Set<Category> categories = postUpdateRequest.getCategoryIds().stream()
@@ -149,10 +192,13 @@ public class PostServiceImpl implements PostService {
         }
 
         //Actualizamos el post con los datos del postUpdateRequest
-        postMapper.updateEntity(post, postUpdateRequest);
+        String slug = SlugUtils.generateUniqueSlug(postUpdateRequest.getTitle(), post.getSlug(), postRepository::findSlugsWithPrefix);
+        postMapper.updateEntity(post, postUpdateRequest, slug);
 
         //Guardamos el post ya con las categorías y tags validadas
         Post savedPost = postRepository.save(post);
+        postTaxonomyCounter.applyChange(previousTags, savedPost.getTags(), previousCategories, savedPost.getCategories());
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.UPDATED));
         
         // Crear response y agregar categorías y tags
         PostResponse response = postMapper.toResponse(savedPost);
@@ -182,68 +228,31 @@ public class PostServiceImpl implements PostService {
         return response;
     }
 
+    //Sin transacción: si el detalle está en cache la solicitud no toca la base de datos
     @Override
-    @Transactional(readOnly = true)
     public PostResponse getPostById(Long postId){
-        Post post = postRepository.findById(postId).orElseThrow(()-> new ResourceNotFoundException("Post", "Id", postId));
-        PostResponse response = postMapper.toResponse(post);
-        
-        // Cargar categorías y tags de manera separada
-        Set<Category> categories = categoryRepository.findCategoriesByPostId(postId);
-        Set<Tag> tags = tagRepository.findTagsByPostId(postId);
-        
-        // Mapear categorías
-        response.setCategories(categories.stream()
-                .map(category -> PostResponse.CategoryInfo.builder()
-                        .id(category.getId())
-                        .name(category.getName())
-                        .slug(category.getSlug())
-                        .build())
-                .collect(Collectors.toSet()));
-        
-        // Mapear tags
-        response.setTags(tags.stream()
-                .map(tag -> PostResponse.TagInfo.builder()
-                        .id(tag.getId())
-                        .name(tag.getName())
-                        .slug(tag.getSlug())
-                        .build())
-                .collect(Collectors.toSet()));
-        
+        PostResponse response = postResponseCache.getById(postId, this::loadPostResponseById);
+        //Sumamos las vistas que aún no se han volcado a la base de datos
+        response.setViewCount(response.getViewCount() + (int) postViewCounter.getPendingViews(postId));
         return response;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public PostResponse getPostBySlug (String slug){
-        Post post = postRepository.findBySlug(slug).orElseThrow(()-> new ResourceNotFoundException("Post", "Slug", slug));
-        PostResponse response = postMapper.toResponse(post);
-        
-        // Cargar categorías y tags de manera separada
-        Set<Category> categories = categoryRepository.findCategoriesByPostId(post.getId());
-        Set<Tag> tags = tagRepository.findTagsByPostId(post.getId());
-        
-        // Mapear categorías
-        response.setCategories(categories.stream()
-                .map(category -> PostResponse.CategoryInfo.builder()
-                        .id(category.getId())
-                        .name(category.getName())
-                        .slug(category.getSlug())
-                        .build())
-                .collect(Collectors.toSet()));
-        
-        // Mapear tags
-        response.setTags(tags.stream()
-                .map(tag -> PostResponse.TagInfo.builder()
-                        .id(tag.getId())
-                        .name(tag.getName())
-                        .slug(tag.getSlug())
-                        .build())
-                .collect(Collectors.toSet()));
-        
+        PostResponse response = postResponseCache.getBySlug(slug, this::loadPostResponseBySlug);
+        //Sumamos las vistas que aún no se han volcado a la base de datos
+        response.setViewCount(response.getViewCount() + (int) postViewCounter.getPendingViews(response.getId()));
         return response;
     }
 
+    private PostResponse loadPostResponseById(Long postId){
+        return postDetailAssembler.assembleById(postId);
+    }
+
+    private PostResponse loadPostResponseBySlug(String slug){
+        return postDetailAssembler.assembleBySlug(slug);
+    }
+
     @Override
     @Transactional
     public void deletePostById(Long postId){
@@ -262,18 +271,18 @@ public class PostServiceImpl implements PostService {
             throw new BlogApiException(HttpStatus.FORBIDDEN, "Usted no tiene los permisos necesarios para realizar esta acción");
         }
 
+        //Descontamos el post de sus tags y categorías antes de eliminarlo
+        postTaxonomyCounter.applyChange(post.getTags(), Set.of(), post.getCategories(), Set.of());
+
         //Eliminar post
         postRepository.delete(post);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangedEvent.Type.DELETED));
     }
 
     @Override
-    @Transactional
     public void incrementViewCount(Long postId){
-        Post post = postRepository.findById(postId)
-                .orElseThrow(()-> new ResourceNotFoundException("Post", "Id", postId));
-
-        post.setViewCount(post.getViewCount()+1);
-        postRepository.save(post);
+        //La vista se acumula en memoria y se vuelca en lote, la lectura no escribe en la base de datos
+        postViewCounter.increment(postId);
     }
 
     @Override
@@ -285,15 +294,21 @@ public class PostServiceImpl implements PostService {
 
         Pageable pageable = PageRequest.of(pageNo,pageSize,sort);
 
-        Page<Post> postPage = postRepository.findAll(pageable);
+        Page<PostSummaryProjection> postPage = postRepository.findAllSummaries(pageable);
 
         return createPostSummaryResponse(postPage);
 
     }
 
+    //Listado más consultado: carga única por página y refresco en segundo plano (ver ListingCache)
     @Override
-    @Transactional(readOnly = true)
     public PaginatedResponse<PostSummaryResponse> getAllPublishedPost(int pageNo, int pageSize, String sortBy, String sortDir) {
+        return listingCache.get("posts.published", contentVersions.current(ContentVersions.Resource.POSTS),
+                List.of(pageNo, pageSize, sortBy, sortDir.toLowerCase()),
+                () -> loadPublishedPosts(pageNo, pageSize, sortBy, sortDir));
+    }
+
+    private PaginatedResponse<PostSummaryResponse> loadPublishedPosts(int pageNo, int pageSize, String sortBy, String sortDir) {
 
         Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())?
                 Sort.by(sortBy).ascending():
@@ -301,11 +316,40 @@ public class PostServiceImpl implements PostService {
 
         Pageable pageable = PageRequest.of(pageNo,pageSize,sort);
 
-        Page<Post> pagePost = postRepository.findByPublishedTrue(pageable);
+        Page<PostSummaryProjection> pagePost = postRepository.findPublishedSummaries(pageable);
 
         return createPostSummaryResponse(pagePost);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<PostSummaryResponse> getPublishedPostsByCursor(String after, int pageSize, boolean includeTotal){
+
+        pageSize = CursorUtils.pageSize(pageSize);
+        CursorUtils.Cursor cursor = CursorUtils.decode(after);
+
+        //Se pide un elemento extra para saber si existe una página siguiente sin contar todos los posts
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<PostSummaryProjection> posts = cursor == null
+                ? postRepository.findPublishedSummariesFirstPage(limit)
+                : postRepository.findPublishedSummariesAfter(cursor.createdAt(), cursor.id(), limit);
+
+        boolean hasNext = posts.size() > pageSize;
+        if (hasNext){
+            posts = posts.subList(0, pageSize);
+        }
+
+        PostSummaryProjection last = posts.isEmpty() ? null : posts.get(posts.size() - 1);
+
+        return CursorPaginatedResponse.<PostSummaryResponse>builder()
+                .content(postSummaryAssembler.toSummaryResponses(posts))
+                .pageSize(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorUtils.encode(last.getCreatedAt(), last.getId()) : null)
+                .totalElements(includeTotal ? postRepository.countByPublishedTrue() : null)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PaginatedResponse<PostSummaryResponse> getPostByUserId(Long userId, int pageNo, int pageSize, String sortBy, String sortDir){
@@ -320,7 +364,7 @@ public class PostServiceImpl implements PostService {
 
         Pageable pageable = PageRequest.of(pageNo, pageSize,sort);
 
-        Page<Post> postPage = postRepository.findByAuthorId(userId, pageable);
+        Page<PostSummaryProjection> postPage = postRepository.findSummariesByAuthorId(userId, pageable);
 
         return createPostSummaryResponse(postPage);
     }
@@ -331,13 +375,36 @@ public class PostServiceImpl implements PostService {
         //Crear paginación
         Pageable pageable = PageRequest.of(pageNo, pageSize);
 
-        //Los resultados de la busqueda ponerlos en una pagina
-        Page<Post> postPage = postRepository.searchPosts(keyword, pageable);
+        //Con el índice de búsqueda listo se buscan los IDs en memoria ordenados por relevancia
+        // y solo se cargan de la base de datos los posts de la página
+        if (postSearchEngine.isReady()){
+            PostSearchIndex.SearchHits hits = postSearchEngine.search(keyword, (int) pageable.getOffset(), pageSize);
+            List<PostSummaryProjection> posts = findSummariesInOrder(hits.postIds());
+            return createPostSummaryResponse(new PageImpl<>(posts, pageable, hits.total()));
+        }
+
+        //Mientras el índice se construye se usa la búsqueda en base de datos
+        Page<PostSummaryProjection> postPage = postRepository.searchPostSummaries(keyword, pageable);
         
 
         return  createPostSummaryResponse(postPage);
     }
 
+    //Carga los resúmenes de los posts respetando el orden de los IDs recibidos
+    private List<PostSummaryProjection> findSummariesInOrder(List<Long> postIds){
+        if (postIds.isEmpty()){
+            return new ArrayList<>();
+        }
+
+        Map<Long, PostSummaryProjection> postsById = postRepository.findSummariesByIdIn(postIds).stream()
+                .collect(Collectors.toMap(PostSummaryProjection::getId, Function.identity()));
+
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(post -> post != null)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PaginatedResponse<PostSummaryResponse> getPostsByCategory(Long categoryId, int pageNo, int pageSize){
@@ -346,7 +413,7 @@ public class PostServiceImpl implements PostService {
         }
 
         Pageable pageable = PageRequest.of(pageNo,pageSize);
-        Page<Post> postPage = postRepository.findByCategoryId(categoryId, pageable);
+        Page<PostSummaryProjection> postPage = postRepository.findSummariesByCategoryId(categoryId, pageable);
 
         return createPostSummaryResponse(postPage);
     }
@@ -360,7 +427,7 @@ public class PostServiceImpl implements PostService {
         }
 
         Pageable pageable = PageRequest.of(pageNo,pageSize);
-        Page<Post> postPage = postRepository.findByTagId(tagId, pageable);
+        Page<PostSummaryProjection> postPage = postRepository.findSummariesByTagId(tagId, pageable);
         return createPostSummaryResponse(postPage);
     }
 
@@ -370,39 +437,22 @@ public class PostServiceImpl implements PostService {
         return postRepository.existsBySlug(slug);
     }
 
-    //Método auxiliar para convertir Posts en PostSummaryResponse y devolverlos paginados
-    private PaginatedResponse<PostSummaryResponse> createPostSummaryResponse(Page<Post> postPage){
-        List<Post> posts = postPage.getContent();
-
-        List<PostSummaryResponse> content = posts.stream()
-                .map(post -> {
-                    PostSummaryResponse response = postMapper.toSummaryResponse(post);
-                    
-                    // Cargar categorías y tags de manera separada
-                    Set<Category> categories = categoryRepository.findCategoriesByPostId(post.getId());
-                    Set<Tag> tags = tagRepository.findTagsByPostId(post.getId());
-                    
-                    // Mapear categorías
-                    response.setCategories(categories.stream()
-                            .map(category -> PostSummaryResponse.CategoryInfo.builder()
-                                    .id(category.getId())
-                                    .name(category.getName())
-                                    .slug(category.getSlug())
-                                    .build())
-                            .collect(Collectors.toSet()));
-                    
-                    // Mapear tags
-                    response.setTags(tags.stream()
-                            .map(tag -> PostSummaryResponse.TagInfo.builder()
-                                    .id(tag.getId())
-                                    .name(tag.getName())
-                                    .slug(tag.getSlug())
-                                    .build())
-                            .collect(Collectors.toSet()));
-                    
-                    return response;
-                })
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsPublishedById(Long postId){
+        return postRepository.existsByIdAndPublishedTrue(postId);
+    }
+
+    //El contenido se copia por bloques desde JDBC; si el post se eliminó después de verificarlo no se escribe nada
+    @Override
+    public void writePublishedContent(Long postId, Writer writer){
+        postContentStreamer.writePublishedContent(postId, writer);
+    }
+
+    //Método auxiliar para convertir las proyecciones de resumen en PostSummaryResponse y devolverlas paginadas
+    private PaginatedResponse<PostSummaryResponse> createPostSummaryResponse(Page<PostSummaryProjection> postPage){
+        //Categorías y tags se cargan en bloque para toda la página
+        List<PostSummaryResponse> content = postSummaryAssembler.toSummaryResponses(postPage.getContent());
 
         return PaginatedResponse.<PostSummaryResponse>builder()
                 .content(content)
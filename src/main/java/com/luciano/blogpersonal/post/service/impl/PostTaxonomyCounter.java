@@ -0,0 +1,128 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.category.model.Category;
+import com.luciano.blogpersonal.category.repository.CategoryRepository;
+import com.luciano.blogpersonal.post.event.TaxonomyCountsChangedEvent;
+import com.luciano.blogpersonal.tag.model.Tag;
+import com.luciano.blogpersonal.tag.repository.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene los contadores de posts de tags y categorías (columna post_count).
+ * Los cambios de asociaciones de un post se aplican como incrementos dentro de la misma transacción,
+ * y una conciliación periódica corrige cualquier diferencia con las tablas de relación.
+ */
+@Component
+public class PostTaxonomyCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(PostTaxonomyCounter.class);
+
+    private final TagRepository tagRepository;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public PostTaxonomyCounter(TagRepository tagRepository, CategoryRepository categoryRepository, ApplicationEventPublisher eventPublisher){
+        this.tagRepository = tagRepository;
+        this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Ajusta los contadores según las asociaciones de un post antes y después del cambio
+     * @param oldTags Tags anteriores del post (vacío si el post es nuevo)
+     * @param newTags Tags actuales del post (vacío si el post se elimina)
+     * @param oldCategories Categorías anteriores del post
+     * @param newCategories Categorías actuales del post
+     */
+    @Transactional
+    public void applyChange(Collection<Tag> oldTags, Collection<Tag> newTags,
+                            Collection<Category> oldCategories, Collection<Category> newCategories){
+        Set<Long> oldTagIds = tagIds(oldTags);
+        Set<Long> newTagIds = tagIds(newTags);
+        Set<Long> oldCategoryIds = categoryIds(oldCategories);
+        Set<Long> newCategoryIds = categoryIds(newCategories);
+
+        //Solo se tocan las filas que realmente entran o salen del post
+        Set<Long> addedTags = difference(newTagIds, oldTagIds);
+        Set<Long> removedTags = difference(oldTagIds, newTagIds);
+        Set<Long> addedCategories = difference(newCategoryIds, oldCategoryIds);
+        Set<Long> removedCategories = difference(oldCategoryIds, newCategoryIds);
+
+        if (!addedTags.isEmpty()){
+            tagRepository.addToPostCount(addedTags, 1);
+        }
+        if (!removedTags.isEmpty()){
+            tagRepository.addToPostCount(removedTags, -1);
+        }
+        if (!addedCategories.isEmpty()){
+            categoryRepository.addToPostCount(addedCategories, 1);
+        }
+        if (!removedCategories.isEmpty()){
+            categoryRepository.addToPostCount(removedCategories, -1);
+        }
+
+        Set<Long> changedTags = union(addedTags, removedTags);
+        Set<Long> changedCategories = union(addedCategories, removedCategories);
+        if (!changedTags.isEmpty() || !changedCategories.isEmpty()){
+            eventPublisher.publishEvent(new TaxonomyCountsChangedEvent(changedTags, changedCategories));
+        }
+    }
+
+    /**
+     * Descuenta los posts de un autor que se eliminarán en cascada junto con él
+     * @param authorId ID del autor
+     */
+    @Transactional
+    public void removePostsOfAuthor(Long authorId){
+        tagRepository.subtractPostsOfAuthor(authorId);
+        categoryRepository.subtractPostsOfAuthor(authorId);
+        eventPublisher.publishEvent(TaxonomyCountsChangedEvent.all());
+    }
+
+    /**
+     * Recalcula los contadores a partir de las tablas de relación.
+     * Solo actualiza las filas cuyo contador difiere del valor real
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.taxonomy.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile(){
+        int tags = tagRepository.reconcilePostCounts();
+        int categories = categoryRepository.reconcilePostCounts();
+        if (tags > 0 || categories > 0){
+            log.info("Contadores de posts corregidos: {} tags y {} categorías", tags, categories);
+            eventPublisher.publishEvent(TaxonomyCountsChangedEvent.all());
+        }
+    }
+
+    private static Set<Long> tagIds(Collection<Tag> tags){
+        return tags == null ? Set.of() : tags.stream().map(Tag::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<Long> categoryIds(Collection<Category> categories){
+        return categories == null ? Set.of() : categories.stream().map(Category::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<Long> union(Set<Long> first, Set<Long> second){
+        Set<Long> result = new HashSet<>(first);
+        result.addAll(second);
+        return result;
+    }
+
+    private static Set<Long> difference(Set<Long> from, Set<Long> remove){
+        Set<Long> result = new HashSet<>(from);
+        result.removeAll(remove);
+        return result;
+    }
+}
@@ -0,0 +1,140 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.post.event.PostViewsFlushedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador de vistas en memoria con escritura diferida.
+ * Las lecturas de un post solo incrementan un LongAdder (sin bloqueos ni escrituras a la base de datos)
+ * y los incrementos acumulados se vuelcan periódicamente con un único UPDATE en lote.
+ */
+@Component
+public class PostViewCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(PostViewCounter.class);
+
+    private static final String FLUSH_SQL = "UPDATE posts SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    //Vistas pendientes de volcar por post. LongAdder reparte los incrementos concurrentes en celdas internas
+    private final Map<Long, PendingViews> pendingViews = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PostViewCounter(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher){
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Registra una vista del post
+     * @param postId ID del post visto
+     */
+    public void increment(Long postId){
+        add(postId, 1);
+    }
+
+    //Camino rápido sin bloqueos: get y LongAdder.add; solo el primer incremento de un post pasa por computeIfAbsent.
+    // Si flush retiró el contador mientras tanto, lo sumado se pasa al contador vigente para no perderlo
+    private void add(Long postId, long views){
+        PendingViews pending = pendingViews.get(postId);
+        if (pending == null){
+            pending = pendingViews.computeIfAbsent(postId, id -> new PendingViews());
+        }
+        pending.views.add(views);
+
+        if (pending.retired){
+            long moved = pending.views.sumThenReset();
+            if (moved != 0){
+                add(postId, moved);
+            }
+        }
+    }
+
+    /**
+     * Vistas registradas que aún no se han volcado a la base de datos
+     * @param postId ID del post
+     * @return cantidad de vistas pendientes
+     */
+    public long getPendingViews(Long postId){
+        PendingViews pending = pendingViews.get(postId);
+        return pending != null ? pending.views.sum() : 0;
+    }
+
+    /**
+     * Vuelca los incrementos acumulados con un único UPDATE en lote
+     */
+    @Scheduled(fixedDelayString = "${app.view-count.flush-interval-ms:5000}")
+    public synchronized void flush(){
+        List<Object[]> batch = new ArrayList<>();
+
+        for (Map.Entry<Long, PendingViews> entry : pendingViews.entrySet()){
+            long delta = entry.getValue().views.sumThenReset();
+            if (delta > 0){
+                batch.add(new Object[]{delta, entry.getKey()});
+            } else {
+                //Se eliminan los posts sin vistas nuevas para que el mapa no crezca indefinidamente
+                retire(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (batch.isEmpty()){
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException ex){
+            //Si el volcado falla se devuelven los incrementos al contador para reintentarlo en el siguiente ciclo
+            for (Object[] row : batch){
+                add((Long) row[1], (Long) row[0]);
+            }
+            log.warn("No se pudo volcar el contador de vistas de {} posts", batch.size(), ex);
+            return;
+        }
+
+        Map<Long, Long> flushedViews = new HashMap<>();
+        for (Object[] row : batch){
+            flushedViews.put((Long) row[1], (Long) row[0]);
+        }
+        eventPublisher.publishEvent(new PostViewsFlushedEvent(flushedViews));
+    }
+
+    //Primero se marca el contador como retirado y después se quita del mapa. Un incremento que llegó a sumarse en él
+    // lo recoge esta última lectura o, si ya vio la marca, lo pasa él mismo al contador nuevo; sumThenReset
+    // vacía cada celda de forma atómica, así la misma vista no se mueve dos veces
+    private void retire(Long postId, PendingViews pending){
+        pending.retired = true;
+        pendingViews.remove(postId, pending);
+        long late = pending.views.sumThenReset();
+        if (late != 0){
+            add(postId, late);
+        }
+    }
+
+    //Vuelca lo pendiente antes de que se cierre la aplicación
+    @PreDestroy
+    public void flushOnShutdown(){
+        flush();
+    }
+
+    private static final class PendingViews {
+        private final LongAdder views = new LongAdder();
+        private volatile boolean retired;
+    }
+}
@@ -0,0 +1,175 @@
+package com.luciano.blogpersonal.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.luciano.blogpersonal.user.event.UserSecurityChangedEvent;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache de tokens ya verificados.
+ * Un token válido se parsea y su usuario se carga de la base de datos solo la primera vez; las siguientes
+ * solicitudes con el mismo token obtienen el UserDetails de memoria. Cada entrada vence a los pocos minutos
+ * (o antes si el token expira) y se descarta cuando cambian los datos de seguridad del usuario.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    //Franjas de marcas de invalidación; cada usuario usa la de su nombre
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final JwtTokenProvider tokenProvider;
+    private final UserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final long ttlNanos;
+    private final Cache<String, CachedAuthentication> cache;
+
+    //Momento (System.nanoTime) de la última invalidación de cada franja de usuarios.
+    // Una autenticación que empezó antes de invalidarse su usuario no se guarda porque pudo leer datos viejos
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    @Autowired
+    public JwtAuthenticationCache(JwtTokenProvider tokenProvider,
+                                  UserDetailsService userDetailsService,
+                                  TokenVersionRegistry tokenVersionRegistry,
+                                  @Value("${app.jwt.auth-cache.ttl:5m}") Duration ttl,
+                                  @Value("${app.jwt.auth-cache.max-size:10000}") long maxSize){
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedAuthentication entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedAuthentication entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedAuthentication entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        long createdAt = System.nanoTime();
+        for (int stripe = 0; stripe < INVALIDATION_STRIPES; stripe++){
+            invalidatedAt.set(stripe, createdAt);
+        }
+    }
+
+    /**
+     * Obtiene los datos del usuario autenticado por un token
+     * @param token Token JWT
+     * @return UserDetails del usuario, o null si el token no es válido
+     */
+    public UserDetails authenticate(String token){
+        CachedAuthentication cached = cache.getIfPresent(token);
+        if (cached != null){
+            return cached.userDetails;
+        }
+
+        long loadStartedAt = System.nanoTime();
+
+        //Un único parseo verifica la firma, la expiración y obtiene el usuario
+        Claims claims = tokenProvider.parseClaims(token);
+        if (claims == null){
+            return null;
+        }
+
+        UserDetails userDetails;
+        Long tokenVersion = tokenProvider.isStatelessClaimsEnabled() ? tokenProvider.getTokenVersion(claims) : null;
+        Long currentVersion = tokenVersion != null ? tokenVersionRegistry.currentVersion(tokenProvider.getUserId(claims)) : null;
+        String role = tokenProvider.getRole(claims);
+
+        if (currentVersion != null && role != null){
+            //El token trae id, rol y versión: se autentica sin consultar la base de datos
+            if (!currentVersion.equals(tokenVersion)){
+                return null; //Token emitido antes de un cambio de seguridad del usuario
+            }
+            userDetails = User.withUsername(claims.getSubject())
+                    .password("")
+                    .authorities(role)
+                    .build();
+        } else {
+            //Token sin claims de usuario, o usuario que aún no está en la copia en memoria
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        //La entrada nunca vive más que el token
+        long ttl = ttlNanos;
+        if (claims.getExpiration() != null){
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            ttl = Math.min(ttl, TimeUnit.MILLISECONDS.toNanos(remainingMs));
+        }
+        if (ttl > 0){
+            store(token, new CachedAuthentication(userDetails, ttl), loadStartedAt);
+        }
+        return userDetails;
+    }
+
+    /**
+     * Descarta todas las autenticaciones cacheadas de un usuario
+     * @param username Nombre de usuario
+     */
+    public void evictUser(String username){
+        //La marca va antes de descartar, así una carga en curso no vuelve a guardar la entrada vieja
+        invalidatedAt.set(stripeOf(username), System.nanoTime());
+        cache.asMap().values().removeIf(entry -> entry.userDetails.getUsername().equals(username));
+    }
+
+    //Se descarta después del commit para que la siguiente carga lea los datos ya confirmados
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event){
+        evictUser(event.getUsername());
+    }
+
+    private void store(String token, CachedAuthentication entry, long loadStartedAt){
+        String username = entry.userDetails.getUsername();
+        if (isInvalidatedSince(username, loadStartedAt)){
+            return;
+        }
+        cache.put(token, entry);
+
+        //Si el usuario se invalidó mientras se guardaba, la entrada puede estar desactualizada
+        if (isInvalidatedSince(username, loadStartedAt)){
+            cache.asMap().remove(token, entry);
+        }
+    }
+
+    private boolean isInvalidatedSince(String username, long loadStartedAt){
+        return invalidatedAt.get(stripeOf(username)) - loadStartedAt >= 0;
+    }
+
+    private static int stripeOf(String username){
+        int hash = username.hashCode() * 0x9E3779B9;
+        return (hash >>> 22) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private static final class CachedAuthentication {
+        private final UserDetails userDetails;
+        private final long ttlNanos;
+
+        private CachedAuthentication(UserDetails userDetails, long ttlNanos){
+            this.userDetails = userDetails;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
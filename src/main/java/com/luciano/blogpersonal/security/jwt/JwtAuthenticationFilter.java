@@ -9,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -21,10 +20,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtTokenProvider tokenProvider;
-
-    @Autowired
-    private UserDetailsService userDetailsService;
+    private JwtAuthenticationCache authenticationCache;
 
     /**
      *
@@ -40,12 +36,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         //Obtener el token JWT del encabezado Authorization
         String token = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(token) && tokenProvider.validateToken(token)){
+        //Verificar el token y obtener el usuario (desde la cache o, la primera vez, desde la base de datos)
+        UserDetails userDetails = StringUtils.hasText(token) ? authenticationCache.authenticate(token) : null;
 
-            //Obtener el nombre de usuario del token
-            String username = tokenProvider.getUsernameFromToken(token);
-            //Cargar el usuario desde la base de datos
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (userDetails != null){
             //Crear la autenticación mandando los detalles del usuario, el rol del usuario y la contrasena en null porque el usuario ya está autenticado.
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             //Almacena detalles de la autenticación como el ip y entre otras cosas en el objeto WebAuthenticationDetailSource, el cual se almacena en el SecurityContext.
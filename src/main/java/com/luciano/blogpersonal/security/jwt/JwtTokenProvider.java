@@ -3,6 +3,7 @@ package com.luciano.blogpersonal.security.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -13,23 +14,30 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
-    //Llama a un valor declarado en application properties
-    @Value("${app.jwt-secret}")
-    private String jwtSecret;
+    //Claims opcionales para autenticar sin consultar la base de datos
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
 
-    //Llama a un valor declarado en application properties
-    @Value("${app.jwt-expiration-milliseconds}")
-    private long jwtExpirationInMs;
+    private final long jwtExpirationInMs;
+    private final boolean statelessClaims;
 
-    /**
-     * Genera una clave segura para firmar el token
-     *
-     * @return Key generada a partir del secret
-     */
-    private SecretKey getSigninKey(){
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    //La clave y el parser se construyen una sola vez, no en cada token
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+
+    @Autowired
+    public JwtTokenProvider(@Value("${app.jwt-secret}") String jwtSecret, //Llama a un valor declarado en application properties
+                            @Value("${app.jwt-expiration-milliseconds}") long jwtExpirationInMs, //Llama a un valor declarado en application properties
+                            @Value("${app.jwt.stateless-claims:false}") boolean statelessClaims){
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.statelessClaims = statelessClaims;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
+
     /**
      * Genera un token JWT a partir del nombre de usuario
      * @param username Nombre de usuario
@@ -43,52 +51,117 @@ public class JwtTokenProvider {
                 .subject(username) //Lo declaramos el sujeto
                 .issuedAt(new Date()) //Le establecemos la fecha de emisión
                 .expiration(expiryDate) //Le establecemos la fecha de expiración
-                .signWith(getSigninKey()) // Aseguramos el token con una clave secreta
+                .signWith(signingKey) // Aseguramos el token con una clave secreta
                 .compact();
     }
 
     /**
-     * Extrae el nombre de usuario del token JWT
-     * @param token Token JWT
-     * @return Nombre de usuario extraido
+     * Genera un token JWT que además del usuario incluye su id, rol y versión de seguridad,
+     * si app.jwt.stateless-claims está activo. En caso contrario genera el token solo con el usuario.
+     * @param username Nombre de usuario
+     * @param userId ID del usuario
+     * @param role Rol del usuario
+     * @param tokenVersion Versión de seguridad del usuario
+     * @return Token JWT generado
      */
+    public String generateToken(String username, Long userId, String role, long tokenVersion){
+        if (!statelessClaims){
+            return generateToken(username);
+        }
 
-    public String getUsernameFromToken(String token){
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigninKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Date currentDate = new Date(); //Fecha de creación
+        Date expiryDate = new Date(currentDate.getTime()+jwtExpirationInMs); //Fecha de expiración
 
-        return claims.getSubject();
+        return Jwts.builder()
+                .subject(username)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLE, role)
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion)
+                .issuedAt(currentDate)
+                .expiration(expiryDate)
+                .signWith(signingKey)
+                .compact();
     }
 
     /**
-     * Valida un token JWT
-     * @param token Token JWT a validar
-     * @return true si el token es válido, false en caso contrario
+     * Indica si los tokens con claims de usuario pueden autenticarse sin consultar la base de datos
      */
-    public boolean validateToken(String token){
+    public boolean isStatelessClaimsEnabled(){
+        return statelessClaims;
+    }
+
+    /**
+     * Obtiene el id del usuario de los claims (null si el token no lo incluye)
+     */
+    public Long getUserId(Claims claims){
+        return toLong(claims.get(CLAIM_USER_ID));
+    }
+
+    /**
+     * Obtiene la versión de seguridad de los claims (null si el token no la incluye)
+     */
+    public Long getTokenVersion(Claims claims){
+        return toLong(claims.get(CLAIM_TOKEN_VERSION));
+    }
+
+    /**
+     * Obtiene el rol de los claims (null si el token no lo incluye)
+     */
+    public String getRole(Claims claims){
+        Object role = claims.get(CLAIM_ROLE);
+        return role instanceof String ? (String) role : null;
+    }
+
+    //Los números del JSON pueden llegar como Integer o Long según su tamaño
+    private static Long toLong(Object value){
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    /**
+     * Verifica el token y obtiene sus claims con un único parseo
+     * @param token Token JWT
+     * @return Claims del token, o null si el token no es válido
+     */
+    public Claims parseClaims(String token){
         try {
-            Jwts.parser()
-                    .verifyWith(getSigninKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (SignatureException ex) {
             // JWT con firma invalida
-            return false;
+            return null;
         } catch (MalformedJwtException ex){
             // JWT malformado
-            return  false;
+            return null;
         } catch (ExpiredJwtException ex) {
             // JWT expirado
-            return false;
+            return null;
         }catch (UnsupportedJwtException ex){
             // JWT no soportado
-            return false;
+            return null;
         }catch (IllegalArgumentException ex){
-            return false;
+            return null;
         }
     }
+
+    /**
+     * Extrae el nombre de usuario del token JWT
+     * @param token Token JWT
+     * @return Nombre de usuario extraido
+     */
+
+    public String getUsernameFromToken(String token){
+        Claims claims = jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
+
+        return claims.getSubject();
+    }
+
+    /**
+     * Valida un token JWT
+     * @param token Token JWT a validar
+     * @return true si el token es válido, false en caso contrario
+     */
+    public boolean validateToken(String token){
+        return parseClaims(token) != null;
+    }
 }
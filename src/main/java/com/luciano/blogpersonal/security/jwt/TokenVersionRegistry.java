@@ -0,0 +1,77 @@
+package com.luciano.blogpersonal.security.jwt;
+
+import com.luciano.blogpersonal.user.dto.UserTokenVersionProjection;
+import com.luciano.blogpersonal.user.event.UserSecurityChangedEvent;
+import com.luciano.blogpersonal.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copia en memoria de la versión de seguridad de cada usuario activo.
+ * Permite validar los tokens con claims de usuario sin consultar la base de datos en cada solicitud.
+ * Se recarga completa de forma periódica y se actualiza al instante cuando cambia la seguridad de un usuario.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+
+    //ID del usuario -> versión de seguridad vigente. Los usuarios inactivos o eliminados no aparecen
+    private volatile Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    @Autowired
+    public TokenVersionRegistry(UserRepository userRepository, JwtTokenProvider tokenProvider){
+        this.userRepository = userRepository;
+        this.enabled = tokenProvider.isStatelessClaimsEnabled();
+    }
+
+    /**
+     * Versión de seguridad vigente de un usuario
+     * @param userId ID del usuario
+     * @return la versión, o null si el usuario no está en la copia (aún no cargada, nuevo, inactivo o eliminado)
+     */
+    public Long currentVersion(Long userId){
+        return loaded ? versions.get(userId) : null;
+    }
+
+    /**
+     * Recarga la copia completa desde la base de datos
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.token-version-refresh-ms:60000}")
+    public synchronized void refresh(){
+        if (!enabled){
+            return;
+        }
+
+        Map<Long, Long> snapshot = new ConcurrentHashMap<>();
+        for (UserTokenVersionProjection user : userRepository.findActiveTokenVersions()){
+            snapshot.put(user.getId(), user.getTokenVersion());
+        }
+        versions = snapshot;
+        loaded = true;
+    }
+
+    //Se sincroniza con refresh para que una recarga en curso no pise el cambio
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserSecurityChanged(UserSecurityChangedEvent event){
+        if (!enabled || event.getUserId() == null){
+            return;
+        }
+
+        Optional<Long> version = userRepository.findActiveTokenVersion(event.getUserId());
+        if (version.isPresent()){
+            versions.put(event.getUserId(), version.get());
+        } else {
+            versions.remove(event.getUserId());
+        }
+    }
+}
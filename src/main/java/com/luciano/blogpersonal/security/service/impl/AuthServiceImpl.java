@@ -71,7 +71,7 @@ public class AuthServiceImpl implements AuthService {
             User user = userService.getUserByUsernameOrEmail(userDetails.getUsername());
 
             //Generar Token
-            String token = tokenProvider.generateToken(userDetails.getUsername());
+            String token = tokenProvider.generateToken(userDetails.getUsername(), user.getId(), user.getRole(), user.getTokenVersion());
 
             return JwtAuthResponse.builder()
                     .accessToken(token)
@@ -3,16 +3,19 @@ package com.luciano.blogpersonal.tag.controller;
 import com.luciano.blogpersonal.common.dto.ApiResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.utils.AppConstants;
+import com.luciano.blogpersonal.common.web.ContentVersions;
 import com.luciano.blogpersonal.tag.dto.TagCreateRequest;
 import com.luciano.blogpersonal.tag.dto.TagResponse;
 import com.luciano.blogpersonal.tag.dto.TagUpdateRequest;
 import com.luciano.blogpersonal.tag.service.TagService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,10 +29,12 @@ import java.util.List;
 
 public class TagController {
     private final TagService tagService;
+    private final ContentVersions contentVersions;
 
     @Autowired
-    public TagController(TagService tagService) {
+    public TagController(TagService tagService, ContentVersions contentVersions) {
         this.tagService = tagService;
+        this.contentVersions = contentVersions;
     }
 
     /**
@@ -40,9 +45,14 @@ public class TagController {
     public ResponseEntity<PaginatedResponse<TagResponse>> getAllTags(@RequestParam(value = "pageNo", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER, required = false) int pageNo,
                                                                      @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
                                                                      @RequestParam(value = "sortBy", defaultValue = AppConstants.DEFAULT_SORT_BY, required = false) String sortBy,
-                                                                     @RequestParam(value = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir){
+                                                                     @RequestParam(value = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir,
+                                                                     WebRequest webRequest){
+        //Respuesta 304 antes de consultar si el cliente ya tiene la versión actual de los tags
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.TAGS, false)){
+            return null;
+        }
         PaginatedResponse<TagResponse> tags = tagService.getAllTags(pageNo, pageSize, sortBy, sortDir);
-        return ResponseEntity.ok(tags);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(tags);
 
     }
 
@@ -51,9 +61,12 @@ public class TagController {
      * GET /api/tags/all
      */
     @GetMapping("/all")
-    public ResponseEntity<List<TagResponse>> getAllTags(){
+    public ResponseEntity<List<TagResponse>> getAllTags(WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.TAGS, false)){
+            return null;
+        }
         List<TagResponse> tags = tagService.getAllTags();
-        return ResponseEntity.ok(tags);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(tags);
     }
 
     /**
@@ -61,9 +74,12 @@ public class TagController {
      * GET /api/tags/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TagResponse> getTagById (@PathVariable Long id){
+    public ResponseEntity<TagResponse> getTagById (@PathVariable Long id, WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.TAGS, false)){
+            return null;
+        }
         TagResponse tag = tagService.getTagById(id);
-       return ResponseEntity.ok(tag);
+       return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(tag);
     }
 
     /**
@@ -71,9 +87,12 @@ public class TagController {
      * GET /api/tags/slug/{slug}
      */
     @GetMapping("/slug/{slug}")
-    public ResponseEntity<TagResponse> getTagBySlug (@PathVariable String slug){
+    public ResponseEntity<TagResponse> getTagBySlug (@PathVariable String slug, WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.TAGS, false)){
+            return null;
+        }
         TagResponse tag = tagService.getTagBySlug(slug);
-        return ResponseEntity.ok(tag);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(tag);
     }
 
     /**
@@ -81,9 +100,12 @@ public class TagController {
      * GET /api/tags/popular
      */
     @GetMapping("/popular")
-    public ResponseEntity<List<TagResponse>> getPopularTags (@RequestParam (value = "limit", defaultValue = "10", required = false)int limit){
+    public ResponseEntity<List<TagResponse>> getPopularTags (@RequestParam (value = "limit", defaultValue = "10", required = false)int limit, WebRequest webRequest){
+        if (contentVersions.checkNotModified(webRequest, ContentVersions.Resource.TAGS, false)){
+            return null;
+        }
         List<TagResponse> tags = tagService.getPopularTags(limit);
-        return ResponseEntity.ok(tags);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(tags);
     }
 
     /**
@@ -0,0 +1,12 @@
+package com.luciano.blogpersonal.tag.dto;
+
+/**
+ * Proyección con la información básica de un tag asociado a un post.
+ * Permite cargar los tags de varios posts en una sola consulta.
+ */
+public interface PostTagProjection {
+    Long getPostId();
+    Long getId();
+    String getName();
+    String getSlug();
+}
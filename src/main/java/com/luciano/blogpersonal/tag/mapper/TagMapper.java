@@ -1,24 +1,15 @@
 package com.luciano.blogpersonal.tag.mapper;
 
-import com.luciano.blogpersonal.category.repository.CategoryRepository;
-import com.luciano.blogpersonal.common.utils.SlugUtils;
 import com.luciano.blogpersonal.tag.dto.TagCreateRequest;
 import com.luciano.blogpersonal.tag.dto.TagResponse;
 import com.luciano.blogpersonal.tag.dto.TagUpdateRequest;
 import com.luciano.blogpersonal.tag.model.Tag;
 
-import com.luciano.blogpersonal.tag.repository.TagRepository;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TagMapper {
 
-    private final TagRepository tagRepository;
-
-    public TagMapper(TagRepository tagRepository) {
-        this.tagRepository = tagRepository;
-    }
-
 
     public Tag toEntity(TagCreateRequest tagCreateRequest, String slug){
 
@@ -59,7 +50,7 @@ public class TagMapper {
                 .slug(tag.getSlug())
                 .createdAt(tag.getCreatedAt())
                 .updatedAt(tag.getUpdatedAt())
-                .postCount((int)tagRepository.countPostsByTagId(tag.getId()))
+                .postCount((int) tag.getPostCount()) //Contador mantenido en la tabla, sin consulta por tag
                 .build();
     }
 
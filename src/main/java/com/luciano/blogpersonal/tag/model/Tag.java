@@ -17,7 +17,9 @@ import java.util.Set;
 @AllArgsConstructor
 
 @Entity
-@Table(name = "tags")
+@Table(name = "tags", indexes = {
+        @Index(name = "idx_tags_post_count", columnList = "post_count")
+})
 
 public class Tag {
 
@@ -37,6 +39,11 @@ public class Tag {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    //Cantidad de posts asociados. Solo se modifica con las consultas de incremento y conciliación del repositorio,
+    // por eso no se incluye en los UPDATE de la entidad
+    @Column(name = "post_count", nullable = false, updatable = false)
+    private long postCount = 0;
+
 
     @PrePersist
     protected void onCreate() {
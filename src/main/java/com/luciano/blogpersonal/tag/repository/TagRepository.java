@@ -1,11 +1,16 @@
 package com.luciano.blogpersonal.tag.repository;
 
+import com.luciano.blogpersonal.tag.dto.PostTagProjection;
+import com.luciano.blogpersonal.common.dto.PostCountProjection;
 import com.luciano.blogpersonal.tag.model.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -21,12 +26,43 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     boolean existsBySlug(String slug);
 
-    @Query("SELECT t FROM Tag t ORDER BY (SELECT COUNT(pt) FROM Post p JOIN p.tags pt WHERE pt.id = t.id) DESC")
-    List<Tag> findAllOrderByPostCountDesc();
+    //Slugs ocupados por el slug base y sus variantes con sufijo, para elegir el siguiente libre con una sola consulta
+    @Query("SELECT t.slug FROM Tag t WHERE t.slug = :slug OR t.slug LIKE CONCAT(:slug, '-%')")
+    List<String> findSlugsWithPrefix(@Param("slug") String slug);
+
+    @Query("SELECT t FROM Tag t ORDER BY t.postCount DESC, t.id ASC")
+    List<Tag> findAllOrderByPostCountDesc(Pageable pageable);
+
+    //Contadores para el ranking de populares en memoria
+    @Query("SELECT t.id AS id, t.postCount AS postCount FROM Tag t")
+    List<PostCountProjection> findAllPostCounts();
+
+    @Query("SELECT t.id AS id, t.postCount AS postCount FROM Tag t WHERE t.id IN :ids")
+    List<PostCountProjection> findPostCountsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.id = :tagId")
     long countPostsByTagId(@Param("tagId")Long tagId);
 
     @Query("SELECT t FROM Tag t JOIN Post p ON t MEMBER OF p.tags WHERE p.id = :postId")
     Set<Tag> findTagsByPostId(@Param("postId") Long postId);
+
+    @Query("SELECT p.id AS postId, t.id AS id, t.name AS name, t.slug AS slug FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+    List<PostTagProjection> findTagsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Mantenimiento del contador de posts por tag
+    @Modifying
+    @Query("UPDATE Tag t SET t.postCount = t.postCount + :delta WHERE t.id IN :tagIds")
+    int addToPostCount(@Param("tagIds") Collection<Long> tagIds, @Param("delta") long delta);
+
+    //Descuenta los posts de un autor antes de eliminarlos en cascada junto con él
+    @Modifying
+    @Query("UPDATE Tag t SET t.postCount = t.postCount - " +
+            "(SELECT COUNT(p) FROM Post p JOIN p.tags pt WHERE pt.id = t.id AND p.author.id = :authorId) " +
+            "WHERE t.id IN (SELECT pt.id FROM Post p JOIN p.tags pt WHERE p.author.id = :authorId)")
+    int subtractPostsOfAuthor(@Param("authorId") Long authorId);
+
+    @Modifying
+    @Query(value = "UPDATE tags t SET t.post_count = (SELECT COUNT(*) FROM post_tags pt WHERE pt.tag_id = t.id) " +
+            "WHERE t.post_count <> (SELECT COUNT(*) FROM post_tags pt WHERE pt.tag_id = t.id)", nativeQuery = true)
+    int reconcilePostCounts();
 }
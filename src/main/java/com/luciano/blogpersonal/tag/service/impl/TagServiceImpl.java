@@ -1,10 +1,15 @@
 package com.luciano.blogpersonal.tag.service.impl;
 
+import com.luciano.blogpersonal.common.cache.ListingCache;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.exception.BlogApiException;
 import com.luciano.blogpersonal.common.exception.ResourceNotFoundException;
 import com.luciano.blogpersonal.common.utils.AppConstants;
 import com.luciano.blogpersonal.common.utils.SlugUtils;
+import com.luciano.blogpersonal.common.web.ContentVersions;
+import com.luciano.blogpersonal.post.event.TaxonomyCountsChangedEvent;
+import com.luciano.blogpersonal.post.event.TaxonomyRenamedEvent;
+import com.luciano.blogpersonal.post.service.impl.PopularTaxonomyIndex;
 import com.luciano.blogpersonal.tag.dto.TagCreateRequest;
 import com.luciano.blogpersonal.tag.dto.TagResponse;
 import com.luciano.blogpersonal.tag.dto.TagUpdateRequest;
@@ -13,6 +18,7 @@ import com.luciano.blogpersonal.tag.model.Tag;
 import com.luciano.blogpersonal.tag.repository.TagRepository;
 import com.luciano.blogpersonal.tag.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +31,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,11 +42,19 @@ public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
     private final TagMapper tagMapper;
+    private final PopularTaxonomyIndex popularTaxonomyIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListingCache listingCache;
+    private final ContentVersions contentVersions;
 
     @Autowired
-    TagServiceImpl(TagRepository tagRepository, TagMapper tagMapper){
+    TagServiceImpl(TagRepository tagRepository, TagMapper tagMapper, PopularTaxonomyIndex popularTaxonomyIndex, ApplicationEventPublisher eventPublisher, ListingCache listingCache, ContentVersions contentVersions){
         this.tagRepository = tagRepository;
         this.tagMapper = tagMapper;
+        this.popularTaxonomyIndex = popularTaxonomyIndex;
+        this.eventPublisher = eventPublisher;
+        this.listingCache = listingCache;
+        this.contentVersions = contentVersions;
     }
 
     @Override
@@ -46,11 +64,12 @@ public class TagServiceImpl implements TagService {
         if (tagRepository.existsByName(tagCreateRequest.getName())){
             throw new BlogApiException(HttpStatus.BAD_REQUEST, AppConstants.TAG_NAME_EXISTS);
         }
-        String slug = SlugUtils.generateUniqueSlug(tagCreateRequest.getName(), tagRepository::existsBySlug);
+        String slug = SlugUtils.generateUniqueSlug(tagCreateRequest.getName(), tagRepository::findSlugsWithPrefix);
 
         Tag tag = tagMapper.toEntity(tagCreateRequest, slug);
 
         Tag savedTag = tagRepository.save(tag);
+        eventPublisher.publishEvent(new TaxonomyCountsChangedEvent(Set.of(savedTag.getId()), Set.of()));
 
         return tagMapper.toDto(savedTag);
     }
@@ -94,11 +113,13 @@ public class TagServiceImpl implements TagService {
 
         }
 
-        String newSlug = SlugUtils.generateUniqueSlug(tagUpdateRequest.getName(), tagRepository::existsBySlug);
+        String newSlug = SlugUtils.generateUniqueSlug(tagUpdateRequest.getName(), tag.getSlug(), tagRepository::findSlugsWithPrefix);
 
         tagMapper.updateEntityFromDto(tag, tagUpdateRequest, newSlug);
 
         Tag savedtag = tagRepository.save(tag);
+        //El nombre y el slug del tag se copian en el detalle de los posts cacheados
+        eventPublisher.publishEvent(new TaxonomyRenamedEvent());
 
         return tagMapper.toDto(savedtag);
     }
@@ -127,6 +148,7 @@ public class TagServiceImpl implements TagService {
         }
 
         tagRepository.delete(tag);
+        eventPublisher.publishEvent(new TaxonomyCountsChangedEvent(Set.of(tagId), Set.of()));
     }
 
     @Override
@@ -169,10 +191,33 @@ public class TagServiceImpl implements TagService {
 
 
     @Override
-    @Transactional(readOnly = true)
     public List<TagResponse> getPopularTags(int limit){
-        return tagRepository.findAllOrderByPostCountDesc().stream()
-                .limit(limit)
+        if (limit <= 0){
+            return new ArrayList<>();
+        }
+
+        //Se consulta en cada página del sitio: carga única por límite y refresco en segundo plano
+        return listingCache.get("tags.popular", contentVersions.current(ContentVersions.Resource.TAGS),
+                List.of(limit), () -> List.copyOf(loadPopularTags(limit)));
+    }
+
+    private List<TagResponse> loadPopularTags(int limit){
+
+        //Mientras el ranking en memoria no está cargado se consulta directamente solo el top
+        if (!popularTaxonomyIndex.isReady()){
+            return tagRepository.findAllOrderByPostCountDesc(PageRequest.of(0, limit)).stream()
+                    .map(tagMapper::toDto)
+                    .collect(Collectors.toList());
+        }
+
+        //El ranking entrega los IDs ordenados; solo se cargan esos tags por clave primaria
+        List<Long> tagIds = popularTaxonomyIndex.topTagIds(limit);
+        Map<Long, Tag> tags = tagRepository.findAllById(tagIds).stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
+
+        return tagIds.stream()
+                .map(tags::get)
+                .filter(Objects::nonNull)
                 .map(tagMapper::toDto)
                 .collect(Collectors.toList());
     }
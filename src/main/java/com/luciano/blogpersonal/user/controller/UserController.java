@@ -1,6 +1,7 @@
 package com.luciano.blogpersonal.user.controller;
 
 import com.luciano.blogpersonal.common.dto.ApiResponse;
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.utils.AppConstants;
 import com.luciano.blogpersonal.user.dto.UserPasswordUpdateRequest;
@@ -46,6 +47,21 @@ public class UserController {
     return ResponseEntity.ok(users);
     }
 
+    /**
+     * Obtiene todos los usuarios con paginación por cursor (solo ADMIN)
+     * GET /api/users/cursor
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPaginatedResponse<UserResponse>> getAllUsersByCursor(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
+            @RequestParam(value = "includeTotal", defaultValue = AppConstants.DEFAULT_INCLUDE_TOTAL, required = false) boolean includeTotal)
+    {
+        CursorPaginatedResponse<UserResponse> users = userService.getAllUsersByCursor(after, pageSize, includeTotal);
+        return ResponseEntity.ok(users);
+    }
+
     /**
      * Obtiene un usuario por su ID
      * GET /api/users/{id}
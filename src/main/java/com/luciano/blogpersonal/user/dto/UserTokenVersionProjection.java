@@ -0,0 +1,9 @@
+package com.luciano.blogpersonal.user.dto;
+
+/**
+ * Proyección con el id y la versión de seguridad de un usuario
+ */
+public interface UserTokenVersionProjection {
+    Long getId();
+    Long getTokenVersion();
+}
@@ -0,0 +1,15 @@
+package com.luciano.blogpersonal.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado cuando cambian los datos de seguridad de un usuario
+ * (eliminación, contraseña, rol o estado activo), para descartar las autenticaciones cacheadas.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSecurityChangedEvent {
+    private final Long userId;
+    private final String username;
+}
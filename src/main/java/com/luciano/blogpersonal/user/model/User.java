@@ -18,7 +18,10 @@ import java.util.Set;
 @AllArgsConstructor
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        //Índice para la paginación por cursor de usuarios
+        @Index(name = "idx_users_created_at", columnList = "created_at, id")
+})
 
 public class User {
     @Id
@@ -54,6 +57,10 @@ public class User {
 
     private String role = AppConstants.ROLE_USER;
 
+    //Versión de seguridad: al incrementarse invalida los tokens emitidos con la versión anterior
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion = 0;
+
     @JsonIgnore
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<Post> posts = new HashSet<>();
@@ -1,9 +1,15 @@
 package com.luciano.blogpersonal.user.repository;
 
+import com.luciano.blogpersonal.user.dto.UserTokenVersionProjection;
 import com.luciano.blogpersonal.user.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +24,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    // Versiones de seguridad de los usuarios activos, usadas para validar los tokens sin consultar la base de datos
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM User u WHERE u.active = true")
+    List<UserTokenVersionProjection> findActiveTokenVersions();
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id AND u.active = true")
+    Optional<Long> findActiveTokenVersion(@Param("id") Long id);
+
+    // Paginación por cursor: orden estable por fecha de creación e id, sin consulta de conteo
+    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findFirstPage(Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
 }
@@ -1,5 +1,6 @@
 package com.luciano.blogpersonal.user.service;
 
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.user.dto.UserCreateRequest;
 import com.luciano.blogpersonal.user.dto.UserPasswordUpdateRequest;
@@ -70,6 +71,15 @@ public interface UserService {
      */
     PaginatedResponse<UserResponse> getAllUsers (int pageNo, int pageSize, String sortBy, String sortDir);
 
+    /**
+     * Obtiene un listado de todos los usuarios con paginación por cursor, del más reciente al más antiguo
+     * @param after Cursor devuelto por la página anterior (null para la primera página)
+     * @param pageSize Tamano de pagina
+     * @param includeTotal Si se debe calcular el total de usuarios
+     * @return Respuesta paginada por cursor con usuarios
+     */
+    CursorPaginatedResponse<UserResponse> getAllUsersByCursor (String after, int pageSize, boolean includeTotal);
+
     /**
      * Comprueba si un email esta en uso
      * @param email Email a comprobar
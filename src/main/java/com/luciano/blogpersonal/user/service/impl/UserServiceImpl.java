@@ -1,18 +1,24 @@
 package com.luciano.blogpersonal.user.service.impl;
 
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
 import com.luciano.blogpersonal.common.dto.PaginatedResponse;
 import com.luciano.blogpersonal.common.exception.BlogApiException;
 import com.luciano.blogpersonal.common.exception.ResourceNotFoundException;
 import com.luciano.blogpersonal.common.utils.AppConstants;
+import com.luciano.blogpersonal.common.utils.CursorUtils;
+import com.luciano.blogpersonal.post.service.impl.PostCommentCounter;
+import com.luciano.blogpersonal.post.service.impl.PostTaxonomyCounter;
 import com.luciano.blogpersonal.user.dto.UserCreateRequest;
 import com.luciano.blogpersonal.user.dto.UserPasswordUpdateRequest;
 import com.luciano.blogpersonal.user.dto.UserResponse;
 import com.luciano.blogpersonal.user.dto.UserUpdateRequest;
+import com.luciano.blogpersonal.user.event.UserSecurityChangedEvent;
 import com.luciano.blogpersonal.user.mapper.UserMapper;
 import com.luciano.blogpersonal.user.model.User;
 import com.luciano.blogpersonal.user.repository.UserRepository;
 import com.luciano.blogpersonal.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -35,12 +41,18 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostTaxonomyCounter postTaxonomyCounter;
+    private final PostCommentCounter postCommentCounter;
 
     @Autowired
-    public UserServiceImpl (UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder){
+    public UserServiceImpl (UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher, PostTaxonomyCounter postTaxonomyCounter, PostCommentCounter postCommentCounter){
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.postTaxonomyCounter = postTaxonomyCounter;
+        this.postCommentCounter = postCommentCounter;
     }
 
     @Override //Muestra de que se está implementado un metodo de UserService
@@ -169,9 +181,15 @@ public class UserServiceImpl implements UserService {
        //Codificamos la nueva contrasena
        user.setPassword(passwordEncoder.encode(userPasswordUpdateRequest.getNewPassword()));
 
+       //Los tokens emitidos antes del cambio dejan de ser válidos
+       user.setTokenVersion(user.getTokenVersion() + 1);
+
        //Guardamos los cambios
        User updatedUser = userRepository.save(user);
 
+       //Las autenticaciones cacheadas del usuario se descartan
+       eventPublisher.publishEvent(new UserSecurityChangedEvent(updatedUser.getId(), updatedUser.getUsername()));
+
        //Devolvemos los datos del usuario actualizado
        return userMapper.toDto(updatedUser);
 
@@ -185,8 +203,16 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(()->new ResourceNotFoundException("Usuario", "Id", userId));
 
+        //Sus posts se eliminan en cascada, así que los descontamos de tags y categorías
+        postTaxonomyCounter.removePostsOfAuthor(user.getId());
+        //También sus comentarios en posts de otros autores
+        postCommentCounter.removeCommentsOfUser(user.getId());
+
         //Eliminamos al usuario
         userRepository.delete(user);
+
+        //Sus tokens dejan de autenticar aunque sigan vigentes
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getId(), user.getUsername()));
    }
 
     @Override
@@ -224,6 +250,39 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<UserResponse> getAllUsersByCursor (String after, int pageSize, boolean includeTotal){
+
+        pageSize = CursorUtils.pageSize(pageSize);
+        CursorUtils.Cursor cursor = CursorUtils.decode(after);
+
+        //Se pide un elemento extra para saber si existe una página siguiente sin contar todos los usuarios
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<User> users = cursor == null
+                ? userRepository.findFirstPage(limit)
+                : userRepository.findAfter(cursor.createdAt(), cursor.id(), limit);
+
+        boolean hasNext = users.size() > pageSize;
+        if (hasNext){
+            users = users.subList(0, pageSize);
+        }
+
+        User last = users.isEmpty() ? null : users.get(users.size() - 1);
+
+        List<UserResponse> content = users.stream()
+                .map(userMapper::toDto)
+                .collect(Collectors.toList());
+
+        return CursorPaginatedResponse.<UserResponse>builder()
+                .content(content)
+                .pageSize(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorUtils.encode(last.getCreatedAt(), last.getId()) : null)
+                .totalElements(includeTotal ? userRepository.count() : null)
+                .build();
+    }
+
 
 
 
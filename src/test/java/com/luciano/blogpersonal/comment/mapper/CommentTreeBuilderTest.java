@@ -0,0 +1,153 @@
+package com.luciano.blogpersonal.comment.mapper;
+
+import com.luciano.blogpersonal.comment.dto.CommentResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentTreeBuilderTest {
+
+    private record Row(Long id, Long parentId) {}
+
+    private static Row row(long id, Long parentId){
+        return new Row(id, parentId);
+    }
+
+    private static CommentResponse toNode(Row row){
+        return CommentResponse.builder().id(row.id()).parentId(row.parentId()).build();
+    }
+
+    private static List<CommentResponse> forest(CommentTreeBuilder builder, List<Row> rows){
+        return builder.buildForest(rows, Row::id, Row::parentId, CommentTreeBuilderTest::toNode);
+    }
+
+    private static List<Long> ids(List<CommentResponse> nodes){
+        return nodes.stream().map(CommentResponse::getId).toList();
+    }
+
+    @Test
+    void buildForestKeepsTheOriginalOrderOfRootsAndReplies(){
+        List<Row> rows = List.of(row(1, null), row(2, null), row(3, 1L), row(4, 1L), row(5, 3L), row(6, 2L), row(7, 1L));
+
+        List<CommentResponse> roots = forest(new CommentTreeBuilder(0, 0), rows);
+
+        assertThat(ids(roots)).containsExactly(1L, 2L);
+        assertThat(ids(roots.get(0).getReplies())).containsExactly(3L, 4L, 7L);
+        assertThat(ids(roots.get(0).getReplies().get(0).getReplies())).containsExactly(5L);
+        assertThat(ids(roots.get(1).getReplies())).containsExactly(6L);
+        assertThat(roots.get(0).getReplyCount()).isEqualTo(3);
+    }
+
+    @Test
+    void buildForestIgnoresRepliesWhoseParentIsMissing(){
+        List<Row> rows = List.of(row(1, null), row(2, 99L));
+
+        List<CommentResponse> roots = forest(new CommentTreeBuilder(0, 0), rows);
+
+        assertThat(ids(roots)).containsExactly(1L);
+        assertThat(roots.get(0).getReplies()).isEmpty();
+    }
+
+    @Test
+    void maxDepthStopsDescendingButKeepsTheReplyCount(){
+        List<Row> rows = List.of(row(1, null), row(2, 1L), row(3, 2L), row(4, 3L));
+
+        CommentResponse root = forest(new CommentTreeBuilder(1, 0), rows).get(0);
+
+        assertThat(ids(root.getReplies())).containsExactly(2L);
+        CommentResponse reply = root.getReplies().get(0);
+        assertThat(reply.getReplies()).isEmpty();
+        assertThat(reply.getReplyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void maxRepliesTruncatesDirectRepliesAndReportsTheTotal(){
+        List<Row> rows = List.of(row(1, null), row(2, 1L), row(3, 1L), row(4, 1L), row(5, 2L), row(6, 2L), row(7, 2L));
+
+        CommentResponse root = forest(new CommentTreeBuilder(0, 2), rows).get(0);
+
+        assertThat(ids(root.getReplies())).containsExactly(2L, 3L);
+        assertThat(root.getReplyCount()).isEqualTo(3);
+        assertThat(ids(root.getReplies().get(0).getReplies())).containsExactly(5L, 6L);
+        assertThat(root.getReplies().get(0).getReplyCount()).isEqualTo(3);
+    }
+
+    @Test
+    void cyclesInParentIdsDoNotLoopForever(){
+        List<Row> rows = List.of(row(1, 3L), row(2, 1L), row(3, 2L), row(4, 4L));
+        CommentTreeBuilder builder = new CommentTreeBuilder(0, 0);
+
+        CommentResponse root = builder.buildSubtree(rows.get(0), rows, Row::id, Row::parentId, CommentTreeBuilderTest::toNode);
+
+        assertThat(ids(root.getReplies())).containsExactly(2L);
+        CommentResponse second = root.getReplies().get(0);
+        assertThat(ids(second.getReplies())).containsExactly(3L);
+        //El ciclo vuelve a la raíz, que ya fue visitada
+        assertThat(second.getReplies().get(0).getReplies()).isEmpty();
+        //Un comentario que es su propio padre no tiene respuestas
+        CommentResponse selfParent = builder.buildSubtree(rows.get(3), rows, Row::id, Row::parentId, CommentTreeBuilderTest::toNode);
+        assertThat(selfParent.getReplies()).isEmpty();
+        assertThat(forest(builder, rows)).isEmpty();
+    }
+
+    @Test
+    void buildSubtreeAddsARootThatIsNotInTheList(){
+        Row root = row(10, null);
+        List<Row> rows = List.of(row(11, 10L), row(12, 11L));
+
+        CommentResponse tree = new CommentTreeBuilder(0, 0).buildSubtree(root, rows, Row::id, Row::parentId, CommentTreeBuilderTest::toNode);
+
+        assertThat(tree.getId()).isEqualTo(10L);
+        assertThat(ids(tree.getReplies())).containsExactly(11L);
+        assertThat(ids(tree.getReplies().get(0).getReplies())).containsExactly(12L);
+    }
+
+    @Test
+    void buildSubtreesBuildsEachRootIndependently(){
+        List<Row> rows = List.of(row(1, null), row(2, 1L), row(3, 2L), row(4, null));
+
+        List<CommentResponse> trees = new CommentTreeBuilder(0, 0)
+                .buildSubtrees(List.of(4L, 2L, 1L, 99L), rows, Row::id, Row::parentId, CommentTreeBuilderTest::toNode);
+
+        //Una raíz que también es descendiente de otra se arma completa en cada árbol
+        assertThat(ids(trees)).containsExactly(4L, 2L, 1L);
+        assertThat(ids(trees.get(1).getReplies())).containsExactly(3L);
+        assertThat(ids(trees.get(2).getReplies())).containsExactly(2L);
+        assertThat(ids(trees.get(2).getReplies().get(0).getReplies())).containsExactly(3L);
+    }
+
+    @Test
+    void buildForestHandlesManyRoots(){
+        List<Row> rows = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id += 2){
+            rows.add(row(id, null));
+            rows.add(row(id + 1, id));
+        }
+
+        List<CommentResponse> roots = forest(new CommentTreeBuilder(0, 0), rows);
+
+        assertThat(roots).hasSize(50_000);
+        assertThat(roots).allSatisfy(root -> assertThat(root.getReplies()).hasSize(1));
+    }
+
+    @Test
+    void sparseAndCollidingIdsAreResolved(){
+        //Ids separados por potencias de dos y extremos de long caen en las mismas posiciones de una tabla sin mezclar el hash
+        List<Row> rows = new ArrayList<>();
+        rows.add(row(Long.MAX_VALUE, null));
+        rows.add(row(0, Long.MAX_VALUE));
+        rows.add(row(-1, 0L));
+        for (long i = 1; i <= 1_000; i++){
+            rows.add(row(i << 20, Long.MAX_VALUE));
+        }
+
+        List<CommentResponse> roots = forest(new CommentTreeBuilder(0, 0), rows);
+
+        assertThat(ids(roots)).containsExactly(Long.MAX_VALUE);
+        assertThat(roots.get(0).getReplyCount()).isEqualTo(1_001);
+        assertThat(ids(roots.get(0).getReplies().get(0).getReplies())).containsExactly(-1L);
+    }
+}
@@ -0,0 +1,73 @@
+package com.luciano.blogpersonal.common.sql;
+
+import com.luciano.blogpersonal.support.TestRows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Se usa un cliente HTTP real: el error tiene que llegar al cliente, no solo aparecer como excepción dentro del servidor
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.sql-budget.fail-on-violation=true",
+        "app.sql-budget.default=25",
+        "app.sql-budget.endpoints=GET /api/posts/{id}=1"
+})
+@ActiveProfiles("test")
+class SqlBudgetFilterTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void requestOverBudgetAnswers500InsteadOfTheOriginalResponse(){
+        long postId = insertPublishedPost("budget-exceeded");
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/posts/{id}", String.class, postId);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody())
+                .contains("Presupuesto de consultas SQL superado")
+                .contains("GET /api/posts/{id}")
+                .doesNotContain("budget-exceeded");
+        //La respuesta original se descartó completa, también sus headers
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    void requestWithinBudgetKeepsTheOriginalResponse(){
+        insertPublishedPost("budget-within");
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/posts/slug/{slug}", String.class, "budget-within");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("\"slug\":\"budget-within\"");
+    }
+
+    @Test
+    void streamedResponseIsSentAfterTheAsyncDispatch(){
+        long postId = insertPublishedPost("budget-streamed");
+
+        //El contenido se escribe en otro hilo; el filtro lo envía cuando termina el despacho asíncrono
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/posts/{id}/content", String.class, postId);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("Contenido");
+    }
+
+    private long insertPublishedPost(String slug){
+        TestRows rows = new TestRows(jdbcTemplate);
+        long author = rows.insertUser(slug + "-author", LocalDateTime.now());
+        return rows.insertPost(author, slug, true, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,82 @@
+package com.luciano.blogpersonal.common.utils;
+
+import com.luciano.blogpersonal.common.exception.BlogApiException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorUtilsTest {
+
+    private static String base64(String raw){
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void encodeAndDecodeRoundTrip(){
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 5, 10, 15, 30, 123_456_789);
+
+        CursorUtils.Cursor cursor = CursorUtils.decode(CursorUtils.encode(createdAt, 42L));
+
+        assertThat(cursor.createdAt()).isEqualTo(createdAt);
+        assertThat(cursor.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void cursorIsUrlSafe(){
+        String cursor = CursorUtils.encode(LocalDateTime.of(2024, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingCursorMeansFirstPage(){
+        assertThat(CursorUtils.decode(null)).isNull();
+        assertThat(CursorUtils.decode("")).isNull();
+        assertThat(CursorUtils.decode("   ")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no es base64!", "%%%", "@@"})
+    void invalidBase64IsRejected(String cursor){
+        assertBadRequest(cursor);
+    }
+
+    @Test
+    void tamperedCursorsAreRejected(){
+        assertBadRequest(base64("2024-03-05T10:15:30"));
+        assertBadRequest(base64("|42"));
+        assertBadRequest(base64("2024-13-05T10:15:30|42"));
+        assertBadRequest(base64("2024-03-05T10:15:30|abc"));
+        assertBadRequest(base64("2024-03-05T10:15:30|"));
+        assertBadRequest(base64("ayer|42"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+    void pageSizeBelowOneIsRejected(int pageSize){
+        assertThatThrownBy(() -> CursorUtils.pageSize(pageSize))
+                .isInstanceOf(BlogApiException.class)
+                .satisfies(ex -> assertThat(((BlogApiException) ex).getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void pageSizeIsCappedAtTheMaximum(){
+        assertThat(CursorUtils.pageSize(1)).isEqualTo(1);
+        assertThat(CursorUtils.pageSize(AppConstants.MAX_CURSOR_PAGE_SIZE)).isEqualTo(AppConstants.MAX_CURSOR_PAGE_SIZE);
+        assertThat(CursorUtils.pageSize(Integer.MAX_VALUE)).isEqualTo(AppConstants.MAX_CURSOR_PAGE_SIZE);
+    }
+
+    private static void assertBadRequest(String cursor){
+        assertThatThrownBy(() -> CursorUtils.decode(cursor))
+                .isInstanceOf(BlogApiException.class)
+                .satisfies(ex -> assertThat(((BlogApiException) ex).getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
@@ -0,0 +1,96 @@
+package com.luciano.blogpersonal.common.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlugUtilsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Hola Mundo",
+            "Programación en Java: guía rápida",
+            "  --Ñandú   ÀÉÎÕÜ çà  ",
+            "¿Qué es Spring Boot?",
+            "snake_case y números 123",
+            "Straße, Œuvre y Æsir",
+            "Łódź – Đakovo — Ħamrun",
+            "Java 日本語 mezcla",
+            "Привет мир",
+            "Cafe\u0301 con marca combinada",
+            "İstanbul",
+            "---",
+            "",
+            "a"
+    })
+    void fastPathMatchesNormalizerPath(String text){
+        assertThat(SlugUtils.generateSlug(text)).isEqualTo(SlugUtils.generateSlugWithNormalizer(text));
+    }
+
+    @Test
+    void fastPathMatchesNormalizerPathForEveryCharacterAroundTheTable(){
+        //Cada caracter se prueba solo, entre letras y en los extremos para cubrir los guiones intermedios y los recortados
+        for (char c = 0; c < 0x300; c++){
+            for (String text : List.of(String.valueOf(c), "a" + c + "b", c + "a" + c, "a " + c + " b")){
+                assertThat(SlugUtils.generateSlug(text))
+                        .as("U+%04X en \"%s\"", (int) c, text)
+                        .isEqualTo(SlugUtils.generateSlugWithNormalizer(text));
+            }
+        }
+    }
+
+    @Test
+    void generateSlugFoldsAccentsAndTrimsHyphens(){
+        assertThat(SlugUtils.generateSlug("  ¡Canción Ñandú!  ")).isEqualTo("cancion-nandu");
+        assertThat(SlugUtils.generateSlug("a -- b__c")).isEqualTo("a-b__c");
+        assertThat(SlugUtils.generateSlug("Java 日本語")).isEqualTo("java");
+        assertThat(SlugUtils.generateSlug(null)).isNull();
+    }
+
+    @Test
+    void nextFreeSlugKeepsBaseWhenItIsFree(){
+        assertThat(SlugUtils.nextFreeSlug("post", List.of("post-1", "post-2"))).isEqualTo("post");
+        assertThat(SlugUtils.nextFreeSlug("post", List.of())).isEqualTo("post");
+    }
+
+    @Test
+    void nextFreeSlugPicksSmallestFreeSuffix(){
+        assertThat(SlugUtils.nextFreeSlug("post", List.of("post"))).isEqualTo("post-1");
+        assertThat(SlugUtils.nextFreeSlug("post", List.of("post", "post-1", "post-3"))).isEqualTo("post-2");
+        assertThat(SlugUtils.nextFreeSlug("post", List.of("post-2", "post", "post-1"))).isEqualTo("post-3");
+    }
+
+    @Test
+    void nextFreeSlugIgnoresSlugsThatAreNotNumericSuffixes(){
+        //"post-01", "post-abc" o "post-1-2" comparten el prefijo pero no ocupan un sufijo numérico
+        assertThat(SlugUtils.nextFreeSlug("post", List.of("post", "post-01", "post-abc", "post-1-2", "post-"))).isEqualTo("post-1");
+        assertThat(SlugUtils.nextFreeSlug("post", List.of("post", "post-0", "post-1", "postal-2"))).isEqualTo("post-2");
+        assertThat(SlugUtils.nextFreeSlug("post", List.of("post", "post-1", "post-9999999999"))).isEqualTo("post-2");
+    }
+
+    @Test
+    void generateUniqueSlugKeepsTheCurrentSlugWhenItStillMatchesTheText(){
+        SlugUtils.SlugPrefixLookup taken = base -> List.of("cancion", "cancion-1", "cancion-2");
+
+        //La entidad no compite con su propio slug al guardar el mismo nombre
+        assertThat(SlugUtils.generateUniqueSlug("Canción", "cancion-2", taken)).isEqualTo("cancion-2");
+        assertThat(SlugUtils.generateUniqueSlug("Canción", "cancion", taken)).isEqualTo("cancion");
+        //Con otro nombre se busca el siguiente libre
+        assertThat(SlugUtils.generateUniqueSlug("Canción", "otra", taken)).isEqualTo("cancion-3");
+        assertThat(SlugUtils.generateUniqueSlug("Canción", "cancion-x", taken)).isEqualTo("cancion-3");
+    }
+
+    @Test
+    void generateUniqueSlugLooksUpTheGeneratedBase(){
+        String slug = SlugUtils.generateUniqueSlug("Canción nueva", base -> {
+            assertThat(base).isEqualTo("cancion-nueva");
+            return List.of("cancion-nueva", "cancion-nueva-1");
+        });
+
+        assertThat(slug).isEqualTo("cancion-nueva-2");
+    }
+}
@@ -0,0 +1,98 @@
+package com.luciano.blogpersonal.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKRankingTest {
+
+    @Test
+    void topOrdersByCountDescendingAndIdAscendingOnTies(){
+        TopKRanking ranking = new TopKRanking();
+        ranking.put(1L, 5);
+        ranking.put(2L, 9);
+        ranking.put(3L, 5);
+        ranking.put(4L, 0);
+
+        assertThat(ranking.top(10)).containsExactly(2L, 1L, 3L, 4L);
+        assertThat(ranking.top(2)).containsExactly(2L, 1L);
+        assertThat(ranking.top(0)).isEmpty();
+        assertThat(ranking.size()).isEqualTo(4);
+    }
+
+    @Test
+    void putMovesAnExistingElement(){
+        TopKRanking ranking = new TopKRanking();
+        ranking.put(1L, 10);
+        ranking.put(2L, 5);
+
+        ranking.put(2L, 20);
+        assertThat(ranking.top(10)).containsExactly(2L, 1L);
+
+        ranking.put(2L, 1);
+        assertThat(ranking.top(10)).containsExactly(1L, 2L);
+
+        //Repetir la misma cantidad no duplica el elemento
+        ranking.put(2L, 1);
+        assertThat(ranking.top(10)).containsExactly(1L, 2L);
+        assertThat(ranking.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removeDropsTheElement(){
+        TopKRanking ranking = new TopKRanking();
+        ranking.put(1L, 10);
+        ranking.put(2L, 5);
+
+        ranking.remove(1L);
+        ranking.remove(42L);
+
+        assertThat(ranking.top(10)).containsExactly(2L);
+        assertThat(ranking.size()).isEqualTo(1);
+    }
+
+    @Test
+    void replaceAllRemovesMissingElementsAndUpdatesTheRest(){
+        TopKRanking ranking = new TopKRanking();
+        ranking.put(1L, 10);
+        ranking.put(2L, 5);
+        ranking.put(3L, 1);
+
+        ranking.replaceAll(Map.of(2L, 50L, 3L, 1L, 4L, 7L));
+
+        assertThat(ranking.top(10)).containsExactly(2L, 4L, 3L);
+        assertThat(ranking.size()).isEqualTo(3);
+    }
+
+    @Test
+    void matchesAFullSortAfterRandomUpdates(){
+        TopKRanking ranking = new TopKRanking();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5_000; i++){
+            long id = random.nextInt(200);
+            if (random.nextInt(5) == 0){
+                ranking.remove(id);
+                expected.remove(id);
+            } else {
+                long count = random.nextInt(50);
+                ranking.put(id, count);
+                expected.put(id, count);
+            }
+        }
+
+        List<Long> sorted = new ArrayList<>(expected.keySet());
+        sorted.sort(Comparator.<Long>comparingLong(expected::get).reversed().thenComparing(Comparator.naturalOrder()));
+        assertThat(ranking.top(20)).containsExactlyElementsOf(sorted.subList(0, 20));
+        assertThat(ranking.top(Integer.MAX_VALUE)).containsExactlyElementsOf(sorted);
+        assertThat(ranking.size()).isEqualTo(expected.size());
+    }
+}
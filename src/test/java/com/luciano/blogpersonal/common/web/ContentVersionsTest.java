@@ -0,0 +1,32 @@
+package com.luciano.blogpersonal.common.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentVersionsTest {
+
+    @Test
+    void burstOfChangesNeverMovesLastModifiedIntoTheFuture(){
+        ContentVersions versions = new ContentVersions();
+        String before = versions.current(ContentVersions.Resource.POSTS);
+
+        for (int i = 0; i < 100; i++){
+            versions.bump(ContentVersions.Resource.POSTS);
+        }
+
+        assertThat(versions.lastModified(ContentVersions.Resource.POSTS)).isLessThanOrEqualTo(System.currentTimeMillis());
+        //Los cambios del mismo segundo se distinguen por la versión, que va al ETag
+        assertThat(versions.current(ContentVersions.Resource.POSTS)).isNotEqualTo(before);
+    }
+
+    @Test
+    void familiesChangeIndependently(){
+        ContentVersions versions = new ContentVersions();
+        String references = versions.current(ContentVersions.Resource.POST_REFERENCES);
+
+        versions.bump(ContentVersions.Resource.POSTS);
+
+        assertThat(versions.current(ContentVersions.Resource.POST_REFERENCES)).isEqualTo(references);
+    }
+}
@@ -0,0 +1,107 @@
+package com.luciano.blogpersonal.post.controller;
+
+import com.luciano.blogpersonal.common.web.ContentVersions;
+import com.luciano.blogpersonal.post.service.impl.PostResponseCache;
+import com.luciano.blogpersonal.post.service.impl.PostViewCounter;
+import com.luciano.blogpersonal.support.TestRows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PostConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private PostResponseCache postResponseCache;
+
+    @Test
+    void matchingValidatorAnswers304AndCountsTheView() throws Exception {
+        long postId = insertPublishedPost("conditional-post");
+        String etag = currentEtag(postId);
+        long viewsBefore = postViewCounter.getPendingViews(postId);
+
+        mockMvc.perform(get("/api/posts/{id}", postId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertThat(postViewCounter.getPendingViews(postId)).isEqualTo(viewsBefore + 1);
+    }
+
+    @Test
+    void matchingValidatorForAMissingPostAnswers404WithoutCountingTheView() throws Exception {
+        //El ETag es el de la versión actual de los posts, así que también coincide para cualquier otro ID
+        String etag = currentEtag(insertPublishedPost("conditional-other"));
+        long missingId = 987_654_321L;
+
+        mockMvc.perform(get("/api/posts/{id}", missingId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+
+        assertThat(postViewCounter.getPendingViews(missingId)).isZero();
+    }
+
+    @Test
+    void writesToOtherPostsKeepTheValidatorOfThisPost() throws Exception {
+        long postId = insertPublishedPost("conditional-stable");
+        String etag = currentEtag(postId);
+
+        //Cualquier escritura de posts o comentarios cambia la versión de los listados, pero no la de este detalle
+        contentVersions.bump(ContentVersions.Resource.POSTS);
+
+        mockMvc.perform(get("/api/posts/{id}", postId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/posts/slug/{slug}", "conditional-stable").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void commentCounterChangeOnThePostChangesItsValidator() throws Exception {
+        long postId = insertPublishedPost("conditional-comments");
+        String etag = currentEtag(postId);
+
+        jdbcTemplate.update("UPDATE posts SET comment_count = 1, approved_comment_count = 1 WHERE id = ?", postId);
+        postResponseCache.evict(postId);
+
+        String newEtag = mockMvc.perform(get("/api/posts/{id}", postId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
+
+    private long insertPublishedPost(String slug){
+        TestRows rows = new TestRows(jdbcTemplate);
+        long author = rows.insertUser(slug + "-author", LocalDateTime.now());
+        return rows.insertPost(author, slug, true, LocalDateTime.now());
+    }
+
+    private String currentEtag(long postId) throws Exception {
+        String etag = mockMvc.perform(get("/api/posts/{id}", postId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+}
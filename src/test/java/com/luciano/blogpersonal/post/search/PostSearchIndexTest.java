@@ -0,0 +1,177 @@
+package com.luciano.blogpersonal.post.search;
+
+import com.luciano.blogpersonal.post.dto.PostSearchDocument;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostSearchIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private record Document(Long id, String title, String excerpt, String content, LocalDateTime updatedAt) implements PostSearchDocument {
+        @Override public Long getId(){ return id; }
+        @Override public String getTitle(){ return title; }
+        @Override public String getExcerpt(){ return excerpt; }
+        @Override public String getContent(){ return content; }
+        @Override public LocalDateTime getUpdatedAt(){ return updatedAt; }
+    }
+
+    private static Document doc(long id, String title, String excerpt, String content){
+        return new Document(id, title, excerpt, content, T0);
+    }
+
+    @Test
+    void titleMatchesRankAboveExcerptAndContentMatches(){
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(doc(1, "Notas de viaje", "Un resumen", "Hablamos de kotlin en el texto"));
+        index.put(doc(2, "Kotlin para principiantes", "Un resumen", "Texto general"));
+        index.put(doc(3, "Notas varias", "Kotlin en el extracto", "Texto general"));
+        index.put(doc(4, "Otro tema", "Nada que ver", "Sin relación"));
+
+        PostSearchIndex.SearchHits hits = index.search("kotlin", 0, 10);
+
+        assertThat(hits.postIds()).containsExactly(2L, 3L, 1L);
+        assertThat(hits.total()).isEqualTo(3);
+    }
+
+    @Test
+    void postsMatchingMoreTermsRankFirstAndTiesPreferTheNewestId(){
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(doc(1, "Java", "", ""));
+        index.put(doc(2, "Java Spring", "", ""));
+        index.put(doc(3, "Java", "", ""));
+        index.put(doc(4, "Python", "", ""));
+
+        assertThat(index.search("java spring", 0, 10).postIds()).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void searchIsAccentAndCaseInsensitive(){
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(doc(1, "Canción de otoño", "", ""));
+
+        assertThat(index.search("CANCION", 0, 10).postIds()).containsExactly(1L);
+    }
+
+    @Test
+    void lastTermIsAlsoMatchedAsAPrefix(){
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(doc(1, "Programación reactiva", "", ""));
+        index.put(doc(2, "Programa de radio", "", ""));
+        index.put(doc(3, "Prueba", "", ""));
+
+        assertThat(index.search("progr", 0, 10).postIds()).containsExactlyInAnyOrder(1L, 2L);
+        //El término completo puntúa más que una coincidencia solo por prefijo
+        assertThat(index.search("programa", 0, 10).postIds()).containsExactly(2L, 1L);
+        //Solo el último término se expande
+        assertThat(index.search("progr reactiva", 0, 10).postIds()).containsExactly(1L);
+    }
+
+    @Test
+    void pagesUseOffsetAndLimitButReportTheTotal(){
+        PostSearchIndex index = new PostSearchIndex();
+        for (long id = 1; id <= 5; id++){
+            index.put(doc(id, "Tema común", "", ""));
+        }
+
+        PostSearchIndex.SearchHits hits = index.search("tema", 2, 2);
+
+        assertThat(hits.postIds()).containsExactly(3L, 2L);
+        assertThat(hits.total()).isEqualTo(5);
+    }
+
+    @Test
+    void putReplacesThePreviousTermsOfThePost(){
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(doc(1, "Docker en producción", "", ""));
+        index.put(doc(1, "Kubernetes en producción", "", ""));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("docker", 0, 10).total()).isZero();
+        assertThat(index.search("kubernetes", 0, 10).postIds()).containsExactly(1L);
+    }
+
+    @Test
+    void removeDropsThePostFromEveryTerm(){
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(doc(1, "Docker compose", "", ""));
+        index.put(doc(2, "Docker swarm", "", ""));
+
+        index.remove(1L);
+        index.remove(99L);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("docker", 0, 10).postIds()).containsExactly(2L);
+        assertThat(index.search("compose", 0, 10).total()).isZero();
+        assertThat(index.search("comp", 0, 10).total()).isZero();
+
+        index.remove(2L);
+        assertThat(index.size()).isZero();
+        assertThat(index.search("docker", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void putIfNewerKeepsTheMostRecentVersion(){
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(new Document(1L, "Versión nueva", "", "", T0.plusHours(1)));
+
+        index.putIfNewer(new Document(1L, "Versión vieja", "", "", T0));
+        assertThat(index.search("vieja", 0, 10).total()).isZero();
+
+        index.putIfNewer(new Document(1L, "Versión igual", "", "", T0.plusHours(1)));
+        assertThat(index.search("igual", 0, 10).total()).isZero();
+
+        index.putIfNewer(new Document(1L, "Versión posterior", "", "", T0.plusHours(2)));
+        assertThat(index.search("posterior", 0, 10).postIds()).containsExactly(1L);
+        assertThat(index.search("nueva", 0, 10).total()).isZero();
+
+        index.putIfNewer(new Document(2L, "Post nuevo", "", "", T0));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.lastUpdatedAt()).isEqualTo(T0.plusHours(2));
+    }
+
+    @Test
+    void snapshotRoundTripPreservesResultsAndDates() throws IOException {
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(doc(1, "Programación funcional", "Conceptos básicos", "Funciones puras y más"));
+        index.put(new Document(2L, "Programación reactiva", "Flujos", "Señales y eventos", T0.plusDays(1)));
+        index.put(new Document(3L, "Sin fecha", "", "Texto", null));
+
+        PostSearchIndex copy = roundTrip(index);
+
+        assertThat(copy.size()).isEqualTo(3);
+        assertThat(copy.lastUpdatedAt()).isEqualTo(T0.plusDays(1));
+        for (String query : new String[]{"programacion", "progr", "funciones puras", "senales", "texto", "fecha"}){
+            assertThat(copy.search(query, 0, 10)).as(query).isEqualTo(index.search(query, 0, 10));
+        }
+
+        //La copia se puede seguir modificando
+        copy.remove(1L);
+        assertThat(copy.search("funcional", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void snapshotWithAnotherFormatVersionIsRejected(){
+        byte[] data = {0, 0, 0, 99, 0, 0, 0, 0};
+
+        assertThatThrownBy(() -> PostSearchIndex.readFrom(new DataInputStream(new ByteArrayInputStream(data))))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static PostSearchIndex roundTrip(PostSearchIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)){
+            index.writeTo(out);
+        }
+        return PostSearchIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
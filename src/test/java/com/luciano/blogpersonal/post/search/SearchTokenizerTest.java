@@ -0,0 +1,32 @@
+package com.luciano.blogpersonal.post.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTest {
+
+    @Test
+    void splitsOnNonAlphanumericCharactersAndKeepsOrder(){
+        assertThat(SearchTokenizer.tokenize("Spring Boot 3.4: guía rápida!"))
+                .containsExactly("spring", "boot", "3", "4", "guia", "rapida");
+    }
+
+    @Test
+    void foldsAccentsAndCase(){
+        assertThat(SearchTokenizer.tokenize("Canción CANCIÓN cancion")).containsExactly("cancion", "cancion", "cancion");
+    }
+
+    @Test
+    void emptyInputHasNoTerms(){
+        assertThat(SearchTokenizer.tokenize(null)).isEmpty();
+        assertThat(SearchTokenizer.tokenize("")).isEmpty();
+        assertThat(SearchTokenizer.tokenize(" -- ¡¿?! ")).isEmpty();
+    }
+
+    @Test
+    void longTermsAreTruncated(){
+        assertThat(SearchTokenizer.tokenize("a".repeat(500) + " b"))
+                .containsExactly("a".repeat(64), "b");
+    }
+}
@@ -0,0 +1,162 @@
+package com.luciano.blogpersonal.post.service;
+
+import com.luciano.blogpersonal.comment.dto.CommentResponse;
+import com.luciano.blogpersonal.comment.service.CommentService;
+import com.luciano.blogpersonal.common.dto.CursorPaginatedResponse;
+import com.luciano.blogpersonal.common.exception.BlogApiException;
+import com.luciano.blogpersonal.common.utils.AppConstants;
+import com.luciano.blogpersonal.post.dto.PostSummaryResponse;
+import com.luciano.blogpersonal.support.TestRows;
+import com.luciano.blogpersonal.user.dto.UserResponse;
+import com.luciano.blogpersonal.user.service.UserService;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//Paginación por cursor con varias filas que comparten la misma fecha de creación: el id desempata el orden
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CursorPaginationIntegrationTest {
+
+    //Fechas posteriores a cualquier dato de otras pruebas, así estas filas quedan al principio del listado
+    private static final LocalDateTime SAME_TIME = LocalDateTime.of(2099, 1, 1, 12, 0);
+    private static final LocalDateTime EARLIER = SAME_TIME.minusMinutes(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestRows rows;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp(){
+        rows = new TestRows(jdbcTemplate);
+    }
+
+    @Test
+    void publishedPostsWithEqualTimestampsArePagedByIdWithoutGapsOrRepeats(){
+        long author = rows.insertUser("cursor-author", SAME_TIME);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++){
+            expected.add(rows.insertPost(author, "cursor-same-" + i, true, SAME_TIME));
+        }
+        rows.insertPost(author, "cursor-draft", false, SAME_TIME);
+        List<Long> older = List.of(rows.insertPost(author, "cursor-older-0", true, EARLIER), rows.insertPost(author, "cursor-older-1", true, EARLIER));
+
+        expected.sort(Comparator.reverseOrder());
+        older.stream().sorted(Comparator.reverseOrder()).forEach(expected::add);
+
+        List<Long> paged = collect(after -> postService.getPublishedPostsByCursor(after, 3, false), PostSummaryResponse::getId, expected.size());
+
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void rootCommentsWithEqualTimestampsArePagedById(){
+        long author = rows.insertUser("cursor-commenter", SAME_TIME);
+        long postId = rows.insertPost(author, "cursor-commented", true, SAME_TIME);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++){
+            expected.add(rows.insertComment(postId, author, null, SAME_TIME));
+        }
+        rows.insertComment(postId, author, expected.get(0), SAME_TIME);
+        expected.sort(Comparator.reverseOrder());
+
+        List<Long> paged = collect(after -> commentService.getCommentsByPostIdCursor(postId, after, 2, false), CommentResponse::getId, expected.size());
+
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void usersWithEqualTimestampsArePagedById(){
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++){
+            expected.add(rows.insertUser("cursor-user-" + i, SAME_TIME));
+        }
+        expected.sort(Comparator.reverseOrder());
+
+        List<Long> paged = collect(after -> userService.getAllUsersByCursor(after, 2, false), UserResponse::getId, expected.size());
+
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void tamperedCursorIsABadRequest(){
+        assertThatThrownBy(() -> postService.getPublishedPostsByCursor("bm8tZXMtdW4tY3Vyc29y", 3, false))
+                .isInstanceOf(BlogApiException.class);
+    }
+
+    @Test
+    void pageSizeBelowOneIsABadRequest(){
+        long author = rows.insertUser("cursor-size-author", SAME_TIME);
+        long postId = rows.insertPost(author, "cursor-size-post", true, SAME_TIME);
+
+        for (int pageSize : new int[]{0, -1}){
+            assertBadRequest(() -> postService.getPublishedPostsByCursor(null, pageSize, false));
+            assertBadRequest(() -> commentService.getCommentsByPostIdCursor(postId, null, pageSize, false));
+            assertBadRequest(() -> userService.getAllUsersByCursor(null, pageSize, false));
+        }
+    }
+
+    @Test
+    void pageSizeAboveTheMaximumIsCapped(){
+        long author = rows.insertUser("cursor-max-author", SAME_TIME);
+        long postId = rows.insertPost(author, "cursor-max-post", true, SAME_TIME);
+        for (int i = 0; i <= AppConstants.MAX_CURSOR_PAGE_SIZE; i++){
+            rows.insertComment(postId, author, null, SAME_TIME);
+        }
+
+        CursorPaginatedResponse<CommentResponse> comments = commentService.getCommentsByPostIdCursor(postId, null, 10_000, false);
+        assertThat(comments.getPageSize()).isEqualTo(AppConstants.MAX_CURSOR_PAGE_SIZE);
+        assertThat(comments.getContent()).hasSize(AppConstants.MAX_CURSOR_PAGE_SIZE);
+        assertThat(comments.isHasNext()).isTrue();
+
+        assertThat(postService.getPublishedPostsByCursor(null, Integer.MAX_VALUE, false).getPageSize()).isEqualTo(AppConstants.MAX_CURSOR_PAGE_SIZE);
+        assertThat(userService.getAllUsersByCursor(null, Integer.MAX_VALUE, false).getPageSize()).isEqualTo(AppConstants.MAX_CURSOR_PAGE_SIZE);
+    }
+
+    private static void assertBadRequest(ThrowingCallable call){
+        assertThatThrownBy(call)
+                .isInstanceOf(BlogApiException.class)
+                .satisfies(ex -> assertThat(((BlogApiException) ex).getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    //Recorre las páginas siguiendo nextCursor hasta juntar la cantidad indicada de elementos
+    private static <T> List<Long> collect(Function<String, CursorPaginatedResponse<T>> page, Function<T, Long> idOf, int count){
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        while (ids.size() < count){
+            CursorPaginatedResponse<T> response = page.apply(after);
+            response.getContent().forEach(item -> ids.add(idOf.apply(item)));
+            if (!response.isHasNext()){
+                break;
+            }
+            after = response.getNextCursor();
+        }
+        return ids.subList(0, Math.min(count, ids.size()));
+    }
+}
@@ -0,0 +1,90 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.category.repository.CategoryRepository;
+import com.luciano.blogpersonal.common.dto.PostCountProjection;
+import com.luciano.blogpersonal.post.event.TaxonomyCountsChangedEvent;
+import com.luciano.blogpersonal.tag.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PopularTaxonomyIndexTest {
+
+    private TagRepository tagRepository;
+    private CategoryRepository categoryRepository;
+    private PopularTaxonomyIndex index;
+
+    private record Count(Long id, long postCount) implements PostCountProjection {
+        @Override public Long getId(){ return id; }
+        @Override public long getPostCount(){ return postCount; }
+    }
+
+    @BeforeEach
+    void setUp(){
+        tagRepository = mock(TagRepository.class);
+        categoryRepository = mock(CategoryRepository.class);
+        when(tagRepository.findAllPostCounts()).thenReturn(List.of(new Count(1L, 3), new Count(2L, 8), new Count(3L, 3)));
+        when(categoryRepository.findAllPostCounts()).thenReturn(List.of(new Count(10L, 1), new Count(11L, 4)));
+        index = new PopularTaxonomyIndex(tagRepository, categoryRepository);
+    }
+
+    @Test
+    void initializeLoadsBothRankings(){
+        assertThat(index.isReady()).isFalse();
+
+        index.initialize();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.topTagIds(10)).containsExactly(2L, 1L, 3L);
+        assertThat(index.topCategoryIds(1)).containsExactly(11L);
+    }
+
+    @Test
+    void changedIdsAreReloadedAndDeletedOnesRemoved(){
+        index.initialize();
+        //El tag 3 sube al primer lugar y el tag 1 ya no existe
+        when(tagRepository.findPostCountsByIdIn(Set.of(1L, 3L))).thenReturn(List.of(new Count(3L, 20)));
+
+        index.onTaxonomyCountsChanged(new TaxonomyCountsChangedEvent(Set.of(1L, 3L), Set.of()));
+
+        assertThat(index.topTagIds(10)).containsExactly(3L, 2L);
+        assertThat(index.topCategoryIds(10)).containsExactly(11L, 10L);
+        verify(categoryRepository, never()).findPostCountsByIdIn(any());
+    }
+
+    @Test
+    void eventForEverythingReloadsTheWholeRanking(){
+        index.initialize();
+        when(tagRepository.findAllPostCounts()).thenReturn(List.of(new Count(4L, 1)));
+        when(categoryRepository.findAllPostCounts()).thenReturn(List.of(new Count(10L, 9), new Count(11L, 4)));
+
+        index.onTaxonomyCountsChanged(TaxonomyCountsChangedEvent.all());
+
+        assertThat(index.topTagIds(10)).containsExactly(4L);
+        assertThat(index.topCategoryIds(10)).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void refreshCorrectsCountsAppliedOutOfOrder(){
+        index.initialize();
+        //Un listener que leyó antes de un commit posterior aplica un contador viejo
+        when(tagRepository.findPostCountsByIdIn(Set.of(1L))).thenReturn(List.of(new Count(1L, 1)));
+        index.onTaxonomyCountsChanged(new TaxonomyCountsChangedEvent(Set.of(1L), Set.of()));
+        assertThat(index.topTagIds(10)).containsExactly(2L, 3L, 1L);
+
+        when(tagRepository.findAllPostCounts()).thenReturn(List.of(new Count(1L, 9), new Count(2L, 8), new Count(3L, 3)));
+        index.refresh();
+
+        assertThat(index.topTagIds(10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.topCategoryIds(10)).containsExactly(11L, 10L);
+    }
+}
@@ -0,0 +1,127 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.post.dto.PostImportResult;
+import com.luciano.blogpersonal.post.search.PostSearchEngine;
+import com.luciano.blogpersonal.support.TestRows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PostBulkServiceImplTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostBulkServiceImpl postBulkService;
+
+    @Autowired
+    private PostSearchEngine postSearchEngine;
+
+    @AfterEach
+    void clearSecurityContext(){
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void importRejectsInvalidLinesSuffixesTakenSlugsAndUpdatesCountersAndSearch() throws InterruptedException {
+        TestRows rows = new TestRows(jdbcTemplate);
+        long importer = rows.insertUser("bulk-importer", LocalDateTime.now());
+        rows.insertPost(importer, "bulk-existente", true, LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO categories (name, description, slug, post_count, created_at, updated_at) " +
+                "VALUES ('Bulk', 'Categoría de la importación', 'bulk', 0, NOW(), NOW())");
+        jdbcTemplate.update("INSERT INTO tags (name, slug, post_count, created_at, updated_at) VALUES ('bulk', 'bulk', 0, NOW(), NOW())");
+        long categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE slug = 'bulk'", Long.class);
+        long tagId = jdbcTemplate.queryForObject("SELECT id FROM tags WHERE slug = 'bulk'", Long.class);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("bulk-importer", null, List.of()));
+
+        //Se espera la carga inicial del índice para que no reemplace los posts indexados por la importación
+        waitUntilSearchReady();
+
+        String ndjson = String.join("\n",
+                line("Publicado zanahoriaimportada", "bulk-publicado", true, "[" + categoryId + "]", "[" + tagId + "]", null),
+                "{no es json",
+                "{\"excerpt\":\"Resumen\",\"content\":\"Contenido\"}",
+                line("Repetido en el bloque", "bulk-publicado", true, "[]", "[]", null),
+                line("Autor inexistente", "bulk-autor", true, "[]", "[]", "no-existe"),
+                line("Categoría inexistente", "bulk-categoria", true, "[999999]", "[]", null),
+                line("Slug ya usado", "bulk-existente", true, "[]", "[]", null),
+                "",
+                line("Borrador zanahoriaimportada", "bulk-borrador", false, "[]", "[" + tagId + "]", null));
+
+        PostImportResult result = postBulkService.importPosts(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        //La línea en blanco no cuenta como recibida
+        assertThat(result.getReceived()).isEqualTo(8);
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getErrors()).hasSize(4);
+        assertThat(result.getErrors().get(0)).startsWith("Línea 2: JSON inválido");
+        assertThat(result.getErrors().get(1)).startsWith("Línea 3: El titulo es obligatorio");
+        assertThat(result.getErrors()).contains(
+                "Línea 5: No existe el usuario no-existe",
+                "Línea 6: Categorías inexistentes: [999999]");
+
+        //Los slugs repetidos en el bloque o ya ocupados en la base de datos reciben el menor sufijo libre
+        assertThat(titleOf("bulk-publicado-1")).isEqualTo("Repetido en el bloque");
+        assertThat(titleOf("bulk-existente-1")).isEqualTo("Slug ya usado");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT post_count FROM categories WHERE id = ?", Integer.class, categoryId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT post_count FROM tags WHERE id = ?", Integer.class, tagId)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_tags WHERE tag_id = ?", Integer.class, tagId)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT author_id FROM posts WHERE slug = 'bulk-publicado'", Long.class)).isEqualTo(importer);
+
+        //Solo el post publicado del bloque entra al índice de búsqueda
+        Long publishedId = jdbcTemplate.queryForObject("SELECT id FROM posts WHERE slug = 'bulk-publicado'", Long.class);
+        assertThat(postSearchEngine.search("zanahoriaimportada", 0, 10).postIds()).containsExactly(publishedId);
+    }
+
+    @Test
+    void nullCategoryAndTagListsImportWithoutTaxonomies(){
+        new TestRows(jdbcTemplate).insertUser("bulk-null-importer", LocalDateTime.now());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("bulk-null-importer", null, List.of()));
+
+        String ndjson = String.join("\n",
+                line("Sin categorías", "bulk-sin-categorias", false, "null", "[]", null),
+                line("Sin tags", "bulk-sin-tags", false, "[]", "null", null),
+                line("Id nulo", "bulk-id-nulo", false, "[null]", "[]", null));
+
+        PostImportResult result = postBulkService.importPosts(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly("Línea 3: Los ids de categorías y tags no pueden ser nulos");
+        assertThat(titleOf("bulk-sin-categorias")).isEqualTo("Sin categorías");
+        assertThat(titleOf("bulk-sin-tags")).isEqualTo("Sin tags");
+    }
+
+    private String titleOf(String slug){
+        return jdbcTemplate.queryForObject("SELECT title FROM posts WHERE slug = ?", String.class, slug);
+    }
+
+    private static String line(String title, String slug, boolean published, String categoryIds, String tagIds, String authorUsername){
+        return "{\"title\":\"" + title + "\",\"slug\":\"" + slug + "\",\"excerpt\":\"Resumen\",\"content\":\"Contenido\"," +
+                "\"published\":" + published + ",\"categoryIds\":" + categoryIds + ",\"tagIds\":" + tagIds +
+                (authorUsername != null ? ",\"authorUsername\":\"" + authorUsername + "\"" : "") + "}";
+    }
+
+    private void waitUntilSearchReady() throws InterruptedException {
+        for (int i = 0; i < 100 && !postSearchEngine.isReady(); i++){
+            Thread.sleep(50);
+        }
+        assertThat(postSearchEngine.isReady()).isTrue();
+    }
+}
@@ -0,0 +1,57 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.post.repository.PostRepository;
+import com.luciano.blogpersonal.support.TestRows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//La conciliación usa SQL nativo: se ejecuta contra H2 en modo MySQL para comprobar que no depende de sintaxis propia de MySQL
+@SpringBootTest
+@ActiveProfiles("test")
+class PostCommentCounterReconcileTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostCommentCounter postCommentCounter;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reconcileFixesCountersThatDifferFromTheCommentsTable(){
+        TestRows rows = new TestRows(jdbcTemplate);
+        long author = rows.insertUser("reconcile-author", LocalDateTime.now());
+        long drifted = rows.insertPost(author, "reconcile-drifted", true, LocalDateTime.now());
+        long empty = rows.insertPost(author, "reconcile-empty", true, LocalDateTime.now());
+        rows.insertComment(drifted, author, null, LocalDateTime.now());
+        long pending = rows.insertComment(drifted, author, null, LocalDateTime.now());
+        jdbcTemplate.update("UPDATE comments SET approved = FALSE WHERE id = ?", pending);
+        jdbcTemplate.update("UPDATE posts SET comment_count = 7, approved_comment_count = 7 WHERE id IN (?, ?)", drifted, empty);
+
+        postCommentCounter.reconcile();
+
+        assertThat(counts(drifted)).containsEntry("comment_count", 2).containsEntry("approved_comment_count", 1);
+        assertThat(counts(empty)).containsEntry("comment_count", 0).containsEntry("approved_comment_count", 0);
+        //Una segunda pasada no encuentra diferencias
+        Integer corrected = transactionTemplate.execute(status -> postRepository.reconcileCommentCounts());
+        assertThat(corrected).isZero();
+    }
+
+    private Map<String, Object> counts(long postId){
+        return jdbcTemplate.queryForMap("SELECT comment_count, approved_comment_count FROM posts WHERE id = ?", postId);
+    }
+}
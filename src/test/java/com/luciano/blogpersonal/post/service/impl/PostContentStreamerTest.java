@@ -0,0 +1,96 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.common.exception.BlogApiException;
+import com.luciano.blogpersonal.support.TestRows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PostContentStreamerTest {
+
+    //Bloques pequeños para que el contenido de prueba ocupe varias consultas
+    private static final int CHUNK_CHARS = 7;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PostContentStreamer streamer;
+    private TestRows rows;
+    private long author;
+
+    @BeforeEach
+    void setUp(){
+        streamer = new PostContentStreamer(jdbcTemplate, CHUNK_CHARS);
+        rows = new TestRows(jdbcTemplate);
+        author = rows.insertUser("streamer-" + System.nanoTime(), LocalDateTime.now());
+    }
+
+    @Test
+    void contentIsWrittenCompleteAcrossChunks(){
+        String content = "<p>Canción de otoño 🍂 con tildes: áéíóú ñ</p>".repeat(5);
+        long postId = insertPost(content, true);
+
+        StringWriter writer = new StringWriter();
+        assertThat(streamer.writePublishedContent(postId, writer)).isTrue();
+
+        assertThat(writer.toString()).isEqualTo(content);
+    }
+
+    @Test
+    void contentThatFitsOneChunkOrIsEmptyIsWritten(){
+        StringWriter exact = new StringWriter();
+        assertThat(streamer.writePublishedContent(insertPost("1234567", true), exact)).isTrue();
+        assertThat(exact.toString()).isEqualTo("1234567");
+
+        StringWriter empty = new StringWriter();
+        assertThat(streamer.writePublishedContent(insertPost("", true), empty)).isTrue();
+        assertThat(empty.toString()).isEmpty();
+    }
+
+    @Test
+    void draftsAndMissingPostsAreNotWritten(){
+        StringWriter writer = new StringWriter();
+
+        assertThat(streamer.writePublishedContent(insertPost("borrador", false), writer)).isFalse();
+        assertThat(streamer.writePublishedContent(987_654_321L, writer)).isFalse();
+        assertThat(writer.toString()).isEmpty();
+    }
+
+    @Test
+    void downloadStopsIfThePostChangesBetweenChunks(){
+        long postId = insertPost("primera versión del contenido", true);
+        //El post se edita después de escribir el primer bloque
+        StringWriter writer = new StringWriter(){
+            private boolean edited;
+
+            @Override
+            public void write(String text){
+                super.write(text);
+                if (!edited){
+                    edited = true;
+                    jdbcTemplate.update("UPDATE posts SET content = ?, updated_at = ? WHERE id = ?",
+                            "segunda versión del contenido", LocalDateTime.now().plusMinutes(1), postId);
+                }
+            }
+        };
+
+        assertThatThrownBy(() -> streamer.writePublishedContent(postId, writer)).isInstanceOf(BlogApiException.class);
+    }
+
+    private long insertPost(String content, boolean published){
+        long postId = rows.insertPost(author, "streamer-" + System.nanoTime(), published, LocalDateTime.now());
+        jdbcTemplate.update("UPDATE posts SET content = ? WHERE id = ?", content, postId);
+        return postId;
+    }
+}
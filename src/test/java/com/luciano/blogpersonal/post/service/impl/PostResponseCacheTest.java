@@ -0,0 +1,116 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.post.dto.PostResponse;
+import com.luciano.blogpersonal.post.event.PostViewsFlushedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostResponseCacheTest {
+
+    private final PostResponseCache cache = new PostResponseCache(true, DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+
+    private static PostResponse post(long id, String slug, int viewCount){
+        return PostResponse.builder().id(id).slug(slug).title("Post " + id).published(true).viewCount(viewCount).build();
+    }
+
+    @Test
+    void cachedResponsesAreServedWithoutCallingTheLoader(){
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getById(1L, id -> { loads.incrementAndGet(); return post(1, "uno", 0); });
+        PostResponse bySlug = cache.getBySlug("uno", slug -> { loads.incrementAndGet(); return post(1, "uno", 0); });
+
+        assertThat(loads).hasValue(1);
+        assertThat(bySlug.getId()).isEqualTo(1L);
+        assertThat(cache.findIdBySlug("uno")).isEqualTo(1L);
+    }
+
+    @Test
+    void draftsAreNotCached(){
+        AtomicInteger loads = new AtomicInteger();
+        PostResponse draft = post(1, "borrador", 0);
+        draft.setPublished(false);
+
+        cache.getById(1L, id -> { loads.incrementAndGet(); return draft; });
+        cache.getById(1L, id -> { loads.incrementAndGet(); return draft; });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictRemovesThePostAndItsSlugOnly(){
+        cache.getById(1L, id -> post(1, "uno", 0));
+        cache.getById(2L, id -> post(2, "dos", 0));
+
+        cache.evict(1L);
+
+        assertThat(cache.findIdBySlug("uno")).isNull();
+        assertThat(cache.findIdBySlug("dos")).isEqualTo(2L);
+    }
+
+    @Test
+    void loadOfAnInvalidatedPostIsNotStoredButOtherPostsAre(){
+        cache.getById(1L, id -> {
+            //El post 1 cambia mientras se arma su respuesta
+            cache.evict(1L);
+            return post(1, "uno", 0);
+        });
+        cache.getById(2L, id -> {
+            cache.evict(3L);
+            return post(2, "dos", 0);
+        });
+
+        assertThat(cache.findIdBySlug("uno")).isNull();
+        assertThat(cache.findIdBySlug("dos")).isEqualTo(2L);
+    }
+
+    @Test
+    void flushedViewsAreAddedToTheCachedResponse(){
+        AtomicInteger loads = new AtomicInteger();
+        cache.getById(1L, id -> { loads.incrementAndGet(); return post(1, "uno", 10); });
+        cache.getById(2L, id -> { loads.incrementAndGet(); return post(2, "dos", 5); });
+
+        cache.onViewsFlushed(new PostViewsFlushedEvent(Map.of(1L, 3L, 99L, 4L)));
+
+        assertThat(cache.getById(1L, id -> { loads.incrementAndGet(); return post(1, "uno", 0); }).getViewCount()).isEqualTo(13);
+        assertThat(cache.getBySlug("uno", slug -> post(1, "uno", 0)).getViewCount()).isEqualTo(13);
+        assertThat(cache.getById(2L, id -> { loads.incrementAndGet(); return post(2, "dos", 0); }).getViewCount()).isEqualTo(5);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadInFlightDuringAViewFlushIsNotStored(){
+        cache.getById(1L, id -> {
+            //El volcado ocurre después de que la carga leyó el contador anterior
+            cache.onViewsFlushed(new PostViewsFlushedEvent(Map.of(1L, 3L)));
+            return post(1, "uno", 10);
+        });
+
+        assertThat(cache.findIdBySlug("uno")).isNull();
+    }
+
+    @Test
+    void renamedPostIsNotServedUnderItsOldSlug(){
+        cache.getById(1L, id -> post(1, "viejo", 0));
+        cache.evict(1L);
+        cache.getById(1L, id -> post(1, "nuevo", 0));
+
+        assertThat(cache.findIdBySlug("viejo")).isNull();
+        assertThat(cache.findIdBySlug("nuevo")).isEqualTo(1L);
+    }
+
+    @Test
+    void returnedResponsesAreCopies(){
+        cache.getById(1L, id -> post(1, "uno", 10));
+
+        cache.getById(1L, id -> post(1, "uno", 0)).setViewCount(500);
+
+        assertThat(cache.getById(1L, id -> post(1, "uno", 0)).getViewCount()).isEqualTo(10);
+    }
+}
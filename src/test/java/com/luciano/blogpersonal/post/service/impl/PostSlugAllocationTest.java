@@ -0,0 +1,75 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import com.luciano.blogpersonal.post.dto.PostCreateRequest;
+import com.luciano.blogpersonal.post.dto.PostResponse;
+import com.luciano.blogpersonal.post.dto.PostUpdateRequest;
+import com.luciano.blogpersonal.post.service.PostService;
+import com.luciano.blogpersonal.support.TestRows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PostSlugAllocationTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearSecurityContext(){
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedTitlesGetTheSmallestFreeSuffix(){
+        authenticate("slug-repeated-author");
+        PostResponse first = postService.createPost(create("Título repetido"));
+        PostResponse second = postService.createPost(create("Título repetido"));
+        PostResponse third = postService.createPost(create("Título repetido"));
+
+        assertThat(first.getSlug()).isEqualTo("titulo-repetido");
+        assertThat(second.getSlug()).isEqualTo("titulo-repetido-1");
+        assertThat(third.getSlug()).isEqualTo("titulo-repetido-2");
+    }
+
+    @Test
+    void updatingWithTheSameTitleKeepsTheSuffixedSlug(){
+        authenticate("slug-update-author");
+        postService.createPost(create("Título estable"));
+        PostResponse suffixed = postService.createPost(create("Título estable"));
+
+        PostResponse updated = postService.updatePost(suffixed.getId(), update("Título estable"));
+        assertThat(updated.getSlug()).isEqualTo("titulo-estable-1");
+
+        PostResponse renamed = postService.updatePost(suffixed.getId(), update("Título nuevo"));
+        assertThat(renamed.getSlug()).isEqualTo("titulo-nuevo");
+    }
+
+    private void authenticate(String username){
+        new TestRows(jdbcTemplate).insertUser(username, LocalDateTime.now());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static PostCreateRequest create(String title){
+        return new PostCreateRequest(title, "Resumen", "Contenido", null, true, new HashSet<>(), new HashSet<>());
+    }
+
+    private static PostUpdateRequest update(String title){
+        return new PostUpdateRequest(title, "Resumen", "Contenido", null, true, null, null);
+    }
+}
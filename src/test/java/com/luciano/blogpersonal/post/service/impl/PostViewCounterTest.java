@@ -0,0 +1,75 @@
+package com.luciano.blogpersonal.post.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostViewCounterTest {
+
+    @Test
+    void flushedAndPendingViewsAddUpToEveryIncrement() throws InterruptedException {
+        //El UPDATE en lote se reemplaza por una suma en memoria de lo volcado
+        AtomicLong flushed = new AtomicLong();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            for (Object[] row : batch){
+                flushed.addAndGet((Long) row[0]);
+            }
+            return new int[batch.size()];
+        });
+        PostViewCounter counter = new PostViewCounter(jdbcTemplate, mock(ApplicationEventPublisher.class));
+
+        int threads = 4;
+        int incrementsPerThread = 50_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++){
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < incrementsPerThread; i++){
+                    //Pocos posts con vistas intermitentes, así flush retira contadores mientras se incrementan
+                    counter.increment((long) (i % 3));
+                }
+                done.countDown();
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        while (done.getCount() > 0){
+            counter.flush();
+        }
+        for (Thread worker : workers){
+            worker.join();
+        }
+        counter.flush();
+
+        assertThat(flushed.get() + counter.getPendingViews(0L) + counter.getPendingViews(1L) + counter.getPendingViews(2L))
+                .isEqualTo((long) threads * incrementsPerThread);
+    }
+
+    @Test
+    void idlePostsAreRemovedAndCountAgainAfterwards(){
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[1]);
+        PostViewCounter counter = new PostViewCounter(jdbcTemplate, mock(ApplicationEventPublisher.class));
+
+        counter.increment(7L);
+        counter.flush();
+        //Sin vistas nuevas el contador se retira del mapa
+        counter.flush();
+        counter.increment(7L);
+
+        assertThat(counter.getPendingViews(7L)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.luciano.blogpersonal.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationCacheTest {
+
+    private JwtTokenProvider tokenProvider;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationCache authenticationCache;
+
+    @BeforeEach
+    void setUp(){
+        tokenProvider = mock(JwtTokenProvider.class);
+        userDetailsService = mock(UserDetailsService.class);
+        authenticationCache = new JwtAuthenticationCache(tokenProvider, userDetailsService,
+                mock(TokenVersionRegistry.class), Duration.ofMinutes(5), 100);
+
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn("ana");
+        when(tokenProvider.parseClaims("token")).thenReturn(claims);
+    }
+
+    @Test
+    void repeatedTokenIsLoadedOnce(){
+        when(userDetailsService.loadUserByUsername("ana")).thenReturn(user("viejo"));
+
+        authenticationCache.authenticate("token");
+        authenticationCache.authenticate("token");
+
+        verify(userDetailsService, times(1)).loadUserByUsername("ana");
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached(){
+        //El cambio de seguridad se confirma mientras la solicitud todavía está cargando al usuario
+        when(userDetailsService.loadUserByUsername("ana"))
+                .thenAnswer(invocation -> {
+                    authenticationCache.evictUser("ana");
+                    return user("viejo");
+                })
+                .thenReturn(user("nuevo"));
+
+        assertThat(authenticationCache.authenticate("token").getPassword()).isEqualTo("viejo");
+        assertThat(authenticationCache.authenticate("token").getPassword()).isEqualTo("nuevo");
+        verify(userDetailsService, times(2)).loadUserByUsername("ana");
+    }
+
+    private static UserDetails user(String password){
+        return User.withUsername("ana").password(password).authorities("ROLE_USER").build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.luciano.blogpersonal.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Inserta filas mínimas de usuarios, posts y comentarios para las pruebas de integración
+ */
+public class TestRows {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TestRows(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long insertUser(String username, LocalDateTime createdAt){
+        return insert("INSERT INTO users (name, last_name, username, email, password, active, role, token_version, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, TRUE, 'ROLE_USER', 0, ?)",
+                "Nombre", "Apellido", username, username + "@example.com", "x", Timestamp.valueOf(createdAt));
+    }
+
+    public long insertPost(long authorId, String slug, boolean published, LocalDateTime createdAt){
+        return insert("INSERT INTO posts (title, slug, excerpt, content, published, created_at, updated_at, view_count, " +
+                        "comment_count, approved_comment_count, author_id) VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0, 0, ?)",
+                "Post " + slug, slug, "Resumen", "Contenido", published,
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt), authorId);
+    }
+
+    public long insertComment(long postId, long userId, Long parentId, LocalDateTime createdAt){
+        return insert("INSERT INTO comments (content, approved, created_at, updated_at, post_id, user_id, parent_id) VALUES (?, TRUE, ?, ?, ?, ?, ?)",
+                "Comentario", Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt), postId, userId, parentId);
+    }
+
+    private long insert(String sql, Object... args){
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++){
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}